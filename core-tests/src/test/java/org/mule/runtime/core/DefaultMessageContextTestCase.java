@@ -9,6 +9,8 @@ package org.mule.runtime.core;
 import static java.util.Optional.empty;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
@@ -55,6 +57,15 @@ public class DefaultMessageContextTestCase extends AbstractMuleTestCase {
     executionContextWithCorrelation = create(flow, TEST_CONNECTOR_LOCATION, CUSTOM_CORRELATION_ID);
   }
 
+  @Test
+  public void idGeneratedOnceWhenRequested() {
+    verify(flow, never()).getUniqueIdString();
+
+    assertThat(executionContext.getId(), is(GENERATED_CORRELATION_ID));
+    assertThat(executionContext.getId(), is(GENERATED_CORRELATION_ID));
+    verify(flow).getUniqueIdString();
+  }
+
   @Test
   public void noCorrelationIdInContext() {
     final Message message = of(TEST_PAYLOAD);
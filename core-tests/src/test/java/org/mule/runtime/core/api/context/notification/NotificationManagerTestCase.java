@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -16,6 +17,8 @@ import org.mule.runtime.core.privileged.context.notification.OptimisedNotificati
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -167,6 +170,32 @@ public class NotificationManagerTestCase extends AbstractMuleTestCase {
     assertTrue(listener2.isNotified());
   }
 
+  @Test
+  public void testNotifiedOnceWhenListeningToSeveralMatchingEvents() throws ClassNotFoundException {
+    registerDefaultEvents();
+    manager.addInterfaceToType(Listener2.class, SubEvent2.class);
+    registerDefaultListeners();
+
+    AtomicInteger notifications = new AtomicInteger();
+    manager.notifyListeners(new SubEvent2(), (listener, nfn) -> notifications.incrementAndGet());
+    assertEquals(1, notifications.get());
+  }
+
+  @Test
+  public void testRoutingUpdatedOnListenerChanges() throws ClassNotFoundException {
+    registerDefaultEvents();
+    manager.notifyListeners(new Event2(), (listener, nfn) -> listener.onNotification(nfn));
+    assertFalse(manager.isNotificationEnabled(Event2.class));
+
+    manager.addListener(listener2);
+    manager.notifyListeners(new Event2(), (listener, nfn) -> listener.onNotification(nfn));
+    assertTrue(manager.isNotificationEnabled(Event2.class));
+    assertTrue(listener2.isNotified());
+
+    manager.removeListener(listener2);
+    assertFalse(manager.isNotificationEnabled(Event2.class));
+  }
+
   protected void assertNoListenersNotified() {
     assertFalse(listener1.isNotified());
     assertFalse(listener2.isNotified());
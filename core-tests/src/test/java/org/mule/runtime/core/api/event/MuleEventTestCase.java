@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.event;
 
 import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertArrayEquals;
@@ -25,8 +26,11 @@ import org.mule.runtime.core.api.security.DefaultMuleCredentials;
 import org.mule.runtime.core.api.transformer.AbstractTransformer;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
 import org.mule.runtime.core.internal.security.DefaultSecurityContextFactory;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.event.PrivilegedEvent;
 import org.mule.runtime.core.privileged.transformer.simple.ByteArrayToObject;
 import org.mule.runtime.core.privileged.transformer.simple.SerializableToByteArray;
@@ -38,10 +42,18 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 public class MuleEventTestCase extends AbstractMuleContextTestCase {
@@ -128,6 +140,30 @@ public class MuleEventTestCase extends AbstractMuleContextTestCase {
     assertArrayEquals((byte[]) testEvent.getMessage().getPayload().getValue(), payload.toString().getBytes());
   }
 
+  @Test
+  public void deserializeVariablesSerializedAsCaseInsensitiveHashMap() throws Exception {
+    CoreEvent event = getEventBuilder()
+        .message(of("whatever"))
+        .addVariable("foo", "bar")
+        .build();
+    currentMuleContext.set(muleContext);
+
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new CaseInsensitiveHashMapVariablesOutputStream(serialized)) {
+      out.writeObject(event);
+    }
+    CoreEvent deserialized = muleContext.getObjectSerializer().getExternalProtocol().deserialize(serialized.toByteArray());
+
+    assertThat(deserialized.getVariables(), instanceOf(PersistentCaseInsensitiveMap.class));
+    assertThat(deserialized.getVariables().get("FOO").getValue(), is("bar"));
+
+    CoreEvent copy = CoreEvent.builder(deserialized).addVariable("baz", "qux").build();
+    byte[] reserialized = muleContext.getObjectSerializer().getExternalProtocol().serialize(copy);
+    CoreEvent roundTripped = muleContext.getObjectSerializer().getExternalProtocol().deserialize(reserialized);
+    assertThat(roundTripped.getVariables().get("foo").getValue(), is("bar"));
+    assertThat(roundTripped.getVariables().get("baz").getValue(), is("qux"));
+  }
+
   private void createAndRegisterTransformersEndpointBuilderService() throws Exception {
     Transformer trans1 = new TestEventTransformer();
     trans1.setName("OptimusPrime");
@@ -219,6 +255,47 @@ public class MuleEventTestCase extends AbstractMuleContextTestCase {
     return securityContext;
   }
 
+  /**
+   * Serializes events the way they were written while their variables were held in a {@link CaseInsensitiveHashMap}.
+   */
+  private static class CaseInsensitiveHashMapVariablesOutputStream extends ObjectOutputStream {
+
+    private static final String PREVIOUS_VARIABLES_TYPE = "L" + CaseInsensitiveHashMap.class.getName().replace('.', '/') + ";";
+
+    private CaseInsensitiveHashMapVariablesOutputStream(OutputStream out) throws IOException {
+      super(out);
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) {
+      if (obj instanceof PersistentCaseInsensitiveMap) {
+        return new CaseInsensitiveHashMap<>((Map<?, ?>) obj).toImmutableCaseInsensitiveMap();
+      }
+      return obj;
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+      if (!InternalEventImplementation.class.equals(desc.forClass())) {
+        super.writeClassDescriptor(desc);
+        return;
+      }
+
+      writeUTF(desc.getName());
+      writeLong(desc.getSerialVersionUID());
+      writeByte(ObjectStreamConstants.SC_SERIALIZABLE | ObjectStreamConstants.SC_WRITE_METHOD);
+      writeShort(desc.getFields().length);
+      for (ObjectStreamField field : desc.getFields()) {
+        writeByte(field.getTypeCode());
+        writeUTF(field.getName());
+        if (!field.isPrimitive()) {
+          writeObject(field.getName().equals("variables") ? PREVIOUS_VARIABLES_TYPE : field.getTypeString());
+        }
+      }
+    }
+  }
+
   private static class TestEventTransformer extends AbstractTransformer {
 
     @Override
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+
+@SmallTest
+public class ConcurrentConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_ACTIVE = 2;
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private PoolableObjectFactory<Object> factory;
+  private ConcurrentConnectionPool<Object> pool;
+
+  @Before
+  public void before() throws Exception {
+    factory = mock(PoolableObjectFactory.class);
+    when(factory.makeObject()).thenAnswer(invocation -> new Object());
+  }
+
+  @After
+  public void after() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void returnedConnectionIsReused() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, 100);
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    assertThat(pool.borrowObject(), is(sameInstance(connection)));
+    verify(factory).makeObject();
+    verify(factory).passivateObject(connection);
+    verify(factory).activateObject(connection);
+  }
+
+  @Test
+  public void failWhenExhausted() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, 100);
+    for (int i = 0; i < MAX_ACTIVE; i++) {
+      pool.borrowObject();
+    }
+
+    expectedException.expect(NoSuchElementException.class);
+    pool.borrowObject();
+  }
+
+  @Test
+  public void timeoutWhenExhausted() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, 50);
+    for (int i = 0; i < MAX_ACTIVE; i++) {
+      pool.borrowObject();
+    }
+
+    expectedException.expect(NoSuchElementException.class);
+    pool.borrowObject();
+  }
+
+  @Test
+  public void waitForReturnedConnection() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, -1);
+    Object connection = pool.borrowObject();
+    pool.borrowObject();
+
+    Thread returner = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+        pool.returnObject(connection);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    returner.start();
+
+    assertThat(pool.borrowObject(), is(sameInstance(connection)));
+    returner.join();
+    assertThat(pool.getNumActive(), is(MAX_ACTIVE));
+  }
+
+  @Test
+  public void exceedingMaxIdleIsDestroyed() throws Exception {
+    pool = new ConcurrentConnectionPool<>(factory, new PoolingProfile(MAX_ACTIVE, 1, 100, WHEN_EXHAUSTED_FAIL,
+                                                                      INITIALISE_NONE),
+                                          () -> mock(Scheduler.class));
+    Object first = pool.borrowObject();
+    Object second = pool.borrowObject();
+
+    pool.returnObject(first);
+    pool.returnObject(second);
+
+    assertThat(pool.getNumIdle(), is(1));
+    verify(factory, never()).destroyObject(first);
+    verify(factory).destroyObject(second);
+  }
+
+  @Test
+  public void invalidatedConnectionIsNotReused() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, 100);
+    Object connection = pool.borrowObject();
+    pool.invalidateObject(connection);
+
+    assertThat(pool.getNumActive(), is(0));
+    verify(factory).destroyObject(connection);
+    assertThat(pool.borrowObject(), is(not(sameInstance(connection))));
+  }
+
+  @Test
+  public void returnUnknownConnection() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, 100);
+
+    expectedException.expect(IllegalStateException.class);
+    pool.returnObject(new Object());
+  }
+
+  @Test
+  public void closeDestroysIdleConnections() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, 100);
+    Object idle = pool.borrowObject();
+    Object borrowed = pool.borrowObject();
+    pool.returnObject(idle);
+
+    pool.close();
+    verify(factory).destroyObject(idle);
+    verify(factory, never()).destroyObject(borrowed);
+
+    pool.returnObject(borrowed);
+    verify(factory).destroyObject(borrowed);
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  @Test
+  public void statistics() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, 100);
+    Object first = pool.borrowObject();
+    Object second = pool.borrowObject();
+    pool.returnObject(first);
+    pool.invalidateObject(second);
+    pool.borrowObject();
+
+    assertThat(pool.getNumActive(), is(1));
+    assertThat(pool.getNumIdle(), is(0));
+    assertThat(pool.getNumWaiting(), is(0));
+    assertThat(pool.getCreatedCount(), is(2L));
+    assertThat(pool.getDestroyedCount(), is(1L));
+    assertThat(pool.getBorrowedCount(), is(3L));
+    assertThat(pool.getWaitTimeHistogram().values().stream().mapToLong(Long::longValue).sum(), is(3L));
+  }
+
+  @Test
+  public void evictionSchedulerStoppedOnClose() throws Exception {
+    Scheduler scheduler = mock(Scheduler.class);
+    ScheduledFuture evictionTask = mock(ScheduledFuture.class);
+    when(scheduler.scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(evictionTask);
+    PoolingProfile poolingProfile = mock(PoolingProfile.class);
+    when(poolingProfile.getEvictionCheckIntervalMillis()).thenReturn(1000);
+    pool = new ConcurrentConnectionPool<>(factory, poolingProfile, () -> scheduler);
+
+    pool.close();
+    verify(evictionTask).cancel(false);
+    verify(scheduler, times(1)).stop();
+  }
+
+  @Test
+  public void idleConnectionNotValidatedByDefault() throws Exception {
+    ArgumentCaptor<Runnable> eviction = forClass(Runnable.class);
+    pool = createEvictingPool(eviction, false);
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    eviction.getValue().run();
+    verify(factory, never()).validateObject(connection);
+    assertThat(pool.borrowObject(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void invalidIdleConnectionEvictedIfValidationEnabled() throws Exception {
+    ArgumentCaptor<Runnable> eviction = forClass(Runnable.class);
+    pool = createEvictingPool(eviction, true);
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+    when(factory.validateObject(connection)).thenReturn(false);
+
+    eviction.getValue().run();
+    verify(factory).destroyObject(connection);
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  private ConcurrentConnectionPool<Object> createEvictingPool(ArgumentCaptor<Runnable> eviction, boolean validateIdle) {
+    Scheduler scheduler = mock(Scheduler.class);
+    when(scheduler.scheduleWithFixedDelay(eviction.capture(), anyLong(), anyLong(), any(TimeUnit.class)))
+        .thenReturn(mock(ScheduledFuture.class));
+    PoolingProfile poolingProfile = mock(PoolingProfile.class);
+    when(poolingProfile.getMaxIdle()).thenReturn(MAX_ACTIVE);
+    when(poolingProfile.getEvictionCheckIntervalMillis()).thenReturn(1000);
+    return new ConcurrentConnectionPool<>(factory, poolingProfile, () -> scheduler, validateIdle);
+  }
+
+  private ConcurrentConnectionPool<Object> createPool(int exhaustedAction, long maxWait) {
+    return new ConcurrentConnectionPool<>(factory,
+                                          new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, maxWait, exhaustedAction, INITIALISE_NONE),
+                                          () -> mock(Scheduler.class));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.BLOCK;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.DROP_OLDEST;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.SAMPLE;
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class AsyncNotificationQueueTestCase extends AbstractMuleTestCase {
+
+  private static final int BUFFER_SIZE = 4;
+
+  private final List<Notification> delivered = new ArrayList<>();
+  private final NotificationListener listener = notification -> delivered.add(notification);
+  private final Queue<Runnable> tasks = new LinkedList<>();
+  private final List<Notification> notifications = new ArrayList<>();
+
+  @Before
+  public void before() {
+    for (int i = 0; i < 10; i++) {
+      notifications.add(mock(Notification.class));
+    }
+  }
+
+  @Test
+  public void deliveredInOrderWithSingleTask() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, tasks::add, BUFFER_SIZE, BLOCK, 1);
+    for (int i = 0; i < BUFFER_SIZE; i++) {
+      queue.enqueue(notifications.get(i));
+    }
+
+    assertThat(tasks, hasSize(1));
+    runTasks();
+    assertThat(delivered, contains(notifications.subList(0, BUFFER_SIZE).toArray()));
+  }
+
+  @Test
+  public void rescheduledAfterDrain() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, tasks::add, BUFFER_SIZE, BLOCK, 1);
+    queue.enqueue(notifications.get(0));
+    runTasks();
+    queue.enqueue(notifications.get(1));
+    runTasks();
+
+    assertThat(delivered, contains(notifications.get(0), notifications.get(1)));
+  }
+
+  @Test
+  public void dropOldest() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, tasks::add, BUFFER_SIZE, DROP_OLDEST, 1);
+    for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+      queue.enqueue(notifications.get(i));
+    }
+    runTasks();
+
+    assertThat(queue.getDroppedCount(), is(2L));
+    assertThat(delivered, contains(notifications.subList(2, BUFFER_SIZE + 2).toArray()));
+  }
+
+  @Test
+  public void sample() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, tasks::add, BUFFER_SIZE, SAMPLE, 3);
+    for (int i = 0; i < BUFFER_SIZE + 3; i++) {
+      queue.enqueue(notifications.get(i));
+    }
+    runTasks();
+
+    // the third overflowing notification displaces the oldest one, the other two are discarded
+    assertThat(queue.getDroppedCount(), is(3L));
+    assertThat(delivered, contains(notifications.get(1), notifications.get(2), notifications.get(3),
+                                   notifications.get(BUFFER_SIZE + 2)));
+  }
+
+  @Test
+  public void blockDeliversInFiringThread() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, tasks::add, BUFFER_SIZE, BLOCK, 1);
+    for (int i = 0; i < BUFFER_SIZE + 1; i++) {
+      queue.enqueue(notifications.get(i));
+    }
+
+    assertThat(delivered, contains(notifications.subList(0, BUFFER_SIZE).toArray()));
+    runTasks();
+    assertThat(queue.getDroppedCount(), is(0L));
+    assertThat(delivered, contains(notifications.subList(0, BUFFER_SIZE + 1).toArray()));
+  }
+
+  @Test
+  public void listenerExceptionDoesNotStopDelivery() {
+    NotificationListener failingListener = notification -> {
+      delivered.add(notification);
+      throw new IllegalStateException();
+    };
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(failingListener, tasks::add, BUFFER_SIZE, BLOCK, 1);
+    queue.enqueue(notifications.get(0));
+    queue.enqueue(notifications.get(1));
+    runTasks();
+
+    assertThat(delivered, contains(notifications.get(0), notifications.get(1)));
+  }
+
+  @Test
+  public void rejectedDeliveryIsRetried() {
+    boolean[] reject = {true};
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, task -> {
+      if (reject[0]) {
+        throw new RejectedExecutionException();
+      }
+      tasks.add(task);
+    }, BUFFER_SIZE, BLOCK, 1);
+
+    queue.enqueue(notifications.get(0));
+    assertThat(tasks, hasSize(0));
+
+    reject[0] = false;
+    queue.enqueue(notifications.get(1));
+    runTasks();
+    assertThat(delivered, contains(notifications.get(0), notifications.get(1)));
+  }
+
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+}
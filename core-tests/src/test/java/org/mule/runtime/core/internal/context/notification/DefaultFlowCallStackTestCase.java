@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import org.mule.runtime.core.api.context.notification.FlowStackElement;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.EmptyStackException;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class DefaultFlowCallStackTestCase extends AbstractMuleTestCase {
+
+  private final DefaultFlowCallStack stack = new DefaultFlowCallStack();
+
+  @Test
+  public void elementsFromTopToBottom() {
+    pushFlows(10);
+    stack.setCurrentProcessorPath("flow9/processors/0");
+
+    List<FlowStackElement> elements = stack.getElements();
+    assertThat(elements, hasSize(10));
+    assertThat(elements.get(0).getFlowName(), is("flow9"));
+    assertThat(elements.get(0).getProcessorPath(), is("flow9/processors/0"));
+    assertThat(elements.get(9).getFlowName(), is("flow0"));
+    assertThat(elements.get(9).getProcessorPath(), is(nullValue()));
+  }
+
+  @Test
+  public void pop() {
+    pushFlows(2);
+    stack.setCurrentProcessorPath("flow1/processors/0");
+
+    FlowStackElement popped = stack.pop();
+    assertThat(popped.getFlowName(), is("flow1"));
+    assertThat(popped.getProcessorPath(), is("flow1/processors/0"));
+    assertThat(stack.getElements(), hasSize(1));
+
+    stack.pop();
+    assertThat(stack.getElements(), is(empty()));
+  }
+
+  @Test(expected = EmptyStackException.class)
+  public void popEmpty() {
+    stack.pop();
+  }
+
+  @Test
+  public void setCurrentProcessorPathOnEmpty() {
+    stack.setCurrentProcessorPath("flow/processors/0");
+    assertThat(stack.getElements(), is(empty()));
+  }
+
+  @Test
+  public void cloneIsIndependent() {
+    pushFlows(5);
+    stack.setCurrentProcessorPath("flow4/processors/0");
+
+    DefaultFlowCallStack cloned = stack.clone();
+    stack.setCurrentProcessorPath("flow4/processors/1");
+    stack.pop();
+    cloned.push(new FlowStackElement("async", null));
+
+    assertThat(stack.getElements(), hasSize(4));
+    assertThat(cloned.getElements(), hasSize(6));
+    assertThat(cloned.getElements().get(0).getFlowName(), is("async"));
+    assertThat(cloned.getElements().get(1).getProcessorPath(), is("flow4/processors/0"));
+  }
+
+  @Test
+  public void serialization() {
+    pushFlows(2);
+    stack.setCurrentProcessorPath("flow1/processors/0");
+
+    DefaultFlowCallStack deserialized = SerializationUtils.clone(stack);
+    assertThat(deserialized.getElements(), hasSize(2));
+    assertThat(deserialized.getElements().get(0).getProcessorPath(), is("flow1/processors/0"));
+    assertThat(deserialized.getElements().get(1).getFlowName(), is("flow0"));
+  }
+
+  private void pushFlows(int count) {
+    for (int i = 0; i < count; i++) {
+      stack.push(new FlowStackElement("flow" + i, null));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el.mvel;
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.MediaType.JSON;
+import static org.mule.runtime.core.internal.el.mvel.EventAccessorExpression.compileExpression;
+import static org.mule.tck.junit4.matcher.DataTypeMatcher.like;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.internal.el.context.InboundPropertiesMapContext;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.privileged.event.PrivilegedEvent;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class EventAccessorExpressionTestCase extends AbstractMuleContextTestCase {
+
+  private static final DataType JSON_DATA_TYPE =
+      DataType.builder().type(String.class).mediaType(JSON).charset(UTF_16.name()).build();
+
+  private MVELExpressionLanguage mvel;
+  private PrivilegedEvent event;
+
+  @Before
+  public void setup() throws Exception {
+    mvel = new MVELExpressionLanguage(muleContext);
+    mvel.initialise();
+
+    event = this.<PrivilegedEvent.Builder>getEventBuilder()
+        .message(InternalMessage.builder().value(TEST_PAYLOAD).mediaType(JSON).inboundProperties(singletonMap("foo", "bar"))
+            .build())
+        .addVariable("var", "value", JSON_DATA_TYPE)
+        .build();
+  }
+
+  @Test
+  public void supportedForms() {
+    assertSupported("payload");
+    assertSupported(" message.payload ");
+    assertSupported("flowVars.var");
+    assertSupported("flowVars['var']");
+    assertSupported("flowVars[ \"var\" ]");
+    assertSupported("message.inboundProperties");
+    assertSupported("message.inboundProperties.foo");
+    assertSupported("message.inboundProperties['foo']");
+  }
+
+  @Test
+  public void unsupportedForms() {
+    assertNotSupported("payload.length()");
+    assertNotSupported("flowVars");
+    assertNotSupported("flowVars.var.length()");
+    assertNotSupported("flowVars[var]");
+    assertNotSupported("flowVars['var'] + 'x'");
+    assertNotSupported("message.outboundProperties.foo");
+    assertNotSupported("message.payload = 'x'");
+  }
+
+  @Test
+  public void payload() {
+    TypedValue<?> result = evaluateAccessor("payload");
+
+    assertThat(result.getValue(), is(TEST_PAYLOAD));
+    assertThat(result.getDataType(), is(event.getMessage().getPayload().getDataType()));
+  }
+
+  @Test
+  public void flowVar() {
+    TypedValue<?> result = evaluateAccessor("flowVars.var");
+
+    assertThat(result.getValue(), is("value"));
+    assertThat(result.getDataType(), like(String.class, JSON, UTF_16));
+  }
+
+  @Test
+  public void missingFlowVar() {
+    TypedValue<?> result = evaluateAccessor("flowVars['missing']");
+
+    assertThat(result.getValue(), is(nullValue()));
+    assertThat(result.getDataType(), is(OBJECT));
+  }
+
+  @Test
+  public void missingFlowVarAsPropertyExecutedThroughMvel() {
+    assertThat(compileExpression("flowVars.empty").get().evaluate(event), is(nullValue()));
+    assertThat(mvel.evaluate("flowVars.empty", event, NULL_BINDING_CONTEXT).getValue(), is(false));
+  }
+
+  @Test
+  public void inboundProperties() {
+    TypedValue<?> result = evaluateAccessor("message.inboundProperties");
+
+    assertThat(result.getValue(), instanceOf(InboundPropertiesMapContext.class));
+    assertThat(result.getDataType().getType(), is(InboundPropertiesMapContext.class));
+  }
+
+  @Test
+  public void inboundProperty() {
+    TypedValue<?> result = evaluateAccessor("message.inboundProperties.foo");
+
+    assertThat(result.getValue(), is("bar"));
+    assertThat(result.getDataType().getType(), is(String.class));
+  }
+
+  @Test
+  public void bindingShadowsEvent() {
+    BindingContext bindingContext = BindingContext.builder().addBinding("payload", new TypedValue<>("bound", STRING)).build();
+
+    assertThat(mvel.evaluate("payload", event, bindingContext).getValue(), is("bound"));
+  }
+
+  private void assertSupported(String expression) {
+    assertThat(expression, compileExpression(expression).isPresent(), is(true));
+  }
+
+  private void assertNotSupported(String expression) {
+    assertThat(expression, compileExpression(expression).isPresent(), is(false));
+  }
+
+  private TypedValue<?> evaluateAccessor(String expression) {
+    TypedValue<?> result = compileExpression(expression).get().evaluate(event);
+    // The same value is obtained executing the expression through MVEL
+    Object mvelResult = mvel.evaluateUntyped(expression, event, PrivilegedEvent.builder(event), null, null);
+    if (result.getValue() instanceof InboundPropertiesMapContext) {
+      assertThat(mvelResult, instanceOf(InboundPropertiesMapContext.class));
+    } else {
+      assertThat(mvelResult, is(result.getValue()));
+    }
+    return result;
+  }
+}
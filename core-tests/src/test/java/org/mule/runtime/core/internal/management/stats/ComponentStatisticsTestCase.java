@@ -112,6 +112,20 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     assertValues(stats, 2L, 5L, 2L, 3L, 2L);
   }
 
+  @Test
+  public void executionTimeSnapshot() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionTime(2L);
+    stats.addExecutionBranchTime(true, 3L, 3L);
+    stats.addCompleteExecutionTime(3L);
+    assertThat(stats.getExecutionTimeSnapshot().getCount(), equalTo(2L));
+    assertThat(stats.getExecutionTimeSnapshot().getValueAtPercentile(50), equalTo(2L));
+    assertThat(stats.getExecutionTimeSnapshot().getMaxValue(), equalTo(3L));
+
+    stats.clear();
+    assertThat(stats.getExecutionTimeSnapshot().getCount(), equalTo(0L));
+  }
+
   @Test
   public void verifyShortStatIntervalReset() {
     // configure to reset continuously
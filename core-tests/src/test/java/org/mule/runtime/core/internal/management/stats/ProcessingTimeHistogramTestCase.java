@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.ProcessingTimeHistogram;
+import org.mule.runtime.core.api.management.stats.ProcessingTimeHistogram.Snapshot;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class ProcessingTimeHistogramTestCase extends AbstractMuleTestCase {
+
+  private final ProcessingTimeHistogram histogram = new ProcessingTimeHistogram();
+
+  @Test
+  public void emptySnapshot() {
+    Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount(), equalTo(0L));
+    assertThat(snapshot.getValueAtPercentile(50), equalTo(0L));
+    assertThat(snapshot.getMaxValue(), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long i = 1; i <= 20; i++) {
+      histogram.record(i);
+    }
+
+    Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount(), equalTo(20L));
+    assertThat(snapshot.getValueAtPercentile(50), equalTo(10L));
+    assertThat(snapshot.getValueAtPercentile(100), equalTo(20L));
+    assertThat(snapshot.getMaxValue(), equalTo(20L));
+  }
+
+  @Test
+  public void percentilesWithinPrecision() {
+    for (long i = 1; i <= 10000; i++) {
+      histogram.record(i);
+    }
+
+    Snapshot snapshot = histogram.getSnapshot();
+    assertWithinPrecision(snapshot.getValueAtPercentile(50), 5000);
+    assertWithinPrecision(snapshot.getValueAtPercentile(99), 9900);
+    assertWithinPrecision(snapshot.getValueAtPercentile(99.9), 9990);
+    assertWithinPrecision(snapshot.getMaxValue(), 10000);
+  }
+
+  @Test
+  public void lowestValueOfBucket() {
+    histogram.record(512);
+
+    assertWithinPrecision(histogram.getSnapshot().getMaxValue(), 512);
+  }
+
+  @Test
+  public void outOfRangeValues() {
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getValueAtPercentile(50), equalTo(0L));
+    assertThat(snapshot.getMaxValue(), equalTo(ProcessingTimeHistogram.HIGHEST_TRACKABLE_VALUE));
+  }
+
+  @Test
+  public void concurrentRecording() throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < 1000; j++) {
+          histogram.record(j);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(histogram.getSnapshot().getCount(), equalTo(4000L));
+  }
+
+  @Test
+  public void mergeAndClear() {
+    ProcessingTimeHistogram other = new ProcessingTimeHistogram();
+    histogram.record(10);
+    other.record(20);
+
+    Snapshot merged = histogram.getSnapshot().merge(other.getSnapshot());
+    assertThat(merged.getCount(), equalTo(2L));
+    assertThat(merged.getMaxValue(), equalTo(20L));
+
+    histogram.clear();
+    assertThat(histogram.getSnapshot().getCount(), equalTo(0L));
+    assertThat(merged.getCount(), equalTo(2L));
+  }
+
+  private void assertWithinPrecision(long actual, long expected) {
+    assertThat(actual, allOf(greaterThanOrEqualTo(expected), lessThanOrEqualTo(expected + expected / 16)));
+  }
+}
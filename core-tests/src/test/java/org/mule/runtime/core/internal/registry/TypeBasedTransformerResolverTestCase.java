@@ -100,6 +100,23 @@ public class TypeBasedTransformerResolverTestCase extends AbstractMuleTestCase {
     assertEquals(betterAToBConverter, resolvedTransformer);
   }
 
+  @Test
+  public void missingTransformerNotCached() throws ResolverException, TransformerException {
+    MuleRegistry muleRegistry = mock(MuleRegistry.class);
+    when(muleContext.getRegistry()).thenReturn(muleRegistry);
+    ArrayList<Transformer> transformers = new ArrayList<>();
+    when(muleRegistry.lookupTransformers(dataTypeA, dataTypeB)).thenReturn(transformers);
+    TypeBasedTransformerResolver resolver = new TypeBasedTransformerResolver();
+    resolver.setMuleContext(muleContext);
+
+    assertNull(resolver.resolve(dataTypeA, dataTypeB));
+
+    // the registry updates its transformers after notifying the resolvers
+    Transformer aToBConverter = new MockConverterBuilder().from(dataTypeA).to(dataTypeB).build();
+    transformers.add(aToBConverter);
+    assertEquals(aToBConverter, resolver.resolve(dataTypeA, dataTypeB));
+  }
+
   @Test
   public void fallbacksNotRegistered() throws Exception {
     TypeBasedTransformerResolver resolver = new TypeBasedTransformerResolver();
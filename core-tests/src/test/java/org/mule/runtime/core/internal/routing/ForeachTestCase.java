@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.routing;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -15,6 +16,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -60,6 +62,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
 
@@ -412,6 +415,72 @@ public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
     assertThat(variables.get(DEFAULT_COUNTER_VARIABLE).getValue(), equalTo(2));
   }
 
+  @Test
+  public void parallel() throws Exception {
+    foreach = createForeach();
+    foreach.setMessageProcessors(getSimpleMessageProcessors(new TestMessageProcessor("zas")));
+    foreach.setMaxConcurrency(4);
+    initialiseIfNeeded(foreach, muleContext);
+
+    CoreEvent in = eventBuilder(muleContext).message(of(asList("bar", "zip"))).build();
+    CoreEvent result = process(foreach, in);
+
+    assertSimpleProcessedMessages();
+    assertThat(result.getMessage(), equalTo(in.getMessage()));
+    assertThat(variables.get(DEFAULT_COUNTER_VARIABLE).getValue(), equalTo(2));
+  }
+
+  @Test
+  public void parallelUnordered() throws Exception {
+    foreach = createForeach();
+    foreach.setMessageProcessors(getSimpleMessageProcessors(new TestMessageProcessor("zas")));
+    foreach.setMaxConcurrency(4);
+    foreach.setOrdered(false);
+    initialiseIfNeeded(foreach, muleContext);
+
+    process(foreach, eventBuilder(muleContext).message(of(new DummySimpleIterableClass().iterator())).build());
+
+    assertThat(processedEvents.stream().map(event -> event.getMessage().getPayload().getValue()).collect(toList()),
+               hasItems("bar:foo:zas", "zip:foo:zas"));
+  }
+
+  @Test
+  public void parallelDoesNotExhaustIterator() throws Exception {
+    final int maxConcurrency = 2;
+    final AtomicInteger taken = new AtomicInteger();
+    Iterator<Integer> iterator = new Iterator<Integer>() {
+
+      @Override
+      public boolean hasNext() {
+        return taken.get() < 100;
+      }
+
+      @Override
+      public Integer next() {
+        return taken.incrementAndGet();
+      }
+    };
+
+    foreach = createForeach();
+    foreach.setMessageProcessors(singletonList(event -> {
+      // Elements are only taken from the iterator as processing slots become available
+      assertThat(taken.get() - (int) event.getVariables().get(DEFAULT_COUNTER_VARIABLE).getValue(),
+                 lessThanOrEqualTo(maxConcurrency));
+      return event;
+    }));
+    foreach.setMaxConcurrency(maxConcurrency);
+    initialiseIfNeeded(foreach, muleContext);
+
+    process(foreach, eventBuilder(muleContext).message(of(iterator)).build());
+
+    assertThat(taken.get(), is(100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidMaxConcurrency() throws Exception {
+    createForeach().setMaxConcurrency(0);
+  }
+
   @Test
   public void empty() throws Exception {
     CoreEvent input = eventBuilder(muleContext).message(of(emptyList())).build();
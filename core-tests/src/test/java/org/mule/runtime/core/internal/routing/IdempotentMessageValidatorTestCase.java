@@ -16,12 +16,14 @@ import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.message.Message.of;
 
 import org.mule.runtime.api.artifact.Registry;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.api.util.IOUtils;
@@ -30,9 +32,13 @@ import org.mule.runtime.core.internal.el.dataweave.DataWeaveExpressionLanguageAd
 import org.mule.runtime.core.internal.message.InternalMessage;
 import org.mule.tck.core.util.store.InMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
 import org.mule.weave.v2.el.ByteArrayBasedCursorStreamProvider;
 import org.mule.weave.v2.el.WeaveDefaultExpressionLanguageFactoryService;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -40,6 +46,8 @@ import org.junit.rules.ExpectedException;
 
 public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestCase {
 
+  private static final int MAX_PENDING_WRITES = 10_000;
+
   private static IdempotentMessageValidator idempotent;
 
   @Before
@@ -216,5 +224,91 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     assertThat(idempotent.getObjectStore(), is(notNullValue()));
   }
 
+  @Test
+  public void bloomFilterDetectsDuplicatesWithoutQueryingStore() throws Exception {
+    idempotent.setUseBloomFilter(true);
+    idempotent.initialise();
+    idempotent.start();
+    try {
+      idempotent.process(eventWithCorrelationId("1"));
+      idempotent.process(eventWithCorrelationId("2"));
+      assertThat(idempotent.getStatistics().getStoreContainsCount(), is(0L));
+
+      expected.expect(ValidationException.class);
+      idempotent.process(eventWithCorrelationId("1"));
+    } finally {
+      idempotent.stop();
+    }
+  }
+
+  @Test
+  public void bloomFilterIsBuiltFromStore() throws Exception {
+    idempotent.getObjectStore().store("1", "1");
+    idempotent.setUseBloomFilter(true);
+    idempotent.initialise();
+    idempotent.start();
+    try {
+      expected.expect(ValidationException.class);
+      idempotent.process(eventWithCorrelationId("1"));
+    } finally {
+      idempotent.stop();
+    }
+  }
+
+  @Test
+  public void bloomFilterPendingWritesAreFlushedOnStop() throws Exception {
+    idempotent.setUseBloomFilter(true);
+    idempotent.initialise();
+    idempotent.start();
+    idempotent.process(eventWithCorrelationId("1"));
+    idempotent.stop();
+
+    assertThat(idempotent.getStatistics().getPendingWriteCount(), is(0));
+    assertThat(idempotent.getStatistics().getStoreWriteCount(), is(1L));
+    assertThat(idempotent.getObjectStore().contains("1"), is(true));
+  }
+
+  @Test
+  public void idStoredWhileTooManyPendingDetectedWithBloomFilter() throws Exception {
+    Thread testThread = Thread.currentThread();
+    AtomicBoolean writerFailing = new AtomicBoolean(true);
+    idempotent.setObjectStore(new InMemoryObjectStore<String>() {
+
+      @Override
+      protected void doStore(String id, String value) throws ObjectStoreException {
+        if (writerFailing.get() && Thread.currentThread() != testThread) {
+          throw new ObjectStoreException(createStaticMessage("Expected"));
+        }
+        super.doStore(id, value);
+      }
+    });
+    idempotent.setUseBloomFilter(true);
+    idempotent.initialise();
+    idempotent.start();
+    try {
+      for (int i = 0; i < MAX_PENDING_WRITES; i++) {
+        idempotent.process(eventWithCorrelationId("pending-" + i));
+      }
+      // Validated and written synchronously
+      idempotent.process(eventWithCorrelationId("1"));
+      assertThat(idempotent.getObjectStore().contains("1"), is(true));
+
+      writerFailing.set(false);
+      new PollingProber(10000, 100).check(new JUnitLambdaProbe(() -> {
+        assertThat(idempotent.getStatistics().getPendingWriteCount(), is(0));
+        return true;
+      }));
+
+      expected.expect(ValidationException.class);
+      idempotent.process(eventWithCorrelationId("1"));
+    } finally {
+      idempotent.stop();
+    }
+  }
 
+  private CoreEvent eventWithCorrelationId(String correlationId) {
+    final BaseEventContext context = mock(BaseEventContext.class);
+    when(context.getCorrelationId()).thenReturn(correlationId);
+    return CoreEvent.builder(context).message(of("OK")).build();
+  }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.junit.Test;
+
+public class ScalableBloomFilterTestCase extends AbstractMuleTestCase {
+
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  @Test
+  public void noFalseNegativesWhenGrowing() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(100, FALSE_POSITIVE_PROBABILITY);
+    for (int i = 0; i < 10000; i++) {
+      filter.put("key-" + i);
+    }
+
+    assertThat(filter.size(), is(10000));
+    for (int i = 0; i < 10000; i++) {
+      assertThat(filter.mightContain("key-" + i), is(true));
+    }
+  }
+
+  @Test
+  public void falsePositivesAreBounded() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, FALSE_POSITIVE_PROBABILITY);
+    for (int i = 0; i < 10000; i++) {
+      filter.put("key-" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100000; i++) {
+      if (filter.mightContain("other-" + i)) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives / 100000d, lessThan(FALSE_POSITIVE_PROBABILITY));
+  }
+}
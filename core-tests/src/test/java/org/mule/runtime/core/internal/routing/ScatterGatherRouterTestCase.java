@@ -26,6 +26,8 @@ import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
 import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_MAP;
 import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_LAZY_INIT_DEPLOYMENT_PROPERTY;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
 import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
@@ -47,6 +49,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectMapForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectStreamForkJoinStrategyFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
@@ -109,6 +112,16 @@ public class ScatterGatherRouterTestCase extends AbstractMuleContextTestCase {
     assertThat(routingPairs.get(2), equalTo(of(event, route3)));
   }
 
+  @Test
+  @Description("The router has the processing type of its fork-join strategy, so streamed results are consumed on a blocking thread.")
+  public void processingTypeOfForkJoinStrategy() throws Exception {
+    router.setForkJoinStrategyFactory(new CollectMapForkJoinStrategyFactory());
+    assertThat(router.getProcessingType(), is(CPU_LITE));
+
+    router.setForkJoinStrategyFactory(new CollectStreamForkJoinStrategyFactory());
+    assertThat(router.getProcessingType(), is(BLOCKING));
+  }
+
   @Test
   @Description("By default the router result populates the outgoing message payload.")
   public void defaultTarget() throws Exception {
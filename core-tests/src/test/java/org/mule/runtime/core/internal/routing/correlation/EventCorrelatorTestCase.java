@@ -6,8 +6,13 @@
  */
 package org.mule.runtime.core.internal.routing.correlation;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +32,7 @@ import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.message.InternalMessage;
 import org.mule.runtime.core.internal.routing.EventGroup;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.probe.PollingProber;
@@ -34,6 +40,8 @@ import org.mule.tck.probe.Probe;
 import org.mule.tck.probe.Prober;
 import org.mule.tck.size.SmallTest;
 
+import java.util.concurrent.TimeUnit;
+
 import io.qameta.allure.Issue;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -169,6 +177,38 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase {
     verify(mockEventGroup, times(1)).getMessageCollectionEvent();
   }
 
+  @Test
+  public void groupTimeoutScheduledWithTimeout() throws Exception {
+    TimerService timerService = mock(TimerService.class);
+    registerIntoMockContext(mockMuleContext, TimerService.class, timerService);
+
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    eventCorrelator.setTimeout(1000);
+    processNewGroup(eventCorrelator);
+
+    verify(timerService).newTimeout(any(Runnable.class), anyLong(), eq(MILLISECONDS));
+  }
+
+  @Test
+  public void noGroupTimeoutScheduledWithoutTimeout() throws Exception {
+    TimerService timerService = mock(TimerService.class);
+    registerIntoMockContext(mockMuleContext, TimerService.class, timerService);
+
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    eventCorrelator.setTimeout(0);
+    processNewGroup(eventCorrelator);
+
+    verify(timerService, never()).newTimeout(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  private void processNewGroup(EventCorrelator eventCorrelator) throws Exception {
+    memoryObjectStore.remove(TEST_GROUP_ID, "prefix.eventGroups");
+    when(mockMuleEvent.getCorrelationId()).thenReturn(TEST_GROUP_ID);
+    when(mockEventCorrelatorCallback.createEventGroup(mockMuleEvent, TEST_GROUP_ID)).thenReturn(mockEventGroup);
+    when(mockEventCorrelatorCallback.shouldAggregateEvents(mockEventGroup)).thenReturn(false);
+    eventCorrelator.process(mockMuleEvent);
+  }
+
   private EventCorrelator createEventCorrelator() throws Exception {
     registerIntoMockContext(mockMuleContext, OBJECT_STORE_MANAGER, mockObjectStoreManager);
     memoryObjectStore.store(TEST_GROUP_ID, mockEventGroup, "prefix.eventGroups");
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.FORK_JOIN_STRATEGIES;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@Feature(FORK_JOIN_STRATEGIES)
+public class CollectStreamForkJoinStrategyTestCase extends AbstractMuleContextTestCase {
+
+  private ProcessingStrategy processingStrategy;
+  private Scheduler scheduler;
+
+  @Before
+  public void setup() {
+    processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    scheduler = muleContext.getSchedulerService().ioScheduler();
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  @Description("Results are streamed in the order of the routes, and can be iterated more than once.")
+  public void collectStream() throws Throwable {
+    Message route1Result = of(1);
+    Message route2Result = of(2);
+    Message route3Result = of(3);
+
+    CoreEvent result = invokeStrategy(createStrategy(true),
+                                      asList(createRoutingPair(route1Result, 50), createRoutingPair(route2Result, 0),
+                                             createRoutingPair(route3Result, 0)));
+
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(CursorIteratorProvider.class));
+    CursorIteratorProvider provider = (CursorIteratorProvider) result.getMessage().getPayload().getValue();
+    assertThat(consume(provider), contains(route1Result, route2Result, route3Result));
+    assertThat(consume(provider), contains(route1Result, route2Result, route3Result));
+  }
+
+  @Test
+  @Description("The result event is emitted before the routes complete.")
+  public void emitsBeforeRoutesComplete() throws Throwable {
+    CountDownLatch latch = new CountDownLatch(1);
+    Message routeResult = of(1);
+    RoutingPair pair = of(testEvent(), createChain(event -> {
+      try {
+        latch.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return CoreEvent.builder(event).message(routeResult).build();
+    }));
+
+    ForkJoinStrategy strategy = createStrategy(true);
+    CoreEvent result = from(strategy.forkJoin(testEvent(), fromIterable(asList(pair))
+        .publishOn(fromExecutorService(scheduler)))).block();
+
+    assertThat(latch.getCount(), is(1L));
+    latch.countDown();
+    assertThat(consume((CursorIteratorProvider) result.getMessage().getPayload().getValue()), contains(routeResult));
+  }
+
+  @Test
+  @Description("When delaying errors, successful results are streamed and the iteration fails once they have been consumed.")
+  public void delayedErrors() throws Throwable {
+    Message routeResult = of(1);
+    RoutingPair failingPair = of(testEvent(), createChain(event -> {
+      throw new IllegalStateException();
+    }));
+
+    CoreEvent result = invokeStrategy(createStrategy(true), asList(failingPair, createRoutingPair(routeResult, 0)));
+
+    CursorIterator cursor = ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor();
+    assertThat(cursor.next(), is(routeResult));
+    try {
+      cursor.hasNext();
+    } catch (Exception e) {
+      assertThat(unwrap(e), instanceOf(CompositeRoutingException.class));
+      return;
+    }
+    throw new AssertionError("Iteration should have failed");
+  }
+
+  private ForkJoinStrategy createStrategy(boolean delayErrors) {
+    return new CollectStreamForkJoinStrategyFactory()
+        .createForkJoinStrategy(processingStrategy, Integer.MAX_VALUE, delayErrors, MAX_VALUE, scheduler,
+                                muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get());
+  }
+
+  private CoreEvent invokeStrategy(ForkJoinStrategy strategy, List<RoutingPair> routingPairs) throws MuleException {
+    return from(strategy.forkJoin(testEvent(), fromIterable(routingPairs))).block();
+  }
+
+  private List<Object> consume(CursorIteratorProvider provider) {
+    List<Object> items = new ArrayList<>();
+    CursorIterator cursor = provider.openCursor();
+    cursor.forEachRemaining(items::add);
+    return items;
+  }
+
+  private RoutingPair createRoutingPair(Message result, long sleep) throws MuleException {
+    return of(testEvent(), createChain(new AbstractForkJoinStrategyTestCase.SleepingProcessor(result, sleep)));
+  }
+
+  private MessageProcessorChain createChain(Processor processor) throws MuleException {
+    MessageProcessorChain chain = newChain(Optional.empty(), processor);
+    chain.setMuleContext(muleContext);
+    return chain;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.FIRST_CUSTOM_ID;
+import static org.mule.tck.util.MuleContextUtils.eventBuilder;
+
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class BinarySerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  private BinarySerializationProtocol binaryProtocol;
+
+  @Override
+  protected void doSetUp() throws Exception {
+    BinaryObjectSerializer objectSerializer = new BinaryObjectSerializer();
+    objectSerializer.setMuleContext(muleContext);
+    binaryProtocol = (BinarySerializationProtocol) objectSerializer.getInternalProtocol();
+    serializationProtocol = binaryProtocol;
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test
+  public void roundTripValues() throws Exception {
+    Map<String, Object> map = new HashMap<>();
+    map.put("int", 42);
+    map.put("long", -1L << 40);
+    map.put("double", 1.5d);
+    map.put("boolean", true);
+    map.put("string", "\u00e1rbol");
+    map.put("null", null);
+    List<Object> list = new ArrayList<>(asList("a", new byte[] {1, 2, 3}, map));
+
+    List<Object> copy = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+
+    assertThat(copy.get(0), equalTo("a"));
+    assertThat(copy.get(1), equalTo(new byte[] {1, 2, 3}));
+    assertThat(copy.get(2), equalTo(map));
+  }
+
+  @Test
+  public void unknownTypeUsesFallback() throws Exception {
+    Point point = new Point(3, 4);
+    Point copy = serializationProtocol.deserialize(serializationProtocol.serialize(point));
+    assertThat(copy, equalTo(point));
+  }
+
+  @Test
+  public void customCodec() throws Exception {
+    binaryProtocol.getRegistry().register(FIRST_CUSTOM_ID, Point.class, new PointCodec());
+    Point point = new Point(3, 4);
+
+    byte[] bytes = serializationProtocol.serialize(point);
+    Point copy = serializationProtocol.deserialize(bytes);
+
+    assertThat(copy, equalTo(point));
+    assertThat(bytes.length, lessThan(binaryProtocol.getFallbackProtocol().serialize(point).length));
+  }
+
+  @Test
+  public void readsJavaSerializedData() throws Exception {
+    byte[] bytes = binaryProtocol.getFallbackProtocol().serialize("Hello World");
+    assertThat(serializationProtocol.deserialize(bytes), equalTo("Hello World"));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void unknownCodecId() throws Exception {
+    serializationProtocol.deserialize(new byte[] {1, 127});
+  }
+
+  @Test(expected = SerializationException.class)
+  public void truncatedData() throws Exception {
+    byte[] bytes = serializationProtocol.serialize("Hello World");
+    serializationProtocol.deserialize(new byte[] {bytes[0], bytes[1], bytes[2]});
+  }
+
+  @Test
+  public void roundTripEvent() throws Exception {
+    CoreEvent event = eventBuilder(muleContext).message(of("payload"))
+        .addVariable("string", "value")
+        .addVariable("typed", "value", STRING)
+        .addVariable("point", new Point(1, 2))
+        .build();
+
+    InternalEvent copy = serializationProtocol.deserialize(serializationProtocol.serialize(event));
+
+    assertThat(copy.getContext().getId(), equalTo(event.getContext().getId()));
+    assertThat(copy.getCorrelationId(), equalTo(event.getCorrelationId()));
+    assertThat(copy.getMessage().getPayload().getValue(), equalTo("payload"));
+    assertThat(copy.getVariables().size(), is(3));
+    assertThat(copy.getVariables().get("string").getValue(), equalTo("value"));
+    assertThat(copy.getVariables().get("typed").getDataType(), equalTo(STRING));
+    assertThat(copy.getVariables().get("point").getValue(), equalTo(new Point(1, 2)));
+  }
+
+  private static class Point implements Serializable {
+
+    private final int x;
+    private final int y;
+
+    Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Point && ((Point) obj).x == x && ((Point) obj).y == y;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * x + y;
+    }
+  }
+
+  private static class PointCodec implements BinaryCodec<Point> {
+
+    @Override
+    public void encode(Point point, BinaryEncoder encoder) throws IOException {
+      encoder.writeVarInt(point.x);
+      encoder.writeVarInt(point.y);
+    }
+
+    @Override
+    public Point decode(BinaryDecoder decoder) throws IOException {
+      return new Point(decoder.readVarInt(), decoder.readVarInt());
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectByteBufferManager.MAX_SIZE_CLASS;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectByteBufferManager.SLAB_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.MAX_STREAMING_PERCENTILE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@SmallTest
+@Feature(STREAMING)
+public class DirectByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+
+  private DirectByteBufferManager bufferManager = new DirectByteBufferManager();
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void directBuffersOfRequestedCapacity() {
+    assertCapacity(CAPACITY);
+    assertCapacity(SLAB_SIZE + 1);
+    assertCapacity(MAX_SIZE_CLASS + 1);
+  }
+
+  @Test
+  public void reusesDeallocatedMemory() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    buffer.put((byte) 1);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(newBuffer.position(), is(0));
+    assertThat(newBuffer.get(0), is((byte) 1));
+  }
+
+  @Test
+  public void deallocateUnknownBuffer() {
+    expectedException.expect(MuleRuntimeException.class);
+    bufferManager.deallocate(ByteBuffer.allocateDirect(CAPACITY));
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final long waitTimeoutMillis = SECONDS.toMillis(2);
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn((long) (SLAB_SIZE / MAX_STREAMING_PERCENTILE) + 1);
+
+    bufferManager.dispose();
+    bufferManager = new DirectByteBufferManager(memoryManager, waitTimeoutMillis);
+
+    ByteBuffer buffer = bufferManager.allocate(SLAB_SIZE);
+
+    Latch latch = new Latch();
+    new Thread(() -> {
+      bufferManager.allocate(SLAB_SIZE);
+      latch.release();
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis / 4, MILLISECONDS), is(false));
+    bufferManager.deallocate(buffer);
+    assertThat(latch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+  }
+
+  @Test
+  public void limitTotalMemoryExceeded() {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn((long) (SLAB_SIZE / MAX_STREAMING_PERCENTILE) + 1);
+
+    bufferManager.dispose();
+    bufferManager = new DirectByteBufferManager(memoryManager, 100);
+
+    bufferManager.allocate(SLAB_SIZE);
+    expectedException.expect(MaxStreamingMemoryExceededException.class);
+    bufferManager.allocate(SLAB_SIZE);
+  }
+
+  @Test
+  public void waitingThreadReclaimsChunksCachedByOtherThreads() throws Exception {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn((long) (SLAB_SIZE / MAX_STREAMING_PERCENTILE) + 1);
+
+    bufferManager.dispose();
+    bufferManager = new DirectByteBufferManager(memoryManager, SECONDS.toMillis(2));
+
+    final int capacity = SLAB_SIZE / 4;
+    for (int i = 0; i < 3; ++i) {
+      bufferManager.allocate(capacity);
+    }
+    Thread thread = new Thread(() -> bufferManager.deallocate(bufferManager.allocate(capacity)));
+    thread.start();
+    thread.join();
+
+    assertThat(bufferManager.allocate(capacity).capacity(), is(capacity));
+  }
+
+  @Test
+  public void freeSlabsReleasedForOtherSizeClasses() {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn((long) (SLAB_SIZE / MAX_STREAMING_PERCENTILE) + 1);
+
+    bufferManager.dispose();
+    bufferManager = new DirectByteBufferManager(memoryManager, 100);
+
+    bufferManager.deallocate(bufferManager.allocate(SLAB_SIZE / 4));
+    bufferManager.deallocate(bufferManager.allocate(SLAB_SIZE / 2));
+    bufferManager.deallocate(bufferManager.allocate(SLAB_SIZE));
+
+    assertThat(bufferManager.allocate(SLAB_SIZE / 4).capacity(), is(SLAB_SIZE / 4));
+  }
+
+  @Test
+  public void inMemoryStreamBufferOverDirectBuffers() throws Exception {
+    final String data = randomAlphabetic(SLAB_SIZE);
+    InMemoryCursorStreamConfig config = new InMemoryCursorStreamConfig(new DataSize(SLAB_SIZE / 4, BYTE),
+                                                                       new DataSize(SLAB_SIZE / 8, BYTE),
+                                                                       new DataSize(SLAB_SIZE * 2, BYTE));
+    InMemoryCursorStreamProvider provider =
+        new InMemoryCursorStreamProvider(new ByteArrayInputStream(data.getBytes()), config, bufferManager);
+
+    try (CursorStream cursor = provider.openCursor()) {
+      assertThat(IOUtils.toString(cursor), equalTo(data));
+      cursor.seek(SLAB_SIZE / 2);
+      assertThat((char) cursor.read(), equalTo(data.charAt(SLAB_SIZE / 2)));
+    } finally {
+      provider.close();
+    }
+  }
+
+  private void assertCapacity(int capacity) {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    try {
+      assertThat(buffer.capacity(), is(capacity));
+      assertThat(buffer.isDirect(), is(true));
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+}
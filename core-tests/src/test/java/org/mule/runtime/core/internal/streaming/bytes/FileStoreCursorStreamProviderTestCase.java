@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+
+import io.qameta.allure.Feature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class FileStoreCursorStreamProviderTestCase extends AbstractByteStreamingTestCase {
+
+  private static final int MAX_IN_MEMORY_SIZE = 1024;
+
+  private ExecutorService allocationScheduler;
+  private PoolingByteBufferManager bufferManager;
+  private FileStoreCursorStreamProvider streamProvider;
+
+  public FileStoreCursorStreamProviderTestCase() {
+    super(KB_256);
+  }
+
+  @Before
+  public void before() {
+    allocationScheduler = newSingleThreadExecutor();
+    bufferManager = new PoolingByteBufferManager(allocationScheduler);
+    streamProvider = new FileStoreCursorStreamProvider(new ByteArrayInputStream(data.getBytes()),
+                                                       new FileStoreCursorStreamConfig(new DataSize(MAX_IN_MEMORY_SIZE,
+                                                                                                    BYTE)),
+                                                       bufferManager);
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+    streamProvider.releaseResources();
+    bufferManager.dispose();
+    allocationScheduler.shutdownNow();
+  }
+
+  @Test
+  public void readFullyAcrossMemoryAndFile() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      assertEquals(toString(cursor), data);
+    }
+  }
+
+  @Test
+  public void seekBetweenMemoryAndFile() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      cursor.seek(KB_256 - 10);
+      assertThat((char) cursor.read(), equalTo(data.charAt(KB_256 - 10)));
+
+      cursor.seek(MAX_IN_MEMORY_SIZE - 5);
+      byte[] dest = new byte[10];
+      cursor.read(dest, 0, dest.length);
+      assertThat(toString(dest), equalTo(data.substring(MAX_IN_MEMORY_SIZE - 5, MAX_IN_MEMORY_SIZE + 5)));
+
+      cursor.seek(KB_256);
+      assertThat(cursor.read(), is(-1));
+    }
+  }
+
+  @Test
+  public void concurrentCursorsReadSameData() throws Exception {
+    try (CursorStream first = streamProvider.openCursor(); CursorStream second = streamProvider.openCursor()) {
+      byte[] dest = new byte[KB_256 / 2];
+      first.read(dest, 0, dest.length);
+      assertThat(toString(dest), equalTo(data.substring(0, dest.length)));
+
+      assertEquals(toString(second), data);
+      assertEquals(toString(first), data.substring(dest.length));
+    }
+  }
+
+  @Test
+  public void onlyCompleteRegionsAreMapped() throws Exception {
+    final int regionSize = 4096;
+    FileStoreStreamBuffer buffer = new FileStoreStreamBuffer(new ByteArrayInputStream(data.getBytes()),
+                                                             new FileStoreCursorStreamConfig(new DataSize(MAX_IN_MEMORY_SIZE,
+                                                                                                          BYTE)),
+                                                             bufferManager, regionSize);
+    try {
+      assertEquals(readFully(buffer), data);
+      assertEquals(readFully(buffer), data);
+      assertThat(buffer.getMappedRegionsCount(), is((KB_256 - MAX_IN_MEMORY_SIZE) / regionSize));
+    } finally {
+      buffer.close();
+    }
+  }
+
+  @Test
+  public void bufferFileDeletedOnRelease() throws Exception {
+    try (CursorStream cursor = streamProvider.openCursor()) {
+      toString(cursor);
+    }
+
+    File tempDir = new File(System.getProperty("java.io.tmpdir"));
+    int filesBefore = bufferFiles(tempDir);
+    streamProvider.releaseResources();
+    assertThat(bufferFiles(tempDir), is(filesBefore - 1));
+  }
+
+  private String readFully(FileStoreStreamBuffer buffer) throws Exception {
+    StringBuilder content = new StringBuilder();
+    ByteBuffer chunk;
+    while ((chunk = buffer.get(content.length(), 1000)) != null) {
+      content.append(toString(chunk));
+    }
+    return content.toString();
+  }
+
+  private int bufferFiles(File tempDir) {
+    return tempDir.listFiles(file -> file.getName().startsWith("mule-buffer-stream-")).length;
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.util.List;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 500;
+  private static final int BUCKET_SIZE = 10;
+  private static final int MAX_IN_MEMORY_BUCKETS = 3;
+
+  public FileStoreCursorIteratorProviderTestCase() {
+    super(DATA_SIZE);
+  }
+
+  @Test
+  public void readFully() throws Exception {
+    FileStoreCursorIteratorProvider provider = createStreamProvider(data);
+    try (CursorIterator<Object> cursor = provider.openCursor()) {
+      checkEquals(data, cursor);
+      assertThat(cursor.hasNext(), is(false));
+    } finally {
+      provider.releaseResources();
+    }
+  }
+
+  @Test
+  public void seekIntoSpilledBuckets() throws Exception {
+    FileStoreCursorIteratorProvider provider = createStreamProvider(data);
+    try (CursorIterator<Object> cursor = provider.openCursor()) {
+      checkEquals(data, cursor);
+
+      cursor.seek(0);
+      assertThat(cursor.next(), equalTo(data.get(0)));
+
+      cursor.seek(DATA_SIZE / 2 + 5);
+      assertThat(cursor.next(), equalTo(data.get(DATA_SIZE / 2 + 5)));
+    } finally {
+      provider.releaseResources();
+    }
+  }
+
+  @Test
+  public void interleavedCursors() throws Exception {
+    FileStoreCursorIteratorProvider provider = createStreamProvider(data);
+    try (CursorIterator<Object> first = provider.openCursor(); CursorIterator<Object> second = provider.openCursor()) {
+      for (int i = 0; i < DATA_SIZE; i++) {
+        assertThat(first.next(), equalTo(data.get(i)));
+        if (i % 2 == 0) {
+          assertThat(second.next(), equalTo(data.get(i / 2)));
+        }
+      }
+    } finally {
+      provider.releaseResources();
+    }
+  }
+
+  @Test
+  public void noFileWhenStreamFitsInMemory() throws Exception {
+    int filesBefore = bufferFiles();
+    List<Object> smallData = data.subList(0, BUCKET_SIZE * MAX_IN_MEMORY_BUCKETS);
+    FileStoreCursorIteratorProvider provider = createStreamProvider(smallData);
+    try (CursorIterator<Object> cursor = provider.openCursor()) {
+      checkEquals(smallData, cursor);
+      assertThat(bufferFiles(), is(filesBefore));
+    } finally {
+      provider.releaseResources();
+    }
+  }
+
+  @Test
+  public void bufferFileDeletedOnRelease() throws Exception {
+    int filesBefore = bufferFiles();
+    FileStoreCursorIteratorProvider provider = createStreamProvider(data);
+    try (CursorIterator<Object> cursor = provider.openCursor()) {
+      checkEquals(data, cursor);
+      assertThat(bufferFiles(), is(filesBefore + 1));
+    }
+
+    provider.releaseResources();
+    assertThat(bufferFiles(), is(filesBefore));
+  }
+
+  private FileStoreCursorIteratorProvider createStreamProvider(List<Object> data) {
+    return new FileStoreCursorIteratorProvider(toStreamingIterator(data),
+                                               new FileStoreCursorIteratorConfig(BUCKET_SIZE, MAX_IN_MEMORY_BUCKETS),
+                                               muleContext.getObjectSerializer());
+  }
+
+  private int bufferFiles() {
+    File tempDir = new File(System.getProperty("java.io.tmpdir"));
+    return tempDir.listFiles(file -> file.getName().startsWith("mule-buffer-iterator-")).length;
+  }
+}
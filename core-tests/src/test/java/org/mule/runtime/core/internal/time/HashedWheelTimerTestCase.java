@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class HashedWheelTimerTestCase extends AbstractMuleTestCase {
+
+  private static final long TICK = 10;
+  private static final int TICKS_PER_WHEEL = 8;
+
+  private final HashedWheelTimer timer = new HashedWheelTimer(TICK, TICKS_PER_WHEEL);
+  private final List<String> expired = new ArrayList<>();
+
+  @Test
+  public void tasksRunOnTheTickFollowingTheirDeadline() {
+    schedule("a", 1005);
+    schedule("b", 1025);
+
+    assertThat(advance(1000), empty());
+    assertThat(advance(1004), empty());
+    assertThat(advance(1010), contains("a"));
+    assertThat(advance(1020), empty());
+    assertThat(advance(1030), contains("b"));
+    assertThat(advance(1040), empty());
+  }
+
+  @Test
+  public void deadlinesBeyondOneRound() {
+    long start = 1000;
+    schedule("far", start + TICK * TICKS_PER_WHEEL * 3 + 1);
+    advance(start);
+
+    for (long now = start + TICK; now <= start + TICK * TICKS_PER_WHEEL * 3; now += TICK) {
+      assertThat(advance(now), empty());
+    }
+    assertThat(advance(start + TICK * TICKS_PER_WHEEL * 3 + TICK), contains("far"));
+  }
+
+  @Test
+  public void overdueTasksRunAfterLongPause() {
+    advance(1000);
+    schedule("a", 1010);
+    schedule("b", 1500);
+    advance(1001);
+
+    assertThat(advance(5000), containsInAnyOrder("a", "b"));
+  }
+
+  @Test
+  public void pastDeadlineRunOnNextAdvance() {
+    advance(1000);
+    schedule("late", 900);
+
+    assertThat(advance(1001), contains("late"));
+  }
+
+  @Test
+  public void cancelledTasksNotRun() {
+    Timeout a = schedule("a", 1005);
+    schedule("b", 1005);
+    advance(1000);
+
+    assertThat(a.cancel(), is(true));
+    assertThat(a.isCancelled(), is(true));
+    assertThat(timer.getPendingCount(), is(1));
+    assertThat(advance(1010), contains("b"));
+    assertThat(a.isExpired(), is(false));
+  }
+
+  @Test
+  public void cancelledBeforeAddedToTheWheel() {
+    Timeout a = schedule("a", 1005);
+    a.cancel();
+
+    assertThat(advance(1010), empty());
+    assertThat(timer.getPendingCount(), is(0));
+  }
+
+  @Test
+  public void expiredTasksCannotBeCancelled() {
+    Timeout a = schedule("a", 1005);
+    advance(1010);
+
+    assertThat(a.isExpired(), is(true));
+    assertThat(a.cancel(), is(false));
+    assertThat(a.isCancelled(), is(false));
+  }
+
+  @Test
+  public void failingTaskDoesNotPreventOthers() {
+    timer.schedule(() -> {
+      throw new IllegalStateException("Expected");
+    }, 1005);
+    schedule("b", 1005);
+
+    assertThat(advance(1010), contains("b"));
+    assertThat(timer.getPendingCount(), is(0));
+  }
+
+  private Timeout schedule(String key, long deadline) {
+    return timer.schedule(() -> expired.add(key), deadline);
+  }
+
+  private List<String> advance(long now) {
+    expired.clear();
+    timer.advance(now);
+    return new ArrayList<>(expired);
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@SmallTest
+public class TimerSchedulerTestCase extends AbstractMuleTestCase {
+
+  private static final long TICK = 10;
+  private static final int TICKS_PER_WHEEL = 8;
+  private static final long START = 1000;
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final HashedWheelTimer timer = new HashedWheelTimer(TICK, TICKS_PER_WHEEL);
+  private final Scheduler dispatcher = mock(Scheduler.class);
+  private final AtomicInteger runs = new AtomicInteger();
+  private long now = START;
+  private boolean dispatcherRejects = false;
+
+  private TimerScheduler scheduler;
+
+  @Before
+  public void before() {
+    doAnswer(invocation -> {
+      if (dispatcherRejects) {
+        throw new RejectedExecutionException("Expected");
+      }
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(dispatcher).execute(any(Runnable.class));
+
+    scheduler = new TimerScheduler(new TimerService() {
+
+      @Override
+      public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        long delayMillis = unit.toMillis(delay);
+        return timer.schedule(task, delayMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayMillis);
+      }
+
+      @Override
+      public Scheduler timerScheduler(Scheduler dispatcher) {
+        return new TimerScheduler(this, dispatcher);
+      }
+    }, dispatcher);
+    timer.advance(now);
+  }
+
+  @Test
+  public void delayedTaskRunOnDispatcherOnceDue() throws Exception {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, 25, MILLISECONDS);
+    assertThat(future.getDelay(MILLISECONDS), lessThanOrEqualTo(25L));
+
+    advanceTo(START + 20);
+    assertThat(runs.get(), is(0));
+    assertThat(future.isDone(), is(false));
+
+    advanceTo(START + 30);
+    assertThat(runs.get(), is(1));
+    assertThat(future.isDone(), is(true));
+    assertThat(future.isCancelled(), is(false));
+    verify(dispatcher).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void callableResultAvailableFromFuture() throws Exception {
+    ScheduledFuture<String> future = scheduler.schedule(() -> "result", 5, MILLISECONDS);
+
+    advanceTo(START + 10);
+    assertThat(future.get(), is("result"));
+  }
+
+  @Test
+  public void cancelledTaskNotRun() {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, 5, MILLISECONDS);
+
+    assertThat(future.cancel(false), is(true));
+    assertThat(future.isCancelled(), is(true));
+    assertThat(future.isDone(), is(true));
+
+    advanceTo(START + 10);
+    assertThat(runs.get(), is(0));
+    assertThat(timer.getPendingCount(), is(0));
+  }
+
+  @Test
+  public void zeroDelayRunOnNextTick() {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, 0, MILLISECONDS);
+
+    advanceTo(START + TICK);
+    assertThat(runs.get(), is(1));
+    assertThat(future.isDone(), is(true));
+  }
+
+  @Test
+  public void negativeDelayRunOnNextTick() {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, -100, MILLISECONDS);
+    assertThat(future.getDelay(MILLISECONDS), lessThanOrEqualTo(-100L));
+
+    advanceTo(START + TICK);
+    assertThat(runs.get(), is(1));
+    assertThat(future.isDone(), is(true));
+  }
+
+  @Test
+  public void delayBeyondOneRevolution() {
+    long delay = TICK * TICKS_PER_WHEEL * 3 + 1;
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, delay, MILLISECONDS);
+
+    for (long time = START + TICK; time <= START + delay - 1; time += TICK) {
+      advanceTo(time);
+      assertThat(runs.get(), is(0));
+    }
+    assertThat(future.isDone(), is(false));
+
+    advanceTo(START + delay + TICK);
+    assertThat(runs.get(), is(1));
+    assertThat(future.isDone(), is(true));
+  }
+
+  @Test
+  public void longDelayDoesNotOverflow() {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, Long.MAX_VALUE, DAYS);
+
+    assertThat(future.getDelay(DAYS), is(greaterThan(0L)));
+    advanceTo(START + TICK * TICKS_PER_WHEEL * 2);
+    assertThat(runs.get(), is(0));
+    assertThat(future.isDone(), is(false));
+  }
+
+  @Test
+  public void rejectedAfterStop() {
+    scheduler.stop();
+
+    verify(dispatcher).stop();
+    expectedException.expect(RejectedExecutionException.class);
+    scheduler.schedule(runs::incrementAndGet, 5, MILLISECONDS);
+  }
+
+  @Test
+  public void rejectedAfterShutdownNow() {
+    scheduler.shutdownNow();
+
+    verify(dispatcher).shutdownNow();
+    expectedException.expect(RejectedExecutionException.class);
+    scheduler.schedule(runs::incrementAndGet, 5, MILLISECONDS);
+  }
+
+  @Test
+  public void pendingTaskCancelledWhenDueAfterStop() {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, 5, MILLISECONDS);
+    scheduler.stop();
+
+    advanceTo(START + 10);
+    assertThat(runs.get(), is(0));
+    assertThat(future.isCancelled(), is(true));
+    assertThat(future.isDone(), is(true));
+  }
+
+  @Test
+  public void rejectionByDispatcherFailsFuture() throws Exception {
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, 5, MILLISECONDS);
+    dispatcherRejects = true;
+
+    advanceTo(START + 10);
+    assertThat(future.isDone(), is(true));
+    assertThat(future.isCancelled(), is(false));
+    try {
+      future.get();
+      fail("Expected the future to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+    }
+  }
+
+  private void advanceTo(long time) {
+    now = time;
+    timer.advance(now);
+  }
+}
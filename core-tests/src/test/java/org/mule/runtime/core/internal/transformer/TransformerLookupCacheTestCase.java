@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.api.metadata.DataType.BYTE_ARRAY;
+import static org.mule.runtime.api.metadata.DataType.JSON_STRING;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.DataType.TEXT_STRING;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Transformer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class TransformerLookupCacheTestCase extends AbstractMuleTestCase {
+
+  private final TransformerLookupCache cache = new TransformerLookupCache();
+  private final Transformer transformer = mock(Transformer.class);
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  @Test
+  public void cachesFoundTransformer() {
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(sameInstance(transformer)));
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(1));
+  }
+
+  @Test
+  public void cachesMissingTransformer() {
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::notFound), is(nullValue()));
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(nullValue()));
+    assertThat(lookups.get(), is(1));
+  }
+
+  @Test
+  public void missingTransformerNotCachedIfDisabled() {
+    TransformerLookupCache cache = new TransformerLookupCache(false);
+
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::notFound), is(nullValue()));
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(sameInstance(transformer)));
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void mediaTypeIsPartOfTheKey() {
+    cache.resolve(STRING, TEXT_STRING, this::notFound);
+
+    assertThat(cache.resolve(STRING, JSON_STRING, this::found), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void mediaTypeParametersAreNotPartOfTheKey() {
+    cache.resolve(multipart("boundary1", UTF_8), STRING, this::found);
+
+    assertThat(cache.resolve(multipart("boundary2", UTF_8), STRING, this::notFound), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(1));
+    assertThat(cache.size(), is(1));
+  }
+
+  @Test
+  public void mediaTypeCharsetIsPartOfTheKey() {
+    cache.resolve(multipart("boundary", UTF_8), STRING, this::notFound);
+
+    assertThat(cache.resolve(multipart("boundary", UTF_16), STRING, this::found), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void sizeIsBounded() {
+    for (int i = 0; i < 5000; ++i) {
+      cache.resolve(DataType.builder().type(String.class).mediaType("text/x-" + i).build(), STRING, this::notFound);
+    }
+
+    assertThat(cache.size(), is(lessThanOrEqualTo(1000)));
+  }
+
+  @Test
+  public void clearDiscardsCachedLookups() {
+    cache.resolve(STRING, BYTE_ARRAY, this::notFound);
+    cache.clear();
+
+    assertThat(cache.size(), is(0));
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void lookupConcurrentWithClearNotCached() {
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, (source, result) -> {
+      cache.clear();
+      return found(source, result);
+    }), is(sameInstance(transformer)));
+
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void failedLookupNotCached() {
+    try {
+      cache.resolve(STRING, BYTE_ARRAY, (source, result) -> {
+        throw new IllegalStateException("Expected");
+      });
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    assertThat(cache.resolve(STRING, BYTE_ARRAY, this::found), is(sameInstance(transformer)));
+  }
+
+  private DataType multipart(String boundary, Charset charset) {
+    return DataType.builder().type(String.class).mediaType("multipart/form-data; boundary=" + boundary).charset(charset)
+        .build();
+  }
+
+  private Transformer found(Object source, Object result) {
+    lookups.incrementAndGet();
+    return transformer;
+  }
+
+  private Transformer notFound(Object source, Object result) {
+    lookups.incrementAndGet();
+    return null;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.copyOf;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.emptyPersistentMap;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  private static final int ENTRIES = 2000;
+
+  @Test
+  public void caseInsensitive() {
+    PersistentCaseInsensitiveMap<Object> map = emptyPersistentMap();
+    map = map.plus("FOO", "bar");
+
+    assertThat(map.get("foo"), is("bar"));
+    assertThat(map.get("Foo"), is("bar"));
+    assertThat(map.containsKey("fOO"), is(true));
+    assertThat(map.size(), is(1));
+  }
+
+  @Test
+  public void replaceKeepsKeyCase() {
+    PersistentCaseInsensitiveMap<Object> map = PersistentCaseInsensitiveMap.<Object>emptyPersistentMap()
+        .plus("FOO", "bar")
+        .plus("foo", "baz");
+
+    assertThat(map.size(), is(1));
+    assertThat(map.keySet(), containsInAnyOrder("FOO"));
+    assertThat(map.get("FOO"), is("baz"));
+  }
+
+  @Test
+  public void previousVersionsUnchanged() {
+    PersistentCaseInsensitiveMap<Object> original = emptyPersistentMap();
+    for (int i = 0; i < ENTRIES; i++) {
+      original = original.plus("key" + i, i);
+    }
+
+    PersistentCaseInsensitiveMap<Object> modified = original.plus("KEY0", "changed").minus("key1").plus("newKey", "new");
+
+    assertThat(original.size(), is(ENTRIES));
+    assertThat(original.get("key0"), is(0));
+    assertThat(original.get("key1"), is(1));
+    assertThat(original.get("newKey"), is(nullValue()));
+
+    assertThat(modified.size(), is(ENTRIES));
+    assertThat(modified.get("key0"), is("changed"));
+    assertThat(modified.get("key1"), is(nullValue()));
+    assertThat(modified.get("newKey"), is("new"));
+  }
+
+  @Test
+  public void unchangedReturnsSameInstance() {
+    String value = "bar";
+    PersistentCaseInsensitiveMap<Object> map = PersistentCaseInsensitiveMap.<Object>emptyPersistentMap().plus("foo", value);
+
+    assertThat(map.plus("FOO", value), is(sameInstance(map)));
+    assertThat(map.minus("other"), is(sameInstance(map)));
+    assertThat(copyOf(map), is(sameInstance(map)));
+  }
+
+  @Test
+  public void removeAll() {
+    PersistentCaseInsensitiveMap<Object> map = emptyPersistentMap();
+    for (int i = 0; i < ENTRIES; i++) {
+      map = map.plus("key" + i, i);
+    }
+    for (int i = 0; i < ENTRIES; i++) {
+      map = map.minus("KEY" + i);
+      assertThat(map.size(), is(ENTRIES - i - 1));
+    }
+
+    assertThat(map.isEmpty(), is(true));
+    assertThat(map, is(sameInstance(emptyPersistentMap())));
+  }
+
+  @Test
+  public void hashCollisions() {
+    // both keys have the same hash code
+    PersistentCaseInsensitiveMap<Object> map = PersistentCaseInsensitiveMap.<Object>emptyPersistentMap()
+        .plus("0?", "first")
+        .plus("1 ", "second");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("0?"), is("first"));
+    assertThat(map.get("1 "), is("second"));
+
+    map = map.minus("0?");
+    assertThat(map.size(), is(1));
+    assertThat(map.get("0?"), is(nullValue()));
+    assertThat(map.get("1 "), is("second"));
+  }
+
+  @Test
+  public void equalsHashMap() {
+    Map<String, Object> expected = new HashMap<>();
+    for (int i = 0; i < ENTRIES; i++) {
+      expected.put("key" + i, i);
+    }
+
+    PersistentCaseInsensitiveMap<Object> map = copyOf(expected);
+    assertThat(map, is(expected));
+    assertThat(map.hashCode(), is(expected.hashCode()));
+  }
+
+  @Test
+  public void serialization() {
+    PersistentCaseInsensitiveMap<Object> map = emptyPersistentMap();
+    for (int i = 0; i < ENTRIES; i++) {
+      map = map.plus("Key" + i, i);
+    }
+
+    PersistentCaseInsensitiveMap<Object> deserialized = SerializationUtils.clone(map);
+    assertThat(deserialized, is(map));
+    assertThat(deserialized.get("KEY10"), is(10));
+    assertThat(deserialized.keySet().contains("Key10"), is(true));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.UUIDGenerator.generator;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SmallTest
+public class UUIDGeneratorTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void canonicalFormIsTimeBasedUUID() {
+    UUID uuid = UUID.fromString(generator().nextUUID());
+
+    assertThat(uuid.version(), is(1));
+    assertThat(uuid.variant(), is(2));
+    assertThat(uuid.getLeastSignificantBits(), is(generator().getLeastSignificantBits()));
+  }
+
+  @Test
+  public void prefixedForm() {
+    String id = generator().nextUUID("node1-");
+
+    assertThat(id.startsWith("node1-"), is(true));
+    assertThat(UUID.fromString(id.substring("node1-".length())).version(), is(1));
+  }
+
+  @Test
+  public void compactForm() {
+    String first = generator().nextCompactUUID();
+    String second = generator().nextCompactUUID();
+
+    assertThat(first.length(), is(22));
+    assertThat(first.matches("[0-9A-Za-z]+"), is(true));
+    assertThat(second.compareTo(first), greaterThan(0));
+  }
+
+  @Test
+  public void idsOfTheSameThreadAreIncreasing() {
+    long previous = UUID.fromString(generator().nextUUID()).timestamp();
+    for (int i = 0; i < 10000; i++) {
+      long next = UUID.fromString(generator().nextUUID()).timestamp();
+      assertThat(next, greaterThan(previous));
+      previous = next;
+    }
+  }
+
+  @Test
+  public void idsOfDifferentThreadsAreUnique() throws Exception {
+    final int threads = 8;
+    final int idsPerThread = 10000;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    Set<Long> nodes = ConcurrentHashMap.newKeySet();
+
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          nodes.add(generator().getLeastSignificantBits());
+          for (int j = 0; j < idsPerThread; j++) {
+            ids.add(generator().nextUUID());
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(nodes.size(), is(threads));
+    assertThat(ids.size(), is(threads * idsPerThread));
+    assertThat(nodes.contains(generator().getLeastSignificantBits()), is(false));
+  }
+}
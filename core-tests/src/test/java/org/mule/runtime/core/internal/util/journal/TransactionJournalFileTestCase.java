@@ -6,17 +6,27 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
@@ -51,11 +61,79 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitEntriesAreWrittenBeforeReturning() throws Exception {
+    final int threads = 8;
+    final int entriesPerThread = 50;
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(true);
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        final int txId = i;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < entriesPerThread; j++) {
+            journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", "value" + j));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Opened without closing the original journal, so only the entries already written are visible
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> recovered = openJournal();
+    for (int i = 0; i < threads; i++) {
+      assertThat(recovered.getLogEntries(i).size(), equalTo(entriesPerThread));
+    }
+    journal.close();
+    recovered.close();
+  }
+
+  @Test
+  public void groupCommitWriteFailureReportedToEveryEntryOfTheBatch() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(true);
+    journal.logOperation(new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "durable"));
+
+    journal.getLogFileChannel().close();
+    long first = journal.appendOperation(new LocalQueueTxJournalEntry(2, (byte) 6, "queue", "lost1"));
+    long second = journal.appendOperation(new LocalQueueTxJournalEntry(3, (byte) 6, "queue", "lost2"));
+
+    assertWriteFailed(journal, first);
+    assertWriteFailed(journal, second);
+
+    // A new file is used after clearing, so entries are durable again
+    journal.clear();
+    journal.logOperation(new LocalQueueTxJournalEntry(4, (byte) 6, "queue", "durable"));
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> recovered = openJournal();
+    assertThat(recovered.getLogEntries(4).size(), equalTo(1));
+    journal.close();
+    recovered.close();
+  }
+
+  private void assertWriteFailed(TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal, long sequence) {
+    try {
+      journal.awaitDurable(sequence);
+      fail("Entry should not be reported as durable");
+    } catch (MuleRuntimeException e) {
+      assertThat(e.getCause(), instanceOf(ClosedChannelException.class));
+    }
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
+    return openJournal(false);
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(boolean groupCommit) {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, groupCommit,
+                                      MICROSECONDS.toNanos(100));
   }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.queue.MappedFileQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class MappedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(SEGMENT_SIZE_PROPERTY_KEY, "256");
+
+  private MuleContext mockMuleContext;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @Test
+  public void pollInOrderAcrossSegments() throws Exception {
+    MappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    assertThat(segmentFilesCount(), greaterThan(1));
+    assertThat(queueStore.getSize(), is(50));
+
+    for (int i = 0; i < 50; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.poll(0), is(nullValue()));
+    assertThat(segmentFilesCount(), is(1));
+  }
+
+  @Test
+  public void recoversPendingElementsAfterClose() throws Exception {
+    MappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 30; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < 10; i++) {
+      queueStore.poll(0);
+    }
+    queueStore.close();
+
+    MappedFileQueueStoreDelegate recovered = createTestQueueStore(0);
+    assertThat(recovered.getSize(), is(20));
+    assertThat(recovered.contains(createTestDataForIndex(15)), is(true));
+    assertThat(recovered.contains(createTestDataForIndex(5)), is(false));
+
+    recovered.remove(createTestDataForIndex(10));
+    assertThat(recovered.peek(), is(createTestDataForIndex(11)));
+    recovered.close();
+  }
+
+  @Test
+  public void untakeRestoresElementAtTheFront() throws Exception {
+    MappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    queueStore.putNow(createTestDataForIndex(0));
+    queueStore.putNow(createTestDataForIndex(1));
+
+    queueStore.untake(queueStore.poll(0));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(1)));
+  }
+
+  @Test
+  public void offerFailsWhenFull() throws Exception {
+    MappedFileQueueStoreDelegate queueStore = createTestQueueStore(2);
+    assertThat(queueStore.offer(createTestDataForIndex(0), 0, 10), is(true));
+    assertThat(queueStore.offer(createTestDataForIndex(1), 0, 10), is(true));
+    assertThat(queueStore.offer(createTestDataForIndex(2), 0, 10), is(false));
+
+    queueStore.poll(0);
+    assertThat(queueStore.offer(createTestDataForIndex(2), 0, 10), is(true));
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    MappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    queueStore.putNow("item");
+    assertThat(segmentFilesCount(), is(1));
+
+    queueStore.dispose();
+    assertThat(segmentsDirectory().exists(), is(false));
+  }
+
+  private int segmentFilesCount() {
+    return segmentsDirectory().listFiles().length;
+  }
+
+  private File segmentsDirectory() {
+    return new File(workingDirectory.getRoot(), "queuestore" + File.separator + TEST_QUEUE_NAME + "-mapped");
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private MappedFileQueueStoreDelegate createTestQueueStore(int capacity) {
+    return new MappedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext,
+                                            capacity);
+  }
+
+}
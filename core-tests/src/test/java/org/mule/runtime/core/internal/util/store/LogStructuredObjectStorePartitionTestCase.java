@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.SEGMENT_FILE_EXTENSION;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+  private static final long SEGMENT_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = openPartition();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    assertThat(partition.contains(KEY), is(true));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+
+    assertThat(partition.remove(KEY), is(VALUE));
+    assertThat(partition.contains(KEY), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyThrowsException() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    partition.store(KEY, VALUE);
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws ObjectStoreException {
+    final String nonExistentKey = "nonExistentKey";
+
+    try {
+      partition.retrieve(nonExistentKey);
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertTrue(e.getMessage().contains(nonExistentKey));
+    }
+  }
+
+  @Test
+  public void recoversAfterRestart() throws Exception {
+    partition.store("a", "1");
+    partition.store("b", "2");
+    partition.store("c", "3");
+    partition.remove("b");
+    partition.store("b", "4");
+
+    LogStructuredObjectStorePartition<String> recovered = openPartition();
+    assertThat(recovered.allKeys(), contains("a", "c", "b"));
+    assertThat(recovered.retrieve("b"), is("4"));
+  }
+
+  @Test
+  public void truncatedTailIsDiscardedOnRecovery() throws Exception {
+    partition.store("a", "1");
+    partition.store("b", "2");
+
+    File segmentFile = objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION))[0];
+    try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    LogStructuredObjectStorePartition<String> recovered = openPartition();
+    assertThat(recovered.allKeys(), contains("a"));
+    recovered.store("c", "3");
+    assertThat(openPartition().allKeys(), contains("a", "c"));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws ObjectStoreException {
+    for (int i = 0; i < 10; ++i) {
+      partition.store("key" + i, "value" + i);
+    }
+
+    partition.expire(0, 3);
+    assertThat(partition.allKeys(), contains("key7", "key8", "key9"));
+  }
+
+  @Test
+  public void compactionKeepsLiveEntriesAndRemovesDeadSegments() throws Exception {
+    for (int i = 0; i < 100; ++i) {
+      partition.store("key" + i, "value" + i);
+    }
+    int segmentsBefore = countSegments();
+    for (int i = 0; i < 95; ++i) {
+      partition.remove("key" + i);
+    }
+
+    partition.compact();
+    assertThat(countSegments(), lessThan(segmentsBefore));
+
+    LogStructuredObjectStorePartition<String> recovered = openPartition();
+    assertThat(recovered.allKeys(), contains("key95", "key96", "key97", "key98", "key99"));
+    assertThat(recovered.retrieve("key97"), is("value97"));
+  }
+
+  @Test
+  public void compactedEntriesKeepTheirOrderAfterRestart() throws Exception {
+    for (int i = 0; i < 100; ++i) {
+      partition.store("key" + i, "value" + i);
+    }
+    for (int i = 1; i < 95; ++i) {
+      partition.remove("key" + i);
+    }
+
+    partition.compact();
+
+    LogStructuredObjectStorePartition<String> recovered = openPartition();
+    assertThat(recovered.allKeys(), contains("key0", "key95", "key96", "key97", "key98", "key99"));
+    recovered.expire(0, 5);
+    assertThat(recovered.allKeys(), contains("key95", "key96", "key97", "key98", "key99"));
+
+    recovered.store("key100", "value100");
+    assertThat(openPartition().allKeys(), contains("key95", "key96", "key97", "key98", "key99", "key100"));
+  }
+
+  @Test
+  public void reloadsAfterClose() throws Exception {
+    partition.store("a", "1");
+    partition.close();
+
+    assertThat(partition.retrieve("a"), is("1"));
+    partition.store("b", "2");
+    partition.close();
+
+    assertThat(openPartition().allKeys(), contains("a", "b"));
+  }
+
+  @Test
+  public void clearAfterClose() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.close();
+    partition.clear();
+
+    assertThat(partition.contains(KEY), is(false));
+    assertThat(openPartition().allKeys().isEmpty(), is(true));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.clear();
+
+    assertThat(partition.contains(KEY), is(false));
+    assertThat(openPartition().allKeys().isEmpty(), is(true));
+    assertThat("Partition descriptor doesn't exists", new File(objectStoreFolder.getRoot(), "partition-descriptor").exists(),
+               is(true));
+  }
+
+  private LogStructuredObjectStorePartition<String> openPartition() throws ObjectStoreException {
+    LogStructuredObjectStorePartition<String> newPartition =
+        new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), SEGMENT_SIZE);
+    newPartition.open();
+    return newPartition;
+  }
+
+  private int countSegments() {
+    return objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION)).length;
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -14,11 +15,16 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -33,7 +39,7 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
 
   private PartitionedInMemoryObjectStore<String> store;
 
-  private long currentNanoTime = MILLISECONDS.toNanos(1);
+  private volatile long currentNanoTime = MILLISECONDS.toNanos(1);
 
   @Before
   public void setup() {
@@ -92,6 +98,66 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void expireByTtlDoesNotRemoveKeyStoredAgain() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void expireByNumberOfEntriesIgnoresRemovedKeys() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+
+    store.expire(10, 2, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY2, TEST_PARTITION), equalTo(TEST_VALUE));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void keyStoredConcurrentlyWithItsRemovalExpires() throws Exception {
+    ExecutorService executor = newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 500; ++i) {
+        store.store(TEST_KEY1, "previous" + i, TEST_PARTITION);
+        String value = "value" + i;
+
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Future<?> storing = executor.submit(() -> {
+          barrier.await();
+          while (store.contains(TEST_KEY1, TEST_PARTITION)) {
+            Thread.yield();
+          }
+          store.store(TEST_KEY1, value, TEST_PARTITION);
+          return null;
+        });
+        Future<?> removing = executor.submit(() -> {
+          barrier.await();
+          store.remove(TEST_KEY1, TEST_PARTITION);
+          return null;
+        });
+        storing.get();
+        removing.get();
+
+        currentNanoTime += MILLISECONDS.toNanos(2);
+        store.expire(1, UNBOUNDED, TEST_PARTITION);
+        assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void removesDataOnClear() throws ObjectStoreException {
     PartitionedInMemoryObjectStore os = spy(store);
@@ -161,6 +161,7 @@ public class MuleProperties {
   public static final String OBJECT_POLICY_PROVIDER = "_mulePolicyProvider";
   public static final String OBJECT_POLICY_MANAGER_STATE_HANDLER = "_mulePolicyStateHandler";
   public static final String OBJECT_STREAMING_MANAGER = "_muleStreamingManager";
+  public static final String OBJECT_TIMER_SERVICE = "_muleTimerService";
   public static final String OBJECT_REGISTRY = "_muleRegistry";
   public static final String OBJECT_CURSOR_MANAGER = "_muleStreamingManager";
   public static final String OBJECT_TRANSFORMATION_SERVICE = "_muleTransformationService";
@@ -24,9 +24,19 @@ public final class FlowStackElement implements Serializable {
   private Long creationTime;
 
   public FlowStackElement(String flowName, String processorPath) {
+    this(flowName, processorPath, System.currentTimeMillis());
+  }
+
+  /**
+   * @param flowName the name of the flow
+   * @param processorPath the path of the processor currently executing in the flow, or {@code null}
+   * @param creationTime the time in milliseconds at which the element was created
+   * @since 4.2
+   */
+  public FlowStackElement(String flowName, String processorPath, long creationTime) {
     this.flowName = flowName;
     this.processorPath = processorPath;
-    this.creationTime = System.currentTimeMillis();
+    this.creationTime = creationTime;
   }
 
   /**
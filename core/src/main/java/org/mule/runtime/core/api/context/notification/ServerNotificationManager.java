@@ -48,6 +48,7 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
@@ -55,6 +56,7 @@ import org.mule.runtime.core.privileged.context.notification.OptimisedNotificati
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -100,6 +102,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private final Map<NotificationListener, AsyncNotificationQueue> asyncQueues = new ConcurrentHashMap<>();
 
   @Override
   public boolean isNotificationDynamic() {
@@ -152,6 +155,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    asyncQueues.remove(listener);
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -192,13 +196,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
       } else {
-        notifyListeners(notification, (listener, nfn) -> {
-          if (listener.isBlocking()) {
-            notificationsIoScheduler.submit(() -> listener.onNotification(nfn));
-          } else {
-            notificationsLiteScheduler.submit(() -> listener.onNotification(nfn));
-          }
-        });
+        notifyListeners(notification, (listener, nfn) -> getAsyncQueue(listener).enqueue(nfn));
       }
     } finally {
       if (0 == activeFires.decrementAndGet() && disposed.get()) {
@@ -207,6 +205,16 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private AsyncNotificationQueue getAsyncQueue(NotificationListener listener) {
+    AsyncNotificationQueue queue = asyncQueues.get(listener);
+    if (queue == null) {
+      queue = asyncQueues.computeIfAbsent(listener, l -> new AsyncNotificationQueue(l, l.isBlocking()
+          ? notificationsIoScheduler
+          : notificationsLiteScheduler));
+    }
+    return queue;
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -249,6 +257,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
 
     configuration = null;
+    asyncQueues.clear();
   }
 
   /**
@@ -285,6 +294,13 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     return disposed.get();
   }
 
+  /**
+   * @return the amount of asynchronous notifications that were discarded because the buffer of their listener was full
+   */
+  public long getDroppedNotificationsCount() {
+    return asyncQueues.values().stream().mapToLong(AsyncNotificationQueue::getDroppedCount).sum();
+  }
+
   /**
    * @return a {@link ServerNotificationManager} with the default configuration for Mule notifications
    */
@@ -225,6 +225,14 @@ class MuleExtensionModelDeclarer {
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("Defines the prefix of the object store names. This will only be used for the internally built object store.");
 
+    validator.onDefaultParameterGroup()
+        .withOptionalParameter("useBloomFilter")
+        .ofType(typeLoader.load(boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether to look up the IDs in an in-memory bloom filter before querying the object store, and to write the "
+            + "accepted IDs to the object store in the background. Must not be enabled when the object store is shared.");
+
     validator.onDefaultParameterGroup().withOptionalParameter("objectStore").withDsl(
                                                                                      ParameterDslConfiguration.builder()
                                                                                          .allowsInlineDefinition(true)
@@ -469,6 +477,20 @@ class MuleExtensionModelDeclarer {
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("Variable name for the item number being processed.");
 
+    forEach.onDefaultParameterGroup()
+        .withOptionalParameter("maxConcurrency")
+        .ofType(typeLoader.load(Integer.class))
+        .defaultingTo(1)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum number of elements processed in parallel. By default elements are processed sequentially.");
+
+    forEach.onDefaultParameterGroup()
+        .withOptionalParameter("ordered")
+        .ofType(typeLoader.load(boolean.class))
+        .defaultingTo(true)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("When elements are processed in parallel, whether they complete in the order of the collection.");
+
   }
 
   private void declareUntilSuccessful(ExtensionDeclarer extensionDeclarer, ClassTypeLoader typeLoader) {
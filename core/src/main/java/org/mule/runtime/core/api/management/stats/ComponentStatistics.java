@@ -9,12 +9,18 @@ package org.mule.runtime.core.api.management.stats;
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api.
+ * <p/>
+ * Counters are kept in striped cells so that concurrent updates don't contend with each other, at the expense of reads being
+ * slightly more expensive. Reads are not atomic with respect to concurrent updates, so occasional errors in reported statistics
+ * should be expected, especially when the {@link #clear()} method is used.
  */
 @NoExtend
 public class ComponentStatistics implements Statistics {
@@ -26,14 +32,14 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  private final AtomicLong minExecutionTime = new AtomicLong(0);
+  private final AtomicLong maxExecutionTime = new AtomicLong(0);
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  private final ProcessingTimeHistogram executionTimeHistogram = new ProcessingTimeHistogram();
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private volatile long currentIntervalStartTime = 0;
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -65,11 +71,11 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
+    executionTimeHistogram.clear();
   }
 
   /**
@@ -102,7 +108,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -111,7 +117,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -121,7 +127,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -133,7 +139,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -143,35 +149,21 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    resetIntervalIfElapsed();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
+    } else if (executedEvent.sum() == 0) {
+      return;
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
-    }
+    totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+    updateMax(ProcessingTime.getEffectiveTime(total));
   }
 
   /**
@@ -181,12 +173,11 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+      updateMin(effectiveTime);
+      executionTimeHistogram.record(effectiveTime);
     }
   }
 
@@ -197,7 +188,36 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
+  public void addExecutionTime(long time) {
+    resetIntervalIfElapsed();
+
+    executedEvent.increment();
+
+    long effectiveTime = ProcessingTime.getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    executionTimeHistogram.record(effectiveTime);
+  }
+
+  /**
+   * Only writes when the value actually changes, so that once the minimum settles concurrent updates don't contend.
+   */
+  private void updateMin(long time) {
+    long current;
+    do {
+      current = minExecutionTime.get();
+    } while ((current == 0 || time < current) && !minExecutionTime.compareAndSet(current, time));
+  }
+
+  private void updateMax(long time) {
+    long current;
+    do {
+      current = maxExecutionTime.get();
+    } while (time > current && !maxExecutionTime.compareAndSet(current, time));
+  }
+
+  private void resetIntervalIfElapsed() {
     if (statIntervalTimeEnabled) {
       long currentTime = System.currentTimeMillis();
       if (currentIntervalStartTime == 0) {
@@ -209,19 +229,6 @@ public class ComponentStatistics implements Statistics {
         currentIntervalStartTime = currentTime;
       }
     }
-
-    executedEvent++;
-
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
-
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
-    }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
-    }
-    averageExecutionTime = totalExecTime / executedEvent;
   }
 
   /**
@@ -230,7 +237,18 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * Returns a snapshot of the distribution of the complete execution times, from which percentiles may be obtained.
+   *
+   * @return a {@link ProcessingTimeHistogram.Snapshot}
+   * @since 4.2
+   */
+  public ProcessingTimeHistogram.Snapshot getExecutionTimeSnapshot() {
+    return executionTimeHistogram.getSnapshot();
   }
 
 }
@@ -64,6 +64,14 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalProcessingTime();
 
+  /**
+   * Returns a snapshot of the distribution of the time required to process each event, from which percentiles may be obtained.
+   *
+   * @return a {@link ProcessingTimeHistogram.Snapshot}
+   * @since 4.2
+   */
+  ProcessingTimeHistogram.Snapshot getProcessingTimeSnapshot();
+
   /**
    * @return the number of execution errors at a given time
    */
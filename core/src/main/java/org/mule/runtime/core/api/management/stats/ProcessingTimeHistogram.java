@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.Thread.currentThread;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.api.annotation.NoExtend;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps track of the distribution of processing times, so that percentiles can be obtained from it.
+ * <p>
+ * Values are counted in buckets whose width grows with the magnitude of the values, each power of two range being split in 16
+ * buckets. Since the highest value of its bucket is reported for a recorded value, the reported values may be up to 6.25% (1/16)
+ * higher than the recorded ones. Values lower than 32 are counted exactly.
+ * <p>
+ * Counts are kept in a set of stripes, each one being updated by a different subset of threads, so that threads recording
+ * concurrently don't contend on the same memory locations. Stripes are allocated lazily the first time a thread mapped to it
+ * records a value.
+ *
+ * @since 4.2
+ */
+@NoExtend
+public final class ProcessingTimeHistogram implements Serializable {
+
+  private static final long serialVersionUID = -5009126466216376497L;
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+  private static final int MAGNITUDE_BITS = 36;
+
+  /**
+   * Values greater than this are counted as this value.
+   */
+  public static final long HIGHEST_TRACKABLE_VALUE = (1L << MAGNITUDE_BITS) - 1;
+
+  private static final int BUCKETS = bucketIndex(HIGHEST_TRACKABLE_VALUE) + 1;
+  private static final int MAX_STRIPES = 8;
+
+  private final int stripeMask;
+  private transient AtomicReferenceArray<AtomicLongArray> stripes;
+
+  public ProcessingTimeHistogram() {
+    stripeMask = highestOneBit(min(getRuntime().availableProcessors(), MAX_STRIPES)) - 1;
+    stripes = new AtomicReferenceArray<>(stripeMask + 1);
+  }
+
+  /**
+   * Records the given value
+   *
+   * @param value the value to record. Negative values are recorded as zero.
+   */
+  public void record(long value) {
+    getStripe().incrementAndGet(bucketIndex(min(max(value, 0), HIGHEST_TRACKABLE_VALUE)));
+  }
+
+  /**
+   * Discards all the recorded values. If called while values are being recorded, some of those may be kept.
+   */
+  public void clear() {
+    for (int i = 0; i < stripes.length(); i++) {
+      stripes.set(i, null);
+    }
+  }
+
+  /**
+   * Creates a snapshot of the values recorded so far. This does not prevent values from being recorded concurrently, so these may
+   * or may not be included in the snapshot.
+   *
+   * @return a {@link Snapshot}
+   */
+  public Snapshot getSnapshot() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < stripes.length(); i++) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+          counts[bucket] += stripe.get(bucket);
+        }
+      }
+    }
+    return new Snapshot(counts);
+  }
+
+  private AtomicLongArray getStripe() {
+    int index = (int) currentThread().getId() & stripeMask;
+    AtomicLongArray stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS));
+      stripe = stripes.get(index);
+    }
+    return stripe;
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    stripes = new AtomicReferenceArray<>(stripeMask + 1);
+  }
+
+  /**
+   * Values in {@code [0, 32)} map to their own bucket. Every following power of two range is split in 16 buckets.
+   */
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = (63 - numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) ((value >> shift) - SUB_BUCKET_HALF_COUNT);
+  }
+
+  /**
+   * @return the highest value counted in the given bucket
+   */
+  private static long highestValueOf(int bucket) {
+    if (bucket < SUB_BUCKET_COUNT) {
+      return bucket;
+    }
+    int offset = bucket - SUB_BUCKET_COUNT;
+    int shift = offset / SUB_BUCKET_HALF_COUNT + 1;
+    long subBucket = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  /**
+   * An immutable view of the values recorded by a {@link ProcessingTimeHistogram} at a given moment.
+   *
+   * @since 4.2
+   */
+  public static final class Snapshot implements Serializable {
+
+    private static final long serialVersionUID = 4441937196566409003L;
+
+    private final long[] counts;
+    private final long count;
+
+    private Snapshot(long[] counts) {
+      this.counts = counts;
+      long total = 0;
+      for (long bucketCount : counts) {
+        total += bucketCount;
+      }
+      this.count = total;
+    }
+
+    /**
+     * @return the amount of values in this snapshot
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @param percentile the percentile to obtain, between 0 and 100
+     * @return the value below which the given {@code percentile} of the values fall, or 0 if the snapshot is empty
+     */
+    public long getValueAtPercentile(double percentile) {
+      checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+      long rank = max(1, (long) ceil(percentile / 100 * count));
+      long accumulated = 0;
+      for (int bucket = 0; bucket < counts.length; bucket++) {
+        accumulated += counts[bucket];
+        if (accumulated >= rank) {
+          return highestValueOf(bucket);
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * @return the highest value in this snapshot, or 0 if it is empty
+     */
+    public long getMaxValue() {
+      for (int bucket = counts.length - 1; bucket >= 0; bucket--) {
+        if (counts[bucket] > 0) {
+          return highestValueOf(bucket);
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * @param other another snapshot
+     * @return a new snapshot with the values of both this and the {@code other} snapshot
+     */
+    public Snapshot merge(Snapshot other) {
+      long[] merged = counts.clone();
+      for (int bucket = 0; bucket < merged.length; bucket++) {
+        merged[bucket] += other.counts[bucket];
+      }
+      return new Snapshot(merged);
+    }
+  }
+}
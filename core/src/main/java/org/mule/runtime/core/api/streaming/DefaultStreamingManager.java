@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.api.streaming;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectByteBufferManager.DIRECT_BUFFER_MANAGER_PROPERTY_KEY;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.api.annotation.NoExtend;
@@ -29,6 +31,7 @@ import org.mule.runtime.core.internal.streaming.CursorManager;
 import org.mule.runtime.core.internal.streaming.ManagedCursorProvider;
 import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager;
+import org.mule.runtime.core.internal.streaming.bytes.DirectByteBufferManager;
 import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
 import org.mule.runtime.core.internal.streaming.object.DefaultObjectStreamingManager;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -69,7 +72,9 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
       allocationScheduler =
           schedulerService.ioScheduler(muleContext.getSchedulerBaseConfig().withName("StreamingManager-allocate"));
       cursorManager = new CursorManager(statistics);
-      bufferManager = new PoolingByteBufferManager(allocationScheduler);
+      bufferManager = getBoolean(DIRECT_BUFFER_MANAGER_PROPERTY_KEY)
+          ? new DirectByteBufferManager()
+          : new PoolingByteBufferManager(allocationScheduler);
       byteStreamingManager = createByteStreamingManager();
       objectStreamingManager = createObjectStreamingManager();
 
@@ -84,7 +89,7 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
   }
 
   protected ObjectStreamingManager createObjectStreamingManager() {
-    return new DefaultObjectStreamingManager(this);
+    return new DefaultObjectStreamingManager(this, muleContext.getObjectSerializer());
   }
 
   /**
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.streaming.object;
+
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+
+/**
+ * Configuration for a {@link CursorIterator} which keeps a bounded amount of items in memory and buffers the rest in a
+ * temporary file
+ *
+ * @since 4.2
+ */
+public final class FileStoreCursorIteratorConfig {
+
+  private final int bucketSize;
+  private final int maxInMemoryBuckets;
+
+  /**
+   * @return A new instance configured with default settings, which hold in memory as many items as the default
+   *         {@link InMemoryCursorIteratorConfig}
+   */
+  public static FileStoreCursorIteratorConfig getDefault() {
+    return new FileStoreCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE,
+                                             max(1, DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE
+                                                 / DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param bucketSize         the amount of items which are written to and read from the file together. Must be greater than
+   *                           zero
+   * @param maxInMemoryBuckets the maximum amount of buckets to hold in memory. Must be greater than zero
+   * @throws IllegalArgumentException if any of the given arguments is invalid
+   */
+  public FileStoreCursorIteratorConfig(int bucketSize, int maxInMemoryBuckets) {
+    checkArgument(bucketSize > 0, "bucketSize must be greater than zero");
+    checkArgument(maxInMemoryBuckets > 0, "maxInMemoryBuckets must be greater than zero");
+
+    this.bucketSize = bucketSize;
+    this.maxInMemoryBuckets = maxInMemoryBuckets;
+  }
+
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  public int getMaxInMemoryBuckets() {
+    return maxInMemoryBuckets;
+  }
+}
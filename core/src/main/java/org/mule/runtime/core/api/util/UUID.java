@@ -6,10 +6,11 @@
  */
 package org.mule.runtime.core.api.util;
 
+import static org.mule.runtime.core.internal.util.UUIDGenerator.generator;
+
 /**
- * <code>UUID</code> Generates a UUID using the <a href="http://johannburkard.de/software/uuid/">Johann Burkard UUID Library</a>.
- * In our performance tests we found this to be the implementation of type 1 UUID that was most performant in high concurrency
- * scenarios.
+ * <code>UUID</code> Generates time based (type 1) UUIDs. Each thread generates its ids on its own, without any locking, so this
+ * scales with the number of threads generating them.
  */
 // @ThreadSafe
 public final class UUID {
@@ -22,7 +23,15 @@ public final class UUID {
    * @return time-based UUID.
    */
   public static String getUUID() {
-    return new com.eaio.uuid.UUID().toString();
+    return generator().nextUUID();
+  }
+
+  /**
+   * @return time-based UUID in a compact form of 22 letters and digits.
+   * @since 4.2
+   */
+  public static String getCompactUUID() {
+    return generator().nextCompactUUID();
   }
 
   /**
@@ -30,8 +39,7 @@ public final class UUID {
    * @return time-based UUID prefixed with the cluster id so as to ensure uniqueness within cluster.
    */
   public static String getClusterUUID(int clusterId) {
-    return new com.eaio.uuid.UUID()
-        .toAppendable(new StringBuilder(38).append(clusterId).append('-')).toString();
+    return generator().nextUUID(clusterId + "-");
   }
 
   /**
@@ -39,8 +47,7 @@ public final class UUID {
    * @return time-based UUID prefixed with the cluster id so as to ensure uniqueness within cluster.
    */
   public static String getClusterUUID(String clusterIdPrefix) {
-    return new com.eaio.uuid.UUID()
-        .toAppendable(new StringBuilder(38).append(clusterIdPrefix)).toString();
+    return generator().nextUUID(clusterIdPrefix);
   }
 
 
@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.identityHashCode;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.lang.ref.WeakReference;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.commons.pool.ObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * An {@link ObjectPool} of connections which, unlike {@link org.apache.commons.pool.impl.GenericObjectPool}, doesn't synchronize
+ * borrowers on a single monitor.
+ * <p>
+ * Idle connections are kept in a lock-free deque and each thread first tries to reuse the connection it returned last, so that
+ * threads which borrow and return a connection repeatedly don't contend with each other. The limit of active connections is
+ * enforced through a fair {@link Semaphore}, so threads waiting for a connection are served in arrival order and give up after
+ * {@link PoolingProfile#getMaxWait()}. Idle connections are evicted by a background task every
+ * {@link PoolingProfile#getEvictionCheckIntervalMillis()}, never on the borrowing thread.
+ * <p>
+ * As with the defaults of {@link org.apache.commons.pool.impl.GenericObjectPool}, idle connections are only evicted once they
+ * exceed {@link PoolingProfile#getMinEvictionMillis()} and are not validated, unless the pool is created with
+ * {@code validateIdle} so that the eviction task also destroys the idle connections which are no longer valid.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.2
+ */
+final class ConcurrentConnectionPool<C> implements ObjectPool<C>, ConnectionPoolStatistics {
+
+  private static final Logger LOGGER = getLogger(ConcurrentConnectionPool.class);
+
+  private static final long[] WAIT_TIME_BUCKETS_MILLIS =
+      {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, Long.MAX_VALUE};
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int EVICTING = 2;
+  private static final int REMOVED = 3;
+
+  private final PoolableObjectFactory<C> factory;
+  private final int maxIdle;
+  private final long maxWait;
+  private final int exhaustedAction;
+  private final long minEvictionMillis;
+  private final boolean validateIdle;
+  private final Semaphore permits;
+
+  private final ConcurrentMap<IdentityKey, Entry<C>> entries = new ConcurrentHashMap<>();
+  private final Deque<Entry<C>> idleEntries = new ConcurrentLinkedDeque<>();
+  private final ThreadLocal<WeakReference<Entry<C>>> lastReturned = new ThreadLocal<>();
+
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final LongAdder created = new LongAdder();
+  private final LongAdder destroyed = new LongAdder();
+  private final LongAdder borrowed = new LongAdder();
+  private final LongAdder[] waitTimes = new LongAdder[WAIT_TIME_BUCKETS_MILLIS.length];
+
+  private final Scheduler evictionScheduler;
+  private final ScheduledFuture<?> evictionTask;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a new instance which doesn't validate idle connections
+   *
+   * @param factory                    the {@link PoolableObjectFactory} used to create and destroy the connections
+   * @param poolingProfile             the {@link PoolingProfile} which configures this pool
+   * @param evictionSchedulerSupplier  supplies the {@link Scheduler} on which eviction runs. Only invoked if eviction is enabled
+   */
+  ConcurrentConnectionPool(PoolableObjectFactory<C> factory, PoolingProfile poolingProfile,
+                           Supplier<Scheduler> evictionSchedulerSupplier) {
+    this(factory, poolingProfile, evictionSchedulerSupplier, false);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory                    the {@link PoolableObjectFactory} used to create, validate and destroy the connections
+   * @param poolingProfile             the {@link PoolingProfile} which configures this pool
+   * @param evictionSchedulerSupplier  supplies the {@link Scheduler} on which eviction runs. Only invoked if eviction is enabled
+   * @param validateIdle               whether each eviction run validates the idle connections, destroying the invalid ones
+   */
+  ConcurrentConnectionPool(PoolableObjectFactory<C> factory, PoolingProfile poolingProfile,
+                           Supplier<Scheduler> evictionSchedulerSupplier, boolean validateIdle) {
+    this.factory = factory;
+    this.validateIdle = validateIdle;
+    maxIdle = poolingProfile.getMaxIdle();
+    maxWait = poolingProfile.getMaxWait();
+    exhaustedAction = poolingProfile.getExhaustedAction();
+    minEvictionMillis = poolingProfile.getMinEvictionMillis();
+    permits = poolingProfile.getMaxActive() > 0 && exhaustedAction != WHEN_EXHAUSTED_GROW
+        ? new Semaphore(poolingProfile.getMaxActive(), true)
+        : null;
+
+    for (int i = 0; i < waitTimes.length; i++) {
+      waitTimes[i] = new LongAdder();
+    }
+
+    long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionInterval > 0) {
+      evictionScheduler = evictionSchedulerSupplier.get();
+      evictionTask = evictionScheduler.scheduleWithFixedDelay(this::evict, evictionInterval, evictionInterval, MILLISECONDS);
+    } else {
+      evictionScheduler = null;
+      evictionTask = null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NoSuchElementException if the pool is exhausted and no connection became available in time
+   */
+  @Override
+  public C borrowObject() throws Exception {
+    assertOpen();
+    acquirePermit();
+
+    Entry<C> entry;
+    try {
+      entry = takeIdle();
+      if (entry == null) {
+        entry = create(IN_USE);
+      } else {
+        activate(entry);
+      }
+    } catch (Throwable t) {
+      releasePermit();
+      throw t;
+    }
+
+    active.incrementAndGet();
+    borrowed.increment();
+    return entry.connection;
+  }
+
+  @Override
+  public void returnObject(C connection) throws Exception {
+    Entry<C> entry = entries.get(new IdentityKey(connection));
+    if (entry == null || entry.state.get() != IN_USE) {
+      throw new IllegalStateException("Connection was not borrowed from this pool");
+    }
+
+    active.decrementAndGet();
+    try {
+      if (closed || (maxIdle >= 0 && idle.get() >= maxIdle)) {
+        remove(entry);
+        destroyQuietly(entry);
+        return;
+      }
+
+      try {
+        factory.passivateObject(connection);
+      } catch (Exception e) {
+        remove(entry);
+        destroyQuietly(entry);
+        return;
+      }
+
+      makeIdle(entry);
+      setLastReturned(entry);
+    } finally {
+      releasePermit();
+    }
+
+    // the pool may have been closed while the connection was being returned
+    if (closed && entry.state.compareAndSet(IDLE, REMOVED)) {
+      idle.decrementAndGet();
+      entries.remove(new IdentityKey(connection));
+      destroyQuietly(entry);
+    }
+  }
+
+  @Override
+  public void invalidateObject(C connection) throws Exception {
+    Entry<C> entry = entries.remove(new IdentityKey(connection));
+    if (entry != null) {
+      int previousState = entry.state.getAndSet(REMOVED);
+      if (previousState == IN_USE) {
+        active.decrementAndGet();
+        releasePermit();
+      } else if (previousState == IDLE) {
+        idle.decrementAndGet();
+      }
+    }
+
+    try {
+      factory.destroyObject(connection);
+    } finally {
+      destroyed.increment();
+    }
+  }
+
+  @Override
+  public void addObject() throws Exception {
+    assertOpen();
+    makeIdle(create(IN_USE));
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idle.get();
+  }
+
+  @Override
+  public int getNumActive() {
+    return active.get();
+  }
+
+  @Override
+  public int getNumWaiting() {
+    return waiting.get();
+  }
+
+  @Override
+  public long getCreatedCount() {
+    return created.sum();
+  }
+
+  @Override
+  public long getDestroyedCount() {
+    return destroyed.sum();
+  }
+
+  @Override
+  public long getBorrowedCount() {
+    return borrowed.sum();
+  }
+
+  @Override
+  public SortedMap<Long, Long> getWaitTimeHistogram() {
+    SortedMap<Long, Long> histogram = new TreeMap<>();
+    for (int i = 0; i < WAIT_TIME_BUCKETS_MILLIS.length; i++) {
+      histogram.put(WAIT_TIME_BUCKETS_MILLIS[i], waitTimes[i].sum());
+    }
+    return histogram;
+  }
+
+  /**
+   * Destroys all the idle connections
+   */
+  @Override
+  public void clear() {
+    Entry<C> entry;
+    while ((entry = idleEntries.pollFirst()) != null) {
+      entry.queued.set(false);
+      if (entry.state.compareAndSet(IDLE, REMOVED)) {
+        idle.decrementAndGet();
+        entries.remove(new IdentityKey(entry.connection));
+        destroyQuietly(entry);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying all the idle connections. Connections which are currently borrowed are destroyed when returned.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (evictionTask != null) {
+      evictionTask.cancel(false);
+      evictionScheduler.stop();
+    }
+    clear();
+  }
+
+  @Override
+  public void setFactory(PoolableObjectFactory<C> factory) {
+    throw new UnsupportedOperationException("The factory of a " + getClass().getSimpleName() + " cannot be changed");
+  }
+
+  private void acquirePermit() throws InterruptedException {
+    if (permits == null || permits.tryAcquire()) {
+      waitTimes[0].increment();
+      return;
+    }
+
+    if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+      throw new NoSuchElementException("Pool exhausted");
+    }
+
+    final long startNanos = nanoTime();
+    waiting.incrementAndGet();
+    try {
+      if (maxWait <= 0) {
+        permits.acquire();
+      } else if (!permits.tryAcquire(maxWait, MILLISECONDS)) {
+        throw new NoSuchElementException("Timeout waiting for idle object");
+      }
+    } finally {
+      waiting.decrementAndGet();
+      recordWaitTime(NANOSECONDS.toMillis(nanoTime() - startNanos));
+    }
+  }
+
+  private void releasePermit() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  private void recordWaitTime(long waitMillis) {
+    for (int i = 0; i < WAIT_TIME_BUCKETS_MILLIS.length; i++) {
+      if (waitMillis < WAIT_TIME_BUCKETS_MILLIS[i]) {
+        waitTimes[i].increment();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Takes an idle connection, trying first the one last returned by the current thread.
+   */
+  private Entry<C> takeIdle() {
+    Entry<C> entry = getLastReturned();
+    if (entry != null && entry.state.compareAndSet(IDLE, IN_USE)) {
+      idle.decrementAndGet();
+      return entry;
+    }
+
+    while ((entry = idleEntries.pollFirst()) != null) {
+      entry.queued.set(false);
+      if (entry.state.compareAndSet(IDLE, IN_USE)) {
+        idle.decrementAndGet();
+        return entry;
+      }
+      // stale entry, already borrowed through a thread affinity or removed
+    }
+
+    return null;
+  }
+
+  private void activate(Entry<C> entry) throws Exception {
+    try {
+      factory.activateObject(entry.connection);
+    } catch (Exception e) {
+      remove(entry);
+      destroyQuietly(entry);
+      throw e;
+    }
+  }
+
+  private Entry<C> create(int state) throws Exception {
+    Entry<C> entry = new Entry<>(factory.makeObject(), state);
+    entries.put(new IdentityKey(entry.connection), entry);
+    created.increment();
+    return entry;
+  }
+
+  private void makeIdle(Entry<C> entry) {
+    entry.lastReturnedMillis = currentTimeMillis();
+    idle.incrementAndGet();
+    entry.state.set(IDLE);
+    if (entry.queued.compareAndSet(false, true)) {
+      idleEntries.offerFirst(entry);
+    }
+  }
+
+  private void remove(Entry<C> entry) {
+    entry.state.set(REMOVED);
+    entries.remove(new IdentityKey(entry.connection));
+  }
+
+  private void destroyQuietly(Entry<C> entry) {
+    try {
+      factory.destroyObject(entry.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy connection of type " + entry.connection.getClass().getName(), e);
+    } finally {
+      destroyed.increment();
+    }
+  }
+
+  private Entry<C> getLastReturned() {
+    WeakReference<Entry<C>> reference = lastReturned.get();
+    return reference != null ? reference.get() : null;
+  }
+
+  private void setLastReturned(Entry<C> entry) {
+    if (getLastReturned() != entry) {
+      lastReturned.set(new WeakReference<>(entry));
+    }
+  }
+
+  /**
+   * Destroys the idle connections which exceeded {@link PoolingProfile#getMinEvictionMillis()} or, if {@link #validateIdle},
+   * which are no longer valid.
+   */
+  private void evict() {
+    final long now = currentTimeMillis();
+    for (Entry<C> entry : idleEntries) {
+      if (closed) {
+        return;
+      }
+      if (!entry.state.compareAndSet(IDLE, EVICTING)) {
+        continue;
+      }
+
+      boolean evict = (minEvictionMillis > 0 && now - entry.lastReturnedMillis >= minEvictionMillis)
+          || (validateIdle && !isValid(entry));
+      if (evict) {
+        idle.decrementAndGet();
+        remove(entry);
+        idleEntries.removeFirstOccurrence(entry);
+        destroyQuietly(entry);
+      } else {
+        entry.state.set(IDLE);
+        // a borrower may have discarded the entry from the deque while it was being validated
+        if (entry.queued.compareAndSet(false, true)) {
+          idleEntries.offerLast(entry);
+        }
+      }
+    }
+  }
+
+  private boolean isValid(Entry<C> entry) {
+    try {
+      return factory.validateObject(entry.connection);
+    } catch (Exception e) {
+      LOGGER.debug("Exception was found validating idle connection", e);
+      return false;
+    }
+  }
+
+  private void assertOpen() {
+    if (closed) {
+      throw new IllegalStateException("Pool not open");
+    }
+  }
+
+  private static final class Entry<C> {
+
+    private final C connection;
+    private final AtomicInteger state;
+    private final AtomicBoolean queued = new AtomicBoolean(false);
+    private volatile long lastReturnedMillis;
+
+    private Entry(C connection, int state) {
+      this.connection = connection;
+      this.state = new AtomicInteger(state);
+    }
+  }
+
+  private static final class IdentityKey {
+
+    private final Object object;
+
+    private IdentityKey(Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(object);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IdentityKey && ((IdentityKey) obj).object == object;
+    }
+  }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.Optional.empty;
+
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.lifecycle.Lifecycle;
@@ -14,6 +16,8 @@ import org.mule.runtime.core.api.connector.ConnectionManager;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 
+import java.util.Optional;
+
 /**
  * Interface for {@link ConnectionManager} implementations which expands its contract with non API functionality
  *
@@ -46,4 +50,16 @@ public interface ConnectionManagerAdapter extends ConnectionManager, Lifecycle {
    * @return a {@link PoolingProfile}
    */
   PoolingProfile getDefaultPoolingProfile();
+
+  /**
+   * Returns the {@link ConnectionPoolStatistics} of the connections bound to the given {@code config}, if they are pooled and
+   * the pool provides statistics.
+   *
+   * @param config the object the connections are bound to
+   * @return an {@link Optional} {@link ConnectionPoolStatistics}
+   * @since 4.2
+   */
+  default Optional<ConnectionPoolStatistics> getPoolStatistics(Object config) {
+    return empty();
+  }
 }
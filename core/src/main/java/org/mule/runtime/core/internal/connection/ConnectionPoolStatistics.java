@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import java.util.SortedMap;
+
+/**
+ * Statistics of a pool of connections, meant to help sizing the pool based on its actual usage.
+ *
+ * @since 4.2
+ */
+public interface ConnectionPoolStatistics {
+
+  /**
+   * @return the number of connections currently borrowed from the pool
+   */
+  int getNumActive();
+
+  /**
+   * @return the number of connections currently idle in the pool
+   */
+  int getNumIdle();
+
+  /**
+   * @return the number of threads currently waiting for a connection
+   */
+  int getNumWaiting();
+
+  /**
+   * @return the number of connections created by the pool since it was created
+   */
+  long getCreatedCount();
+
+  /**
+   * @return the number of connections destroyed by the pool since it was created
+   */
+  long getDestroyedCount();
+
+  /**
+   * @return the number of times a connection was borrowed from the pool
+   */
+  long getBorrowedCount();
+
+  /**
+   * Returns how long borrowers had to wait for a connection to be available. Each key is the exclusive upper bound, in
+   * milliseconds, of a bucket and the value is the number of borrows which waited less than that but not less than the previous
+   * bucket's bound. The last bucket's bound is {@link Long#MAX_VALUE}.
+   *
+   * @return a histogram of the time spent waiting for a connection
+   */
+  SortedMap<Long, Long> getWaitTimeHistogram();
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.Optional.empty;
 import static org.mule.runtime.api.connection.ConnectionValidationResult.failure;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.assertNotStopping;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -29,6 +30,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -289,4 +291,22 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
     return defaultPoolingProfile;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Optional<ConnectionPoolStatistics> getPoolStatistics(Object config) {
+    ConnectionManagementStrategy managementStrategy;
+    readLock.lock();
+    try {
+      managementStrategy = connections.get(new Reference<>(config));
+    } finally {
+      readLock.unlock();
+    }
+
+    return managementStrategy instanceof PoolingConnectionManagementStrategy
+        ? ((PoolingConnectionManagementStrategy<?>) managementStrategy).getPoolStatistics()
+        : empty();
+  }
+
 }
@@ -24,6 +24,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -62,6 +63,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
     return connectionManagerAdapterStrategy.getDefaultPoolingProfile();
   }
 
+  @Override
+  public Optional<ConnectionPoolStatistics> getPoolStatistics(Object config) {
+    return connectionManagerAdapterStrategy.getPoolStatistics(config);
+  }
+
   @Override
   public <C> void bind(Object config, ConnectionProvider<C> connectionProvider) {
     connectionManagerAdapterStrategy.bind(config, connectionProvider);
@@ -140,6 +146,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
       return delegate.getDefaultPoolingProfile();
     }
 
+    @Override
+    public Optional<ConnectionPoolStatistics> getPoolStatistics(Object config) {
+      return delegate.getPoolStatistics(config);
+    }
+
     @Override
     public <C> void bind(Object config, ConnectionProvider<C> connectionProvider) {
       delegate.bind(config, connectionProvider);
@@ -280,6 +291,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
     public PoolingProfile getDefaultPoolingProfile() {
       return delegate.getDefaultPoolingProfile();
     }
+
+    @Override
+    public Optional<ConnectionPoolStatistics> getPoolStatistics(Object config) {
+      return delegate.getPoolStatistics(config);
+    }
   }
 
   class LazyInvocationHandler implements InvocationHandler {
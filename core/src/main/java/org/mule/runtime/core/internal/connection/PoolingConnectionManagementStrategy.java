@@ -6,17 +6,24 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.getProperty;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
 import org.mule.runtime.core.api.MuleContext;
 
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
@@ -24,12 +31,22 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p>
+ * By default, the pool is a {@link ConcurrentConnectionPool}. Setting the {@link #POOL_ENGINE_PROPERTY} system property to
+ * {@link #COMMONS_POOL_ENGINE} makes it use a commons-pool {@link GenericObjectPool} instead.
+ * <p>
+ * Idle connections are not validated unless the {@link #VALIDATE_IDLE_PROPERTY} system property is set to {@code true}, in
+ * which case each eviction run destroys those which the {@link ConnectionProvider} no longer considers valid.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
  */
 final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
 
+  static final String POOL_ENGINE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.engine";
+  static final String COMMONS_POOL_ENGINE = "commons";
+  static final String VALIDATE_IDLE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.validateIdle";
+
   private final PoolingProfile poolingProfile;
   private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
@@ -97,6 +114,16 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private ObjectPool<C> createPool() {
+    if (COMMONS_POOL_ENGINE.equals(getProperty(POOL_ENGINE_PROPERTY))) {
+      return createCommonsPool();
+    }
+
+    return new ConcurrentConnectionPool<>(new ObjectFactoryAdapter(), poolingProfile,
+                                          () -> muleContext.getSchedulerService().ioScheduler(),
+                                          getBoolean(VALIDATE_IDLE_PROPERTY));
+  }
+
+  private ObjectPool<C> createCommonsPool() {
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -104,6 +131,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     config.whenExhaustedAction = (byte) poolingProfile.getExhaustedAction();
     config.minEvictableIdleTimeMillis = poolingProfile.getMinEvictionMillis();
     config.timeBetweenEvictionRunsMillis = poolingProfile.getEvictionCheckIntervalMillis();
+    config.testWhileIdle = getBoolean(VALIDATE_IDLE_PROPERTY);
     GenericObjectPool genericPool = new GenericObjectPool(new ObjectFactoryAdapter(), config);
 
     return genericPool;
@@ -113,6 +141,13 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return poolingProfile;
   }
 
+  /**
+   * @return the {@link ConnectionPoolStatistics} of the {@link #pool}, if it provides them
+   */
+  Optional<ConnectionPoolStatistics> getPoolStatistics() {
+    return pool instanceof ConnectionPoolStatistics ? of((ConnectionPoolStatistics) pool) : empty();
+  }
+
   private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
 
     @Override
@@ -126,8 +161,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
 
     @Override
-    public boolean validateObject(C obj) {
-      return false;
+    public boolean validateObject(C connection) {
+      ConnectionValidationResult result = connectionProvider.validate(connection);
+      return result != null && result.isValid();
     }
 
     @Override
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications to a single {@link NotificationListener}.
+ * <p>
+ * Notifications are put in a bounded {@link NotificationRingBuffer} and delivered in batches by a drain task, which is only
+ * submitted to the {@link Executor} when there is no other one pending. This way, the cost of dispatching to the executor is
+ * paid once per batch instead of once per notification, and notifications are delivered to the listener in the order they were
+ * enqueued.
+ * <p>
+ * What happens when the buffer is full is determined by the {@link OverflowPolicy}.
+ *
+ * @since 4.2
+ */
+public final class AsyncNotificationQueue {
+
+  private static final Logger LOGGER = getLogger(AsyncNotificationQueue.class);
+
+  /**
+   * The capacity of the buffer of each listener.
+   */
+  public static final String BUFFER_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.async.bufferSize";
+
+  /**
+   * The name of the {@link OverflowPolicy} to apply when the buffer of a listener is full.
+   */
+  public static final String OVERFLOW_POLICY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.async.overflowPolicy";
+
+  /**
+   * When using {@link OverflowPolicy#SAMPLE}, one every this many notifications that find the buffer full is kept.
+   */
+  public static final String SAMPLE_RATE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.async.sampleRate";
+
+  public static final int DEFAULT_BUFFER_SIZE = 4096;
+  public static final int DEFAULT_SAMPLE_RATE = 10;
+
+  private static final int BATCH_SIZE = 256;
+  private static final long BLOCK_PARK_NANOS = MICROSECONDS.toNanos(100);
+
+  /**
+   * What to do with a notification that is fired while the buffer of the listener is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The oldest notification in the buffer is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The firing thread waits until there is room in the buffer, delivering pending notifications itself if no other thread is
+     * doing so.
+     */
+    BLOCK,
+
+    /**
+     * Only one every {@link #SAMPLE_RATE_PROPERTY} notifications is kept, discarding the oldest one in the buffer. The rest are
+     * discarded.
+     */
+    SAMPLE
+  }
+
+  private final NotificationListener listener;
+  private final Executor executor;
+  private final NotificationRingBuffer<Notification> buffer;
+  private final OverflowPolicy overflowPolicy;
+  private final int sampleRate;
+
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final AtomicLong overflowed = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Creates a new instance configured through system properties.
+   *
+   * @param listener the listener to deliver notifications to
+   * @param executor the executor in which notifications are delivered
+   */
+  public AsyncNotificationQueue(NotificationListener listener, Executor executor) {
+    this(listener, executor, getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE),
+         OverflowPolicy.valueOf(getProperty(OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK.name())),
+         getInteger(SAMPLE_RATE_PROPERTY, DEFAULT_SAMPLE_RATE));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param listener       the listener to deliver notifications to
+   * @param executor       the executor in which notifications are delivered
+   * @param bufferSize     the capacity of the buffer
+   * @param overflowPolicy what to do when the buffer is full
+   * @param sampleRate     one every this many overflowing notifications is kept when using {@link OverflowPolicy#SAMPLE}
+   */
+  public AsyncNotificationQueue(NotificationListener listener, Executor executor, int bufferSize,
+                                OverflowPolicy overflowPolicy, int sampleRate) {
+    checkArgument(sampleRate > 0, "sampleRate must be greater than zero");
+
+    this.listener = listener;
+    this.executor = executor;
+    this.buffer = new NotificationRingBuffer<>(bufferSize);
+    this.overflowPolicy = overflowPolicy;
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Enqueues the given {@code notification} for its asynchronous delivery.
+   *
+   * @param notification the notification to deliver
+   */
+  public void enqueue(Notification notification) {
+    if (!buffer.offer(notification)) {
+      handleOverflow(notification);
+    }
+    scheduleDrain();
+  }
+
+  private void handleOverflow(Notification notification) {
+    switch (overflowPolicy) {
+      case DROP_OLDEST:
+        offerDroppingOldest(notification);
+        break;
+      case SAMPLE:
+        if (overflowed.incrementAndGet() % sampleRate == 0) {
+          offerDroppingOldest(notification);
+        } else {
+          dropped.increment();
+        }
+        break;
+      default:
+        while (!buffer.offer(notification)) {
+          if (draining.compareAndSet(false, true)) {
+            try {
+              deliverBatch();
+            } finally {
+              draining.set(false);
+            }
+          } else {
+            parkNanos(BLOCK_PARK_NANOS);
+          }
+        }
+    }
+  }
+
+  private void offerDroppingOldest(Notification notification) {
+    while (!buffer.offer(notification)) {
+      if (buffer.poll() != null) {
+        dropped.increment();
+      }
+    }
+  }
+
+  private void scheduleDrain() {
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        LOGGER.debug("Delivery of notifications to listener {} was rejected: {}", listener, e.getMessage());
+      }
+    }
+  }
+
+  private void drain() {
+    if (draining.compareAndSet(false, true)) {
+      try {
+        deliverBatch();
+      } finally {
+        draining.set(false);
+      }
+    }
+
+    scheduled.set(false);
+    // If another thread is draining, it will take care of rescheduling once it's done
+    if (!buffer.isEmpty() && !draining.get()) {
+      scheduleDrain();
+    }
+  }
+
+  private void deliverBatch() {
+    Notification notification;
+    for (int i = 0; i < BATCH_SIZE && (notification = buffer.poll()) != null; i++) {
+      try {
+        listener.onNotification(notification);
+      } catch (Throwable e) {
+        LOGGER.info("NotificationListener {} was unable to fire notification {} due to an exception: {}.", listener,
+                    notification, e);
+      }
+    }
+  }
+
+  /**
+   * @return the amount of notifications that were discarded because the buffer was full
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  public NotificationListener getListener() {
+    return listener;
+  }
+}
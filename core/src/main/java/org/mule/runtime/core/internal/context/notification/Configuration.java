@@ -39,7 +39,7 @@ public class Configuration {
   private Set<Class<? extends NotificationListener>> disabledInterfaces = new HashSet<>();
   private Set<Class<? extends Notification>> disabledNotificationTypes = new HashSet<>();
   private volatile boolean dirty = true;
-  private Policy policy;
+  private volatile Policy policy;
 
   public synchronized void addInterfaceToType(Class<? extends NotificationListener> iface,
                                               Class<? extends Notification> type) {
@@ -6,8 +6,11 @@
  */
 package org.mule.runtime.core.internal.context.notification;
 
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
 import static java.lang.System.identityHashCode;
 import static java.lang.System.lineSeparator;
+import static java.util.Arrays.copyOf;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
@@ -18,19 +21,41 @@ import org.slf4j.Logger;
 import java.util.ArrayList;
 import java.util.EmptyStackException;
 import java.util.List;
-import java.util.Stack;
 
 /**
  * Keeps context information about the executing flows and its callers in order to provide augmented troubleshooting information
  * for an application developer.
+ * <p>
+ * The state of each frame is kept in parallel arrays rather than in {@link FlowStackElement} instances, so that updating the
+ * current processor of the top frame, which happens for every processor an event goes through, doesn't allocate. Elements are only
+ * created when the stack is inspected.
+ * <p>
+ * An instance is expected to be modified by a single thread at a time, as happens with the event it belongs to. Other threads may
+ * read or {@link #clone()} it concurrently for troubleshooting purposes, in which case the obtained information may be slightly out
+ * of date.
  */
 public class DefaultFlowCallStack implements FlowCallStack {
 
-  private static final long serialVersionUID = -8683711977929802819L;
+  private static final long serialVersionUID = -2417931226946211218L;
 
   private static final Logger LOGGER = getLogger(DefaultFlowCallStack.class);
 
-  private Stack<FlowStackElement> innerStack = new Stack<>();
+  private static final int INITIAL_CAPACITY = 4;
+
+  private String[] flowNames;
+  private String[] processorPaths;
+  private long[] creationTimes;
+  private volatile int size;
+
+  public DefaultFlowCallStack() {
+    this(INITIAL_CAPACITY);
+  }
+
+  private DefaultFlowCallStack(int capacity) {
+    flowNames = new String[capacity];
+    processorPaths = new String[capacity];
+    creationTimes = new long[capacity];
+  }
 
   /**
    * Adds an element to the top of this stack
@@ -41,22 +66,34 @@ public class DefaultFlowCallStack implements FlowCallStack {
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("push ({}): {}", identityHashCode(this), flowStackElement.toString());
     }
-    innerStack.push(flowStackElement);
+
+    int top = size;
+    if (top == flowNames.length) {
+      int capacity = top << 1;
+      flowNames = copyOf(flowNames, capacity);
+      processorPaths = copyOf(processorPaths, capacity);
+      creationTimes = copyOf(creationTimes, capacity);
+    }
+    flowNames[top] = flowStackElement.getFlowName();
+    processorPaths[top] = flowStackElement.getProcessorPath();
+    creationTimes[top] = flowStackElement.getCreationTime();
+    size = top + 1;
   }
 
   /**
-   * Adds a message processor path to the list of processors that were invoked as part of the processing of this stack's event.
+   * Sets the path of the processor currently being executed by the flow at the top of this stack. Does nothing if the stack is
+   * empty.
    *
-   * @param processorPath the path to mark as invoked.
-   * @throws EmptyStackException if this stack is empty.
+   * @param processorPath the path of the executing processor.
    */
   public void setCurrentProcessorPath(String processorPath) {
-    if (!innerStack.empty()) {
+    int top = size - 1;
+    if (top >= 0) {
       if (LOGGER.isTraceEnabled()) {
         LOGGER.trace("setCurrentProcessorPath({}): {}", identityHashCode(this), processorPath);
       }
-      FlowStackElement topElement = innerStack.pop();
-      innerStack.push(new FlowStackElement(topElement.getFlowName(), processorPath));
+      processorPaths[top] = processorPath;
+      creationTimes[top] = currentTimeMillis();
     }
   }
 
@@ -67,7 +104,16 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @throws EmptyStackException if this stack is empty.
    */
   public FlowStackElement pop() {
-    FlowStackElement element = innerStack.pop();
+    int top = size - 1;
+    if (top < 0) {
+      throw new EmptyStackException();
+    }
+
+    FlowStackElement element = new FlowStackElement(flowNames[top], processorPaths[top], creationTimes[top]);
+    flowNames[top] = null;
+    processorPaths[top] = null;
+    size = top;
+
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("pop({}): {}", identityHashCode(this), element.toString());
     }
@@ -76,31 +122,46 @@ public class DefaultFlowCallStack implements FlowCallStack {
 
   @Override
   public List<FlowStackElement> getElements() {
-    List<FlowStackElement> elementsCloned = new ArrayList<>();
-    for (int i = innerStack.size() - 1; i >= 0; --i) {
-      elementsCloned.add(innerStack.get(i));
+    // read the size first, so the arrays read afterwards contain at least that many frames
+    int currentSize = size;
+    String[] currentFlowNames = flowNames;
+    String[] currentProcessorPaths = processorPaths;
+    long[] currentCreationTimes = creationTimes;
+
+    List<FlowStackElement> elements = new ArrayList<>(currentSize);
+    for (int i = min(currentSize, currentFlowNames.length) - 1; i >= 0; --i) {
+      if (currentFlowNames[i] != null) {
+        elements.add(new FlowStackElement(currentFlowNames[i], currentProcessorPaths[i], currentCreationTimes[i]));
+      }
     }
-    return elementsCloned;
+    return elements;
   }
 
   @Override
   public DefaultFlowCallStack clone() {
-    DefaultFlowCallStack cloned = new DefaultFlowCallStack();
-    for (int i = 0; i < innerStack.size(); ++i) {
-      cloned.innerStack.push(innerStack.get(i));
-    }
+    int currentSize = size;
+    String[] currentFlowNames = flowNames;
+    String[] currentProcessorPaths = processorPaths;
+    long[] currentCreationTimes = creationTimes;
+    currentSize = min(currentSize, currentFlowNames.length);
 
+    DefaultFlowCallStack cloned = new DefaultFlowCallStack(currentSize + INITIAL_CAPACITY);
+    System.arraycopy(currentFlowNames, 0, cloned.flowNames, 0, currentSize);
+    System.arraycopy(currentProcessorPaths, 0, cloned.processorPaths, 0, currentSize);
+    System.arraycopy(currentCreationTimes, 0, cloned.creationTimes, 0, currentSize);
+    cloned.size = currentSize;
     return cloned;
   }
 
   @Override
   public String toString() {
     StringBuilder stackString = new StringBuilder();
-    for (int i = innerStack.size() - 1; i >= 0; --i) {
-      stackString.append("at ").append(innerStack.get(i).toString());
+    List<FlowStackElement> elements = getElements();
+    for (int i = 0; i < elements.size(); ++i) {
       if (i != 0) {
         stackString.append(lineSeparator());
       }
+      stackString.append("at ").append(elements.get(i).toString());
     }
     return stackString.toString();
   }
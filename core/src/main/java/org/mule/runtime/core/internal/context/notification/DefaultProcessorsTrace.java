@@ -10,31 +10,100 @@ import static java.util.Collections.unmodifiableList;
 
 import org.mule.runtime.core.api.context.notification.ProcessorsTrace;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Keeps context information about the message processors that were executed as part of the processing of an event.
+ * <p>
+ * The paths are appended to fixed size segments without locking, since an instance is shared by all the child contexts of an
+ * event, which may be executing concurrently.
  */
 public class DefaultProcessorsTrace implements ProcessorsTrace {
 
-  private static final long serialVersionUID = 5327053121687733907L;
+  private static final long serialVersionUID = -2318465340285113582L;
 
-  private final List<String> executedProcessors = new ArrayList<>();
+  private static final int SEGMENT_SIZE = 32;
+
+  private transient Segment head;
+  private transient AtomicReference<Segment> tail;
+
+  public DefaultProcessorsTrace() {
+    init();
+  }
+
+  private void init() {
+    head = new Segment();
+    tail = new AtomicReference<>(head);
+  }
 
   /**
    * Adds a message processor path to the list of processors that were executed as part of the processing of this event.
-   * 
+   *
    * @param processorPath the path to mask as executed.
    */
-  public synchronized void addExecutedProcessors(String processorPath) {
-    executedProcessors.add(processorPath);
+  public void addExecutedProcessors(String processorPath) {
+    Segment segment = tail.get();
+    while (true) {
+      int index = segment.reserved.getAndIncrement();
+      if (index < SEGMENT_SIZE) {
+        segment.paths.lazySet(index, processorPath);
+        return;
+      }
+
+      Segment next = segment.next.get();
+      if (next == null) {
+        Segment newSegment = new Segment();
+        next = segment.next.compareAndSet(null, newSegment) ? newSegment : segment.next.get();
+      }
+      tail.compareAndSet(segment, next);
+      segment = next;
+    }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned list is a snapshot of the processors executed up to the moment of the call.
+   */
   @Override
-  public synchronized List<String> getExecutedProcessors() {
+  public List<String> getExecutedProcessors() {
+    List<String> executedProcessors = new ArrayList<>();
+    for (Segment segment = head; segment != null; segment = segment.next.get()) {
+      for (int i = 0; i < SEGMENT_SIZE; i++) {
+        String path = segment.paths.get(i);
+        // A null means the slot has been reserved but not written yet, or not reserved at all
+        if (path != null) {
+          executedProcessors.add(path);
+        }
+      }
+    }
     return unmodifiableList(executedProcessors);
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeObject(new ArrayList<>(getExecutedProcessors()));
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    init();
+    for (String path : (List<String>) in.readObject()) {
+      addExecutedProcessors(path);
+    }
+  }
+
+  private static final class Segment {
+
+    private final AtomicReferenceArray<String> paths = new AtomicReferenceArray<>(SEGMENT_SIZE);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicReference<Segment> next = new AtomicReference<>();
+  }
 }
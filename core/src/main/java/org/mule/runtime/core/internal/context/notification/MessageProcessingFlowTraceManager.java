@@ -36,6 +36,9 @@ import org.apache.logging.log4j.spi.LoggerContext;
 import java.beans.PropertyChangeListener;
 import java.util.Map;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
 /**
  * Manager for handling message processing troubleshooting data.
  */
@@ -52,6 +55,11 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
   private volatile boolean listenersAdded = false;
   private PropertyChangeListener logConfigChangeListener = evt -> handleNotificationListeners();
 
+  // The representation of a processor doesn't change, so it is resolved only the first time it is executed. Keys are weak so that
+  // processors that are no longer used, such as the ones of a removed policy, are not retained.
+  private final LoadingCache<Component, String> processorRepresentations =
+      Caffeine.newBuilder().weakKeys().build(this::resolveRepresentation);
+
   public MessageProcessingFlowTraceManager() {
     messageProcessorTextDebugger = new MessageProcessorTextDebugger(this);
     pipelineProcessorDebugger = new FlowNotificationTextDebugger(this);
@@ -80,6 +88,7 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
     }
 
     removeNotificationListeners();
+    processorRepresentations.invalidateAll();
   }
 
   protected synchronized void handleNotificationListeners() {
@@ -113,12 +122,7 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
    * @param notification the notification that contains the event and the processor that is about to be invoked.
    */
   public void onMessageProcessorNotificationPreInvoke(MessageProcessorNotification notification) {
-    String resolveProcessorRepresentation =
-        resolveProcessorRepresentation(muleContext.getConfiguration().getId(),
-                                       notification.getComponent().getLocation() != null
-                                           ? notification.getComponent().getLocation().getLocation()
-                                           : null,
-                                       notification.getComponent());
+    String resolveProcessorRepresentation = processorRepresentations.get(notification.getComponent());
 
     EventContext eventContext = notification.getEventContext();
     if (eventContext != null) {
@@ -132,6 +136,12 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
     }
   }
 
+  private String resolveRepresentation(Component component) {
+    return resolveProcessorRepresentation(muleContext.getConfiguration().getId(),
+                                          component.getLocation() != null ? component.getLocation().getLocation() : null,
+                                          component);
+  }
+
   /**
    * Callback method for when a flow or sub-flow called from a {@code flow-ref} component has been completed.
    *
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.highestOneBit;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring buffer in which each slot carries a sequence number telling whether it may be written or read for a
+ * given position.
+ * <p>
+ * Any number of threads may {@link #offer(Object)} and {@link #poll()} concurrently, although the expected usage is many
+ * producers and a single consumer, with producers only polling to discard the oldest element when the buffer is full.
+ *
+ * @param <E> the type of the elements in the buffer
+ * @since 4.2
+ */
+final class NotificationRingBuffer<E> {
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * @param capacity the minimum capacity of the buffer. It is rounded up to the next power of two.
+   */
+  NotificationRingBuffer(int capacity) {
+    checkArgument(capacity > 0, "capacity must be greater than zero");
+
+    this.capacity = capacity == highestOneBit(capacity) ? capacity : highestOneBit(capacity) << 1;
+    this.mask = this.capacity - 1;
+    this.elements = new AtomicReferenceArray<>(this.capacity);
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Adds the given {@code element} to the buffer, unless it is full.
+   *
+   * @return {@code true} if the element was added, {@code false} if the buffer is full
+   */
+  boolean offer(E element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long diff = sequences.get(index) - position;
+      if (diff == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (diff < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * @return the oldest element in the buffer, or {@code null} if it is empty
+   */
+  E poll() {
+    long position = head.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long diff = sequences.get(index) - (position + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          E element = elements.get(index);
+          elements.lazySet(index, null);
+          sequences.set(index, position + capacity);
+          return element;
+        }
+        position = head.get();
+      } else if (diff < 0) {
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  /**
+   * @return whether the buffer is empty. The value may be stale by the time it is returned if accessed concurrently.
+   */
+  boolean isEmpty() {
+    return tail.get() - head.get() <= 0;
+  }
+
+  int capacity() {
+    return capacity;
+  }
+}
@@ -16,9 +16,10 @@ import org.mule.runtime.core.api.context.notification.NotifierCallback;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -28,21 +29,19 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * For a particular configuration, this describes what events should be delivered where. It is read-only and a lazy instance is
  * cached by the {@link Configuration}
+ * <p>
+ * The first time a notification class is dispatched or queried, the {@link Sender}s of the listeners that handle it are resolved
+ * and kept in a routing table, so that subsequent dispatches only need a lookup and a walk over an array of senders.
  */
 public class Policy {
 
   private static final Logger LOGGER = getLogger(Policy.class);
 
-  // map from event to set of senders
-  private Map<Class<? extends Notification>, Collection<Sender>> eventToSenders =
-      new HashMap<>();
-  private Map<Class<? extends Notification>, Collection<Sender>> concreteEventToSenders =
-      new HashMap<>();
+  // map from event to the senders of the listeners of that event, with predictable iteration order
+  private final Map<Class<? extends Notification>, Sender[]> eventToSenders = new LinkedHashMap<>();
 
-  // these are cumulative - set values should never change, they are just a cache of known info
-  // they are co and contra-variant wrt to exact event type (see code below).
-  private ConcurrentMap<Class, Boolean> knownEventsExact = new ConcurrentHashMap<>();
-  private ConcurrentMap<Class, Boolean> knownEventsSuper = new ConcurrentHashMap<>();
+  // routing table from concrete notification class to what is known about it
+  private final ConcurrentMap<Class, Route> routes = new ConcurrentHashMap<>();
 
   /**
    * For each listener, we check each interface and see what events can be delivered.
@@ -51,27 +50,27 @@ public class Policy {
          Set<ListenerSubscriptionPair> listenerSubscriptionPairs,
          Set<Class<? extends NotificationListener>> disabledInterfaces,
          Set<Class<? extends Notification>> disabledEvents) {
+    Map<Class<? extends Notification>, List<Sender>> senders = new LinkedHashMap<>();
     for (ListenerSubscriptionPair pair : listenerSubscriptionPairs) {
       NotificationListener listener = pair.getListener();
+      Sender sender = new Sender(pair);
       for (Class<? extends NotificationListener> iface : interfaceToEvents.keySet()) {
         if (notASubclassOfAnyClassInSet(disabledInterfaces, iface)) {
           if (iface.isAssignableFrom(listener.getClass())) {
             Set<Class<? extends Notification>> events = interfaceToEvents.get(iface);
             for (Class<? extends Notification> event : events) {
               if (notASubclassOfAnyClassInSet(disabledEvents, event)) {
-                knownEventsExact.put(event, Boolean.TRUE);
-                knownEventsSuper.put(event, Boolean.TRUE);
-                if (!eventToSenders.containsKey(event)) {
-                  // use a collection with predictable iteration order
-                  eventToSenders.put(event, new ArrayList<Sender>());
-                }
-                eventToSenders.get(event).add(new Sender(pair));
+                senders.computeIfAbsent(event, e -> new ArrayList<>()).add(sender);
               }
             }
           }
         }
       }
     }
+
+    for (Entry<Class<? extends Notification>, List<Sender>> entry : senders.entrySet()) {
+      eventToSenders.put(entry.getKey(), entry.getValue().toArray(new Sender[entry.getValue().size()]));
+    }
   }
 
   protected static boolean notASubclassOfAnyClassInSet(Set set, Class clazz) {
@@ -96,61 +95,17 @@ public class Policy {
 
   public void dispatch(Notification notification, NotifierCallback notifier) {
     if (null != notification) {
-      Class notfnClass = notification.getClass();
-      Boolean eventKnown = knownEventsExact.get(notfnClass);
-      // search if we don't know about this event, or if we do know it is used
-      if (eventKnown == null) {
-        boolean found = doDispatch(notification, notfnClass, notifier);
-        knownEventsExact.put(notfnClass, Boolean.valueOf(found));
-      } else if (eventKnown.booleanValue()) {
-        boolean found = doDispatch(notification, notfnClass, notifier);
-        // reduce contention on the map by not writing the same value over and over again.
-        if (!found) {
-          knownEventsExact.put(notfnClass, Boolean.valueOf(found));
+      for (Sender sender : route(notification.getClass()).senders) {
+        try {
+          sender.dispatch(notification, notifier);
+        } catch (Throwable e) {
+          LOGGER.info("NotificationListener {} was unable to fire notification {} due to an exception: {}.",
+                      sender.getListener(), notification, e);
         }
       }
     }
   }
 
-  protected boolean doDispatch(Notification notification, Class<? extends Notification> notfnClass,
-                               NotifierCallback notifier) {
-    boolean found = false;
-
-    // Optimization to avoid iterating the eventToSenders map each time a notification is fired
-    Collection<Sender> senders = concreteEventToSenders.get(notfnClass);
-    if (senders != null) {
-      found = true;
-      dispatchToSenders(notification, senders, notifier);
-    } else {
-      senders = concreteEventToSenders.get(notfnClass);
-      if (senders != null) {
-        dispatchToSenders(notification, senders, notifier);
-      } else {
-        senders = new ArrayList<>();
-        for (Entry<Class<? extends Notification>, Collection<Sender>> event : eventToSenders.entrySet()) {
-          if (event.getKey().isAssignableFrom(notfnClass)) {
-            found = true;
-            senders.addAll(event.getValue());
-            dispatchToSenders(notification, senders, notifier);
-          }
-        }
-        concreteEventToSenders.putIfAbsent(notfnClass, senders);
-      }
-    }
-    return found;
-  }
-
-  private void dispatchToSenders(Notification notification, Collection<Sender> senders, NotifierCallback notifier) {
-    for (Sender sender : senders) {
-      try {
-        sender.dispatch(notification, notifier);
-      } catch (Throwable e) {
-        LOGGER.info("NotificationListener {} was unable to fire notification {} due to an exception: {}.", sender.getListener(),
-                    notification, e);
-      }
-    }
-  }
-
   /**
    * This returns a very "conservative" value - it is true if the notification or any subclass would be accepted. So if it returns
    * false then you can be sure that there is no need to send the notification. On the other hand, if it returns true there is no
@@ -160,31 +115,44 @@ public class Policy {
    * @return false if there is no need to dispatch the notification
    */
   public boolean isNotificationEnabled(Class notfnClass) {
-    // if (!knownEventsSuper.containsKey(notfnClass)) {
-    Boolean knownSuper = knownEventsSuper.get(notfnClass);
-    if (knownSuper == null) {
-      boolean found = false;
-      // this is exhaustive because we initialise to include all events handled.
-      for (Iterator<Class> events = knownEventsSuper.keySet().iterator(); events.hasNext() && !found;) {
-        Class event = events.next();
-        found = knownEventsSuper.get(event).booleanValue() && notfnClass.isAssignableFrom(event);
-      }
-      knownSuper = Boolean.valueOf(found);
-      knownEventsSuper.put(notfnClass, Boolean.valueOf(found));
+    return route(notfnClass).enabled;
+  }
+
+  private Route route(Class notfnClass) {
+    Route route = routes.get(notfnClass);
+    if (route == null) {
+      route = routes.computeIfAbsent(notfnClass, this::createRoute);
     }
+    return route;
+  }
 
-    Boolean knownExact = knownEventsExact.get(notfnClass);
-    if (knownExact == null) {
-      boolean found = false;
-      for (Iterator events = eventToSenders.keySet().iterator(); events.hasNext() && !found;) {
-        Class event = (Class) events.next();
-        found = event.isAssignableFrom(notfnClass);
+  private Route createRoute(Class notfnClass) {
+    // a listener may be registered for more than one of the events the notification is an instance of
+    Set<Sender> senders = new LinkedHashSet<>();
+    boolean enabled = false;
+    for (Entry<Class<? extends Notification>, Sender[]> entry : eventToSenders.entrySet()) {
+      if (entry.getKey().isAssignableFrom(notfnClass)) {
+        enabled = true;
+        for (Sender sender : entry.getValue()) {
+          senders.add(sender);
+        }
+      } else if (notfnClass.isAssignableFrom(entry.getKey())) {
+        enabled = true;
       }
-      knownExact = Boolean.valueOf(found);
-      knownEventsExact.put(notfnClass, knownExact);
     }
 
-    return knownSuper.booleanValue() || knownExact.booleanValue();
+    return new Route(senders.toArray(new Sender[senders.size()]), enabled);
+  }
+
+  private static final class Route {
+
+    private final Sender[] senders;
+    private final boolean enabled;
+
+    private Route(Sender[] senders, boolean enabled) {
+      this.senders = senders;
+      this.enabled = enabled;
+    }
   }
 
 }
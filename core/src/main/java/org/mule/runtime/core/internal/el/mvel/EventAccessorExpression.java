@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el.mvel;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.regex.Pattern.compile;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.api.metadata.DataType.fromType;
+import static org.mule.runtime.core.internal.el.mvel.MessageVariableResolverFactory.FLOW_VARS;
+import static org.mule.runtime.core.internal.el.mvel.MessageVariableResolverFactory.PAYLOAD;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.internal.el.context.InboundPropertiesMapContext;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.privileged.event.MuleSession;
+import org.mule.runtime.core.privileged.event.PrivilegedEvent;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A MEL expression that just reads a part of the event, evaluated by accessing the event directly instead of executing it through
+ * MVEL and the chain of {@link org.mule.mvel2.integration.VariableResolverFactory variable resolver factories} it needs.
+ * <p>
+ * The supported forms are {@code payload}, {@code message.payload}, {@code flowVars.name}, {@code flowVars['name']},
+ * {@code message.inboundProperties}, {@code message.inboundProperties.name} and {@code message.inboundProperties['name']}. The
+ * results, including their {@link DataType}, are the same as the ones of executing the expression through MVEL. When that can't
+ * be guaranteed for an event, {@link #evaluate(PrivilegedEvent)} returns {@code null} so the expression is executed through MVEL.
+ *
+ * @since 4.2
+ */
+abstract class EventAccessorExpression {
+
+  private static final String MESSAGE = "message";
+
+  private static final String IDENTIFIER = "[A-Za-z_$][A-Za-z0-9_$]*";
+  private static final String KEY = "(?:\\.(" + IDENTIFIER + ")|\\[\\s*'([^'\\\\]*)'\\s*\\]|\\[\\s*\"([^\"\\\\]*)\"\\s*\\])";
+
+  private static final Pattern PAYLOAD_PATTERN = compile("(?:message\\.)?payload");
+  private static final Pattern FLOW_VAR_PATTERN = compile("flowVars" + KEY);
+  private static final Pattern INBOUND_PROPERTIES_PATTERN = compile("message\\.inboundProperties");
+  private static final Pattern INBOUND_PROPERTY_PATTERN = compile("message\\.inboundProperties" + KEY);
+
+  private static final DataType INBOUND_PROPERTIES_DATA_TYPE = fromType(InboundPropertiesMapContext.class);
+
+  /**
+   * @param expression a MEL expression, without its markers
+   * @return the {@link EventAccessorExpression} to evaluate {@code expression} with, if it has one of the supported forms
+   */
+  static Optional<EventAccessorExpression> compileExpression(String expression) {
+    String trimmed = expression.trim();
+
+    if (PAYLOAD_PATTERN.matcher(trimmed).matches()) {
+      return of(new PayloadExpression(trimmed));
+    }
+    if (INBOUND_PROPERTIES_PATTERN.matcher(trimmed).matches()) {
+      return of(new InboundPropertiesExpression(trimmed));
+    }
+
+    Matcher matcher = FLOW_VAR_PATTERN.matcher(trimmed);
+    if (matcher.matches()) {
+      return of(new FlowVarExpression(trimmed, key(matcher), matcher.group(1) != null));
+    }
+    matcher = INBOUND_PROPERTY_PATTERN.matcher(trimmed);
+    if (matcher.matches()) {
+      return of(new InboundPropertyExpression(trimmed, key(matcher), matcher.group(1) != null));
+    }
+
+    return empty();
+  }
+
+  private static String key(Matcher matcher) {
+    for (int i = 1; i <= 3; i++) {
+      if (matcher.group(i) != null) {
+        return matcher.group(i);
+      }
+    }
+    return null;
+  }
+
+  final String expression;
+
+  private EventAccessorExpression(String expression) {
+    this.expression = expression;
+  }
+
+  /**
+   * @return the variable the expression starts with, which must not be shadowed by a binding for this to be used
+   */
+  abstract String getRootVariable();
+
+  /**
+   * @param event the event to evaluate the expression against
+   * @return the result of the expression, or {@code null} if it has to be executed through MVEL for the given {@code event}
+   */
+  abstract TypedValue<?> evaluate(PrivilegedEvent event);
+
+  /**
+   * Identifiers are given the data type of the variable or session property named as them, if there is one.
+   */
+  boolean isNamedAsProperty(PrivilegedEvent event) {
+    MuleSession session = event.getSession();
+    return event.getVariables().containsKey(expression) || (session != null && session.getProperty(expression) != null);
+  }
+
+  private static TypedValue<?> typedValue(Object value, DataType dataType) {
+    return value instanceof TypedValue ? (TypedValue<?>) value : new TypedValue<>(value, dataType);
+  }
+
+  private static final class PayloadExpression extends EventAccessorExpression {
+
+    private PayloadExpression(String expression) {
+      super(expression);
+    }
+
+    @Override
+    String getRootVariable() {
+      return expression.startsWith(MESSAGE) ? MESSAGE : PAYLOAD;
+    }
+
+    @Override
+    TypedValue<?> evaluate(PrivilegedEvent event) {
+      TypedValue<?> payload = event.getMessage().getPayload();
+      return typedValue(payload.getValue(), payload.getDataType());
+    }
+  }
+
+  private static final class FlowVarExpression extends EventAccessorExpression {
+
+    private final String name;
+    private final boolean propertyAccess;
+
+    private FlowVarExpression(String expression, String name, boolean propertyAccess) {
+      super(expression);
+      this.name = name;
+      this.propertyAccess = propertyAccess;
+    }
+
+    @Override
+    String getRootVariable() {
+      return FLOW_VARS;
+    }
+
+    @Override
+    TypedValue<?> evaluate(PrivilegedEvent event) {
+      TypedValue<?> variable = event.getVariables().get(name);
+      // MVEL resolves properties missing from a map, such as 'empty', against the map itself
+      if ((variable == null && propertyAccess) || isNamedAsProperty(event)) {
+        return null;
+      }
+      return variable == null ? new TypedValue<>(null, OBJECT) : typedValue(variable.getValue(), variable.getDataType());
+    }
+  }
+
+  private static final class InboundPropertiesExpression extends EventAccessorExpression {
+
+    private InboundPropertiesExpression(String expression) {
+      super(expression);
+    }
+
+    @Override
+    String getRootVariable() {
+      return MESSAGE;
+    }
+
+    @Override
+    TypedValue<?> evaluate(PrivilegedEvent event) {
+      if (isNamedAsProperty(event)) {
+        return null;
+      }
+      return new TypedValue<>(new InboundPropertiesMapContext(event), INBOUND_PROPERTIES_DATA_TYPE);
+    }
+  }
+
+  private static final class InboundPropertyExpression extends EventAccessorExpression {
+
+    private final String name;
+    private final boolean propertyAccess;
+
+    private InboundPropertyExpression(String expression, String name, boolean propertyAccess) {
+      super(expression);
+      this.name = name;
+      this.propertyAccess = propertyAccess;
+    }
+
+    @Override
+    String getRootVariable() {
+      return MESSAGE;
+    }
+
+    @Override
+    TypedValue<?> evaluate(PrivilegedEvent event) {
+      Serializable value = ((InternalMessage) event.getMessage()).getInboundProperty(name);
+      // MVEL resolves properties missing from a map, such as 'empty', against the map itself
+      if ((value == null && propertyAccess) || isNamedAsProperty(event)) {
+        return null;
+      }
+      return typedValue(value, value == null ? OBJECT : fromType(value.getClass()));
+    }
+  }
+}
@@ -24,6 +24,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import java.io.Serializable;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +45,7 @@ public class MVELExpressionExecutor implements ExpressionExecutor<MVELExpression
   protected ParserConfiguration parserConfiguration;
 
   private LoadingCache<String, Serializable> compiledExpressionsCache;
+  private LoadingCache<String, Optional<EventAccessorExpression>> eventAccessorExpressionsCache;
 
   public MVELExpressionExecutor(final ParserConfiguration parserConfiguration) {
     this.parserConfiguration = parserConfiguration;
@@ -59,6 +61,14 @@ public class MVELExpressionExecutor implements ExpressionExecutor<MVELExpression
             return MVEL.compileExpression(key, new ParserContext(parserConfiguration));
           }
         });
+    eventAccessorExpressionsCache = CacheBuilder.newBuilder().maximumSize(getCompiledExpressionMaxCacheSize())
+        .build(new CacheLoader<String, Optional<EventAccessorExpression>>() {
+
+          @Override
+          public Optional<EventAccessorExpression> load(String key) throws Exception {
+            return EventAccessorExpression.compileExpression(key);
+          }
+        });
   }
 
   private int getCompiledExpressionMaxCacheSize() {
@@ -81,6 +91,17 @@ public class MVELExpressionExecutor implements ExpressionExecutor<MVELExpression
   @Override
   public void validate(String expression) throws InvalidExpressionException {
     getCompiledExpression(expression);
+    // Components validate their expressions on initialisation, so the ones that just read the event are ready before the first
+    // event arrives
+    getEventAccessorExpression(expression);
+  }
+
+  /**
+   * @param expression a MEL expression, without its markers
+   * @return the {@link EventAccessorExpression} to evaluate {@code expression} with, if it just reads a part of the event
+   */
+  Optional<EventAccessorExpression> getEventAccessorExpression(String expression) {
+    return eventAccessorExpressionsCache.getUnchecked(expression);
   }
 
   /**
@@ -209,6 +209,13 @@ public class MVELExpressionLanguage extends AbstractComponent implements Extende
                              BindingContext bindingContext) {
     expression = removeExpressionMarker(expression);
 
+    if (event != null) {
+      TypedValue eventAccessorValue = evaluateEventAccessor(expression, (PrivilegedEvent) event, bindingContext);
+      if (eventAccessorValue != null) {
+        return eventAccessorValue;
+      }
+    }
+
     Map<String, Object> bindingMap = new HashMap<>();
     bindingContext.identifiers().forEach(id -> {
       bindingMap.put(id, bindingContext.lookup(id).get().getValue());
@@ -226,6 +233,20 @@ public class MVELExpressionLanguage extends AbstractComponent implements Extende
     }
   }
 
+  /**
+   * Evaluates expressions that just read a part of the event without going through MVEL, unless a binding shadows the variable
+   * they read.
+   *
+   * @return the result of the expression, or {@code null} if it has to be executed through MVEL
+   */
+  private TypedValue evaluateEventAccessor(String expression, PrivilegedEvent event, BindingContext bindingContext) {
+    EventAccessorExpression eventAccessor = expressionExecutor.getEventAccessorExpression(expression).orElse(null);
+    if (eventAccessor == null || bindingContext.lookup(eventAccessor.getRootVariable()).isPresent()) {
+      return null;
+    }
+    return eventAccessor.evaluate(event);
+  }
+
   @Override
   public TypedValue<?> evaluateLogExpression(String expression, CoreEvent event, ComponentLocation componentLocation,
                                              BindingContext bindingContext)
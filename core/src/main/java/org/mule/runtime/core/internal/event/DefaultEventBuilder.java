@@ -18,8 +18,9 @@ import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsBytes;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsString;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.copyOf;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.emptyPersistentMap;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.toGroupCorrelation;
 
@@ -40,11 +41,11 @@ import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.transformer.MessageTransformerException;
-import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 import org.mule.runtime.core.internal.message.DefaultMessageBuilder;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalEvent.Builder;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.DefaultMuleSession;
@@ -55,6 +56,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.charset.Charset;
@@ -69,9 +71,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private BaseEventContext context;
   private Function<EventContext, Message> messageFactory;
-  private boolean varsModified = false;
-  private final Map<String, TypedValue<?>> flowVariables = new HashMap<>();
-  private final CaseInsensitiveHashMap<String, TypedValue<?>> originalVars;
+  private PersistentCaseInsensitiveMap<TypedValue<?>> flowVariables;
   private final Map<String, Object> internalParameters = new HashMap<>(4);
   private Error error;
   private Optional<ItemSequenceInfo> itemSequenceInfo = empty();
@@ -85,7 +85,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder(BaseEventContext messageContext) {
     this.context = messageContext;
     this.session = new DefaultMuleSession();
-    this.originalVars = emptyCaseInsensitiveMap();
+    this.flowVariables = emptyPersistentMap();
   }
 
   public DefaultEventBuilder(InternalEvent event) {
@@ -99,7 +99,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) event.getVariables();
+    this.flowVariables = copyOf(event.getVariables());
     this.internalParameters.putAll(event.getInternalParameters());
   }
 
@@ -127,19 +127,21 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    initVariables();
-
-    copyFromTo(flowVariables, this.flowVariables);
-    this.varsModified = true;
+    PersistentCaseInsensitiveMap<TypedValue<?>> variables = emptyPersistentMap();
+    for (Map.Entry<String, ?> entry : flowVariables.entrySet()) {
+      Object value = entry.getValue();
+      variables = variables.plus(entry.getKey(),
+                                 value instanceof TypedValue ? (TypedValue<?>) value
+                                     : new TypedValue<>(value, DataType.fromObject(value)));
+    }
+    this.flowVariables = variables;
+    this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value) {
-    initVariables();
-
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
-    this.varsModified = true;
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
 
@@ -147,20 +149,16 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
-    initVariables();
-
-    flowVariables.put(key, new TypedValue<>(value, dataType));
-    this.varsModified = true;
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder removeVariable(String key) {
-    initVariables();
-
-    this.modified = flowVariables.remove(key) != null || modified;
-    this.varsModified = this.varsModified || modified;
+    PersistentCaseInsensitiveMap<TypedValue<?>> variables = flowVariables.minus(key);
+    this.modified = variables != flowVariables || modified;
+    this.flowVariables = variables;
     return this;
   }
 
@@ -250,28 +248,13 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       return originalEvent;
     } else {
       final Message message = requireNonNull(messageFactory.apply(context));
-      initVariables();
-      return new InternalEventImplementation(context, message,
-                                             varsModified ? flowVariables : originalVars,
+      return new InternalEventImplementation(context, message, flowVariables,
                                              internalParameters, session, securityContext, itemSequenceInfo, error,
                                              legacyCorrelationId,
                                              notificationsEnabled);
     }
   }
 
-  protected void initVariables() {
-    if (!this.varsModified) {
-      this.flowVariables.putAll(originalVars);
-    }
-  }
-
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
-    source.forEach((s, o) -> target
-        .put(s, o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o))));
-    this.modified = true;
-  }
-
   /**
    * <code>EventImplementation</code> represents any data event occurring in the Mule environment. All data sent or received
    * within the Mule environment will be passed between components as an MuleEvent.
@@ -294,7 +277,9 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private final boolean notificationsEnabled;
 
-    private final CaseInsensitiveHashMap<String, TypedValue<?>> variables;
+    // Declared as a Map so that events serialized while it held a CaseInsensitiveHashMap can still be deserialized. It is always
+    // a PersistentCaseInsensitiveMap once constructed or read.
+    private Map<String, TypedValue<?>> variables;
     private final Map<String, ?> internalParameters;
 
     private final String legacyCorrelationId;
@@ -306,7 +291,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
         new LazyValue<>(() -> addEventBindings(this, NULL_BINDING_CONTEXT));
 
     // Use this constructor from the builder
-    private InternalEventImplementation(BaseEventContext context, Message message, Map<String, TypedValue<?>> variables,
+    private InternalEventImplementation(BaseEventContext context, Message message,
+                                        PersistentCaseInsensitiveMap<TypedValue<?>> variables,
                                         Map<String, ?> internalParameters, MuleSession session, SecurityContext securityContext,
                                         Optional<ItemSequenceInfo> itemSequenceInfo,
                                         Error error,
@@ -315,7 +301,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       this.session = session;
       this.securityContext = securityContext;
       this.message = message;
-      this.variables = new CaseInsensitiveHashMap<String, TypedValue<?>>(variables).toImmutableCaseInsensitiveMap();
+      this.variables = variables;
       this.internalParameters = internalParameters;
 
       this.itemSequenceInfo = itemSequenceInfo.orElse(null);
@@ -460,6 +446,11 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       }
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      variables = copyOf(variables);
+    }
+
     private void setMessage(Message message) {
       this.message = message;
     }
@@ -28,10 +28,13 @@ import org.mule.runtime.core.internal.context.notification.DefaultProcessorsTrac
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Default immutable implementation of {@link BaseEventContext}.
@@ -78,9 +81,14 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     return child;
   }
 
-  private final String id;
+  private static final AtomicReferenceFieldUpdater<DefaultEventContext, String> ID_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(DefaultEventContext.class, String.class, "id");
+
+  private volatile String id;
+  // Generates the id the first time it is requested, so contexts that never need it don't pay for it
+  private final transient FlowConstruct idSource;
   private final String correlationId;
-  private final Instant receivedDate = now();
+  private final Instant receivedDate;
 
   private final String serverId;
   private final ComponentLocation location;
@@ -90,7 +98,13 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   @Override
   public String getId() {
-    return id;
+    String currentId = id;
+    if (currentId == null && idSource != null) {
+      // Only the first id generated is kept, even if several threads request it concurrently
+      ID_UPDATER.compareAndSet(this, null, idSource.getUniqueIdString());
+      currentId = id;
+    }
+    return currentId;
   }
 
   @Override
@@ -100,7 +114,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   @Override
   public String getCorrelationId() {
-    return correlationId != null ? correlationId : id;
+    return correlationId != null ? correlationId : getId();
   }
 
   @Override
@@ -173,8 +187,9 @@ public final class DefaultEventContext extends AbstractEventContext implements S
   public DefaultEventContext(FlowConstruct flow, FlowExceptionHandler exceptionHandler, ComponentLocation location,
                              String correlationId, Optional<CompletableFuture<Void>> externalCompletion) {
     super(exceptionHandler, 0, externalCompletion);
-    this.id = flow.getUniqueIdString();
+    this.idSource = flow;
     this.serverId = flow.getServerId();
+    this.receivedDate = now();
     this.location = location;
     this.processingTime = ProcessingTime.newInstance(flow);
     this.correlationId = correlationId;
@@ -201,12 +216,37 @@ public final class DefaultEventContext extends AbstractEventContext implements S
                              Optional<CompletableFuture<Void>> externalCompletion, FlowExceptionHandler exceptionHandler) {
     super(exceptionHandler, 0, externalCompletion);
     this.id = id;
+    this.idSource = null;
     this.serverId = serverId;
+    this.receivedDate = now();
     this.location = location;
     this.processingTime = null;
     this.correlationId = correlationId;
   }
 
+  /**
+   * Restores an execution context from its serialized form.
+   *
+   * @param id the unique id for this event context.
+   * @param serverId the id of the running mule server
+   * @param location the location of the component that received the first message for this context.
+   * @param correlationId the correlation id that was set by the {@link MessageSource} for the first {@link CoreEvent} of this
+   *        context, if available.
+   * @param receivedDate the time at which the first message for this context was received.
+   * @param processingTime the processing time of the context, if available.
+   */
+  DefaultEventContext(String id, String serverId, ComponentLocation location, String correlationId, Instant receivedDate,
+                      ProcessingTime processingTime) {
+    super(NullExceptionHandler.getInstance(), 0, empty());
+    this.id = id;
+    this.idSource = null;
+    this.serverId = serverId;
+    this.receivedDate = receivedDate;
+    this.location = location;
+    this.processingTime = processingTime;
+    this.correlationId = correlationId;
+  }
+
   private void eventContextMaintain(EventContextService eventContextService) {
     if (eventContextService != null && eventContextService instanceof DefaultEventContextService) {
       ((DefaultEventContextService) eventContextService).addContext(this);
@@ -216,9 +256,14 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     }
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    getId();
+    out.defaultWriteObject();
+  }
+
   @Override
   public String toString() {
-    return getClass().getSimpleName() + " { id: " + id + "; correlationId: " + correlationId + "; flowName: "
+    return getClass().getSimpleName() + " { id: " + getId() + "; correlationId: " + correlationId + "; flowName: "
         + getOriginatingLocation().getRootContainerName() + "; serverId: " + serverId + " }";
   }
 
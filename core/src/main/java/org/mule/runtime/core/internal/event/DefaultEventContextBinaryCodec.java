@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.lang.String.format;
+import static java.time.Instant.ofEpochSecond;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.context.notification.FlowStackElement;
+import org.mule.runtime.core.api.management.stats.ProcessingTime;
+import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
+import org.mule.runtime.core.internal.context.notification.DefaultProcessorsTrace;
+import org.mule.runtime.core.internal.serialization.BinaryCodec;
+import org.mule.runtime.core.internal.serialization.BinaryDecoder;
+import org.mule.runtime.core.internal.serialization.BinaryEncoder;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link BinaryCodec} for {@link DefaultEventContext}s.
+ * <p>
+ * Only the data that identifies the context and its troubleshooting information are written. As with Java serialization, the
+ * restored context has no exception handler nor response or completion callbacks.
+ *
+ * @since 4.2
+ */
+public final class DefaultEventContextBinaryCodec implements BinaryCodec<DefaultEventContext> {
+
+  private static final int VERSION = 1;
+
+  @Override
+  public void encode(DefaultEventContext context, BinaryEncoder encoder) throws IOException {
+    encoder.writeByte(VERSION);
+    encoder.writeString(context.getId());
+    encoder.writeString(context.getServerId());
+    encoder.writeString(context.isCorrelationIdFromSource() ? context.getCorrelationId() : null);
+    encoder.writeObject(context.getOriginatingLocation());
+    encoder.writeSignedVarLong(context.getReceivedTime().getEpochSecond());
+    encoder.writeVarInt(context.getReceivedTime().getNano());
+    encoder.writeObject(context.getProcessingTime().orElse(null));
+
+    // Elements are returned from top to bottom, write them in the order they have to be pushed back
+    List<FlowStackElement> elements = context.getFlowCallStack().getElements();
+    encoder.writeVarInt(elements.size());
+    for (int i = elements.size() - 1; i >= 0; --i) {
+      FlowStackElement element = elements.get(i);
+      encoder.writeString(element.getFlowName());
+      encoder.writeString(element.getProcessorPath());
+      encoder.writeSignedVarLong(element.getCreationTime());
+    }
+
+    List<String> executedProcessors = context.getProcessorsTrace().getExecutedProcessors();
+    encoder.writeVarInt(executedProcessors.size());
+    for (String executedProcessor : executedProcessors) {
+      encoder.writeString(executedProcessor);
+    }
+  }
+
+  @Override
+  public DefaultEventContext decode(BinaryDecoder decoder) throws IOException {
+    int version = decoder.readByte();
+    if (version != VERSION) {
+      throw new StreamCorruptedException(format("Unsupported event context version %d", version));
+    }
+
+    String id = decoder.readString();
+    String serverId = decoder.readString();
+    String correlationId = decoder.readString();
+    ComponentLocation location = (ComponentLocation) decoder.readObject();
+    Instant receivedDate = ofEpochSecond(decoder.readSignedVarLong(), decoder.readVarInt());
+    ProcessingTime processingTime = (ProcessingTime) decoder.readObject();
+
+    DefaultEventContext context = new DefaultEventContext(id, serverId, location, correlationId, receivedDate, processingTime);
+
+    DefaultFlowCallStack flowCallStack = (DefaultFlowCallStack) context.getFlowCallStack();
+    for (int i = decoder.readVarInt(); i > 0; i--) {
+      flowCallStack.push(new FlowStackElement(decoder.readString(), decoder.readString(), decoder.readSignedVarLong()));
+    }
+
+    DefaultProcessorsTrace processorsTrace = (DefaultProcessorsTrace) context.getProcessorsTrace();
+    for (int i = decoder.readVarInt(); i > 0; i--) {
+      processorsTrace.addExecutedProcessors(decoder.readString());
+    }
+    return context;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.lang.String.format;
+import static java.util.Optional.of;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.security.SecurityContext;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.serialization.BinaryCodec;
+import org.mule.runtime.core.internal.serialization.BinaryDecoder;
+import org.mule.runtime.core.internal.serialization.BinaryEncoder;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.MuleSession;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * {@link BinaryCodec} for {@link InternalEvent}s, rebuilt through an {@link InternalEvent.Builder} when read.
+ *
+ * @since 4.2
+ */
+public final class InternalEventBinaryCodec implements BinaryCodec<InternalEvent> {
+
+  private static final int VERSION = 1;
+
+  @Override
+  public void encode(InternalEvent event, BinaryEncoder encoder) throws IOException {
+    encoder.writeByte(VERSION);
+    encoder.writeObject(event.getContext());
+    encoder.writeObject(event.getMessage());
+
+    Map<String, TypedValue<?>> variables = event.getVariables();
+    encoder.writeVarInt(variables.size());
+    for (Map.Entry<String, TypedValue<?>> variable : variables.entrySet()) {
+      encoder.writeString(variable.getKey());
+      encoder.writeObject(variable.getValue().getValue());
+      encoder.writeObject(variable.getValue().getDataType());
+    }
+
+    Map<String, ?> internalParameters = event.getInternalParameters();
+    encoder.writeVarInt(internalParameters.size());
+    for (Map.Entry<String, ?> internalParameter : internalParameters.entrySet()) {
+      encoder.writeString(internalParameter.getKey());
+      encoder.writeObject(internalParameter.getValue());
+    }
+
+    encoder.writeObject(event.getSession());
+    encoder.writeObject(event.getSecurityContext());
+    encoder.writeObject(event.getError().orElse(null));
+
+    Optional<ItemSequenceInfo> itemSequenceInfo = event.getItemSequenceInfo();
+    if (itemSequenceInfo.isPresent()) {
+      OptionalInt sequenceSize = itemSequenceInfo.get().getSequenceSize();
+      encoder.writeBoolean(true);
+      encoder.writeVarInt(itemSequenceInfo.get().getPosition());
+      encoder.writeVarInt(sequenceSize.isPresent() ? sequenceSize.getAsInt() + 1 : 0);
+    } else {
+      encoder.writeBoolean(false);
+    }
+
+    encoder.writeString(event.getLegacyCorrelationId());
+    encoder.writeBoolean(event.isNotificationsEnabled());
+  }
+
+  @Override
+  public InternalEvent decode(BinaryDecoder decoder) throws IOException {
+    int version = decoder.readByte();
+    if (version != VERSION) {
+      throw new StreamCorruptedException(format("Unsupported event version %d", version));
+    }
+
+    InternalEvent.Builder builder = InternalEvent.builder((BaseEventContext) decoder.readObject());
+    builder.message((Message) decoder.readObject());
+
+    int variablesCount = decoder.readVarInt();
+    if (variablesCount > 0) {
+      Map<String, TypedValue<?>> variables = new LinkedHashMap<>();
+      for (int i = 0; i < variablesCount; i++) {
+        variables.put(decoder.readString(), new TypedValue<>(decoder.readObject(), (DataType) decoder.readObject()));
+      }
+      builder.variables(variables);
+    }
+
+    int internalParametersCount = decoder.readVarInt();
+    if (internalParametersCount > 0) {
+      Map<String, Object> internalParameters = new LinkedHashMap<>();
+      for (int i = 0; i < internalParametersCount; i++) {
+        internalParameters.put(decoder.readString(), decoder.readObject());
+      }
+      builder.internalParameters(internalParameters);
+    }
+
+    MuleSession session = (MuleSession) decoder.readObject();
+    if (session != null) {
+      builder.session(session);
+    }
+    builder.securityContext((SecurityContext) decoder.readObject());
+    builder.error((Error) decoder.readObject());
+
+    if (decoder.readBoolean()) {
+      int position = decoder.readVarInt();
+      int sequenceSize = decoder.readVarInt() - 1;
+      builder.itemSequenceInfo(of(sequenceSize < 0 ? ItemSequenceInfo.of(position) : ItemSequenceInfo.of(position, sequenceSize)));
+    }
+
+    String legacyCorrelationId = decoder.readString();
+    if (legacyCorrelationId != null) {
+      builder.correlationId(legacyCorrelationId);
+    }
+    if (!decoder.readBoolean()) {
+      builder.disableNotifications();
+    }
+    return builder.build();
+  }
+}
@@ -8,7 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Statistics common to flows and services
@@ -18,10 +18,10 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
   private static final long serialVersionUID = 5337576392583767442L;
 
   protected final String flowConstructType;
-  protected String name;
-  protected boolean enabled = false;
-  private long samplePeriod = 0;
-  protected final AtomicLong receivedEvents = new AtomicLong(0);
+  protected volatile String name;
+  protected volatile boolean enabled = false;
+  private volatile long samplePeriod = 0;
+  protected final LongAdder receivedEvents = new LongAdder();
 
   public AbstractFlowConstructStatistics(String flowConstructType, String name) {
     this.name = name;
@@ -31,7 +31,7 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
   /**
    * Enable statistics logs (this is a dynamic parameter)
    */
-  public synchronized void setEnabled(boolean b) {
+  public void setEnabled(boolean b) {
     enabled = b;
   }
 
@@ -43,26 +43,26 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
     return enabled;
   }
 
-  public synchronized String getName() {
+  public String getName() {
     return name;
   }
 
-  public synchronized void setName(String name) {
+  public void setName(String name) {
     this.name = name;
   }
 
-  public synchronized void clear() {
-    receivedEvents.set(0);
+  public void clear() {
+    receivedEvents.reset();
     samplePeriod = System.currentTimeMillis();
   }
 
 
   public void incReceivedEvents() {
-    receivedEvents.addAndGet(1);
+    receivedEvents.increment();
   }
 
   public long getTotalEventsReceived() {
-    return receivedEvents.get();
+    return receivedEvents.sum();
   }
 
   public String getFlowConstructType() {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.message;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.message.ExceptionPayload;
+import org.mule.runtime.core.internal.serialization.BinaryCodec;
+import org.mule.runtime.core.internal.serialization.BinaryDecoder;
+import org.mule.runtime.core.internal.serialization.BinaryEncoder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@link BinaryCodec} for {@link Message}s, rebuilt through a {@link DefaultMessageBuilder} when read.
+ * <p>
+ * Messages with attachments or with a payload that is not {@link Serializable} are written with Java serialization, which knows
+ * how to handle those.
+ *
+ * @since 4.2
+ */
+public final class MessageBinaryCodec implements BinaryCodec<Message> {
+
+  private static final int BINARY_FORM = 0;
+  private static final int JAVA_FORM = 1;
+
+  @Override
+  public void encode(Message message, BinaryEncoder encoder) throws IOException {
+    if (!(message instanceof InternalMessage) || !canEncode((InternalMessage) message)) {
+      encoder.writeByte(JAVA_FORM);
+      encoder.writeFallback(message);
+      return;
+    }
+
+    InternalMessage internalMessage = (InternalMessage) message;
+    encoder.writeByte(BINARY_FORM);
+    writeTypedValue(message.getPayload(), encoder);
+    writeTypedValue(message.getAttributes(), encoder);
+    encoder.writeObject(internalMessage.getExceptionPayload());
+    writeProperties(internalMessage.getInboundPropertyNames(), internalMessage::getInboundProperty,
+                    internalMessage::getInboundPropertyDataType, encoder);
+    writeProperties(internalMessage.getOutboundPropertyNames(), internalMessage::getOutboundProperty,
+                    internalMessage::getOutboundPropertyDataType, encoder);
+  }
+
+  private boolean canEncode(InternalMessage message) {
+    Object payload = message.getPayload().getValue();
+    return (payload == null || payload instanceof Serializable)
+        && message.getInboundAttachmentNames().isEmpty()
+        && message.getOutboundAttachmentNames().isEmpty();
+  }
+
+  private void writeTypedValue(TypedValue<?> typedValue, BinaryEncoder encoder) throws IOException {
+    encoder.writeObject(typedValue.getValue());
+    encoder.writeObject(typedValue.getDataType());
+  }
+
+  private void writeProperties(Set<String> names, Function<String, Serializable> values,
+                               Function<String, DataType> dataTypes, BinaryEncoder encoder)
+      throws IOException {
+    encoder.writeVarInt(names.size());
+    for (String name : names) {
+      encoder.writeString(name);
+      encoder.writeObject(values.apply(name));
+      encoder.writeObject(dataTypes.apply(name));
+    }
+  }
+
+  @Override
+  public Message decode(BinaryDecoder decoder) throws IOException {
+    if (decoder.readByte() == JAVA_FORM) {
+      return (Message) decoder.readFallback();
+    }
+
+    DefaultMessageBuilder builder = new DefaultMessageBuilder();
+    builder.payload(readTypedValue(decoder));
+    builder.attributes(readTypedValue(decoder));
+    builder.exceptionPayload((ExceptionPayload) decoder.readObject());
+
+    for (int i = decoder.readVarInt(); i > 0; i--) {
+      builder.addInboundProperty(decoder.readString(), (Serializable) decoder.readObject(), (DataType) decoder.readObject());
+    }
+    for (int i = decoder.readVarInt(); i > 0; i--) {
+      builder.addOutboundProperty(decoder.readString(), (Serializable) decoder.readObject(), (DataType) decoder.readObject());
+    }
+    return builder.build();
+  }
+
+  private TypedValue<?> readTypedValue(BinaryDecoder decoder) throws IOException {
+    return new TypedValue<>(decoder.readObject(), (DataType) decoder.readObject());
+  }
+}
@@ -23,6 +23,7 @@ import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.internal.transformer.ResolverException;
+import org.mule.runtime.core.internal.transformer.TransformerLookupCache;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
 
 import java.nio.charset.Charset;
@@ -57,7 +58,7 @@ public class MuleRegistryHelper implements MuleRegistry {
   /**
    * We cache transformer searches so that we only search once
    */
-  protected Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap<>(8);
+  protected TransformerLookupCache exactTransformerCache = new TransformerLookupCache();
   protected Map<String, List<Transformer>> transformerListCache = new ConcurrentHashMap<>(8);
 
   private MuleContext muleContext;
@@ -138,21 +139,11 @@ public class MuleRegistryHelper implements MuleRegistry {
     //the provided, it will be found.
     result = builder(result).mediaType(ANY).charset((Charset) null).build();
 
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
-    Transformer cachedTransformer = exactTransformerCache.get(dataTypePairHash);
-    if (cachedTransformer != null) {
-      return cachedTransformer;
-    }
-
-    Transformer trans = resolveTransformer(source, result);
+    // Implicit conversions that are not possible are cached as well, so they don't go through every resolver each time
+    Transformer trans = exactTransformerCache.resolve(source, result, this::resolveTransformer);
 
     if (trans != null) {
-      Transformer concurrentlyAddedTransformer = exactTransformerCache.putIfAbsent(dataTypePairHash, trans);
-      if (concurrentlyAddedTransformer != null) {
-        return concurrentlyAddedTransformer;
-      } else {
-        return trans;
-      }
+      return trans;
     } else {
       throw new TransformerException(noTransformerFoundForMessage(source, result));
     }
@@ -267,9 +258,6 @@ public class MuleRegistryHelper implements MuleRegistry {
         transformerResolversReadLock.unlock();
       }
 
-      transformerListCache.clear();
-      exactTransformerCache.clear();
-
       Lock transformersWriteLock = transformersLock.writeLock();
       transformersWriteLock.lock();
       try {
@@ -281,6 +269,10 @@ public class MuleRegistryHelper implements MuleRegistry {
       } finally {
         transformersWriteLock.unlock();
       }
+
+      // Cleared once the transformers are updated, so that lookups that saw the previous ones don't get cached
+      transformerListCache.clear();
+      exactTransformerCache.clear();
     }
   }
 
@@ -442,6 +434,7 @@ public class MuleRegistryHelper implements MuleRegistry {
     } finally {
       lock.unlock();
     }
+    exactTransformerCache.clear();
   }
 
   /**
@@ -20,6 +20,7 @@ import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.transformer.ResolverException;
+import org.mule.runtime.core.internal.transformer.TransformerLookupCache;
 import org.mule.runtime.core.internal.transformer.graph.GraphTransformerResolver;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToByteArray;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToString;
@@ -33,8 +34,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Will discover transformers based on type information only. It looks for transformers that support the source and result types
@@ -53,7 +52,9 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
 
   private MuleContext muleContext;
 
-  protected Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap/* <String, Transformer> */(8);
+  // Missing pairs are not cached: this resolver is notified of a change before the registry updates the transformers it looks
+  // up, so a miss found in between would otherwise be kept until the next change
+  protected TransformerLookupCache exactTransformerCache = new TransformerLookupCache(false);
 
   protected TransformerResolver graphTransformerResolver = new GraphTransformerResolver();
 
@@ -78,11 +79,10 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
   }
 
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    Transformer transformer = exactTransformerCache.get(source.toString() + result.toString());
-    if (transformer != null) {
-      return transformer;
-    }
+    return exactTransformerCache.resolve(source, result, this::lookupTransformer);
+  }
 
+  private Transformer lookupTransformer(DataType source, DataType result) throws ResolverException {
     MuleRegistry registry = ((MuleContextWithRegistry) muleContext).getRegistry();
     List<Transformer> trans = registry.lookupTransformers(source, result);
 
@@ -93,7 +93,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
       trans.add(compositeTransformer);
     }
 
-    transformer = getNearestTransformerMatch(trans, source.getType(), result.getType());
+    Transformer transformer = getNearestTransformerMatch(trans, source.getType(), result.getType());
     // If an exact mach is not found, we have a 'second pass' transformer that can be used to converting to String or
     // byte[]
     Transformer secondPass;
@@ -121,9 +121,6 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
       }
     }
 
-    if (transformer != null) {
-      exactTransformerCache.put(source.toString() + result.toString(), transformer);
-    }
     return transformer;
   }
 
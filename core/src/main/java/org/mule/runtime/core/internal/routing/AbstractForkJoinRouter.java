@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.routing;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.internal.component.ComponentUtils.getFromAnnotatedObject;
 import static org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory.DIRECT_PROCESSING_STRATEGY_INSTANCE;
 import static org.mule.runtime.core.internal.util.rx.Operators.outputToTarget;
@@ -24,9 +25,11 @@ import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.privileged.processor.Router;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
@@ -49,6 +52,9 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   @Inject
   private SchedulerService schedulerService;
 
+  @Inject
+  private TimerService timerService;
+
   @Inject
   private ConfigurationComponentLocator componentLocator;
 
@@ -81,6 +87,11 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
             .onErrorStop());
   }
 
+  @Override
+  public ProcessingType getProcessingType() {
+    return forkJoinStrategyFactory != null ? forkJoinStrategyFactory.getProcessingType() : CPU_LITE;
+  }
+
   /**
    * Template method to perform any operation using the original event before processing.
    *
@@ -103,7 +114,8 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   public void initialise() throws InitialisationException {
     super.initialise();
     expressionManager = muleContext.getExpressionManager();
-    timeoutScheduler = schedulerService.cpuLightScheduler();
+    // Each route schedules its own timeout, which is cancelled as soon as the route completes
+    timeoutScheduler = timerService.timerScheduler(schedulerService.cpuLightScheduler());
     timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
     forkJoinStrategyFactory = forkJoinStrategyFactory != null ? forkJoinStrategyFactory : getDefaultForkJoinStrategyFactory();
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.routing;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.metadata.DataType.fromObject;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.internal.event.EventQuickCopy.quickCopy;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
@@ -34,6 +35,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.event.CoreEvent.Builder;
 import org.mule.runtime.core.api.processor.AbstractMessageProcessorOwner;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.outbound.EventBuilderConfigurer;
@@ -53,9 +55,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -86,6 +90,9 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
   private String rootMessageVariableName = DEFAULT_ROOT_MESSAGE_VARIABLE;
   private String counterVariableName = DEFAULT_COUNTER_VARIABLE;
+  private int maxConcurrency = 1;
+  private boolean ordered = true;
+  private Optional<ProcessingStrategy> processingStrategy;
   private MessageProcessorChain nestedChain;
 
   @Override
@@ -160,44 +167,7 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
         .transform(p -> batchSize > 1
             ? from(p).buffer(batchSize).map(list -> new TypedValue<>(list, fromObject(list)))
             : p)
-        // For each TypedValue part process the nested chain using the event from the previous part.
-        .flatMapSequential(typedValue -> {
-          EventContext parentContext = currentEvent.get().getContext();
-          BaseEventContext childContext = newChildContext(currentEvent.get(), ofNullable(getLocation()));
-
-          Builder partEventBuilder = builder(childContext, currentEvent.get());
-          if (typedValue.getValue() instanceof EventBuilderConfigurer) {
-            // Support EventBuilderConfigurer currently used by Batch Module
-            EventBuilderConfigurer configurer = (EventBuilderConfigurer) typedValue.getValue();
-            configurer.configure(partEventBuilder);
-
-            childContext.onResponse((e, t) -> {
-              configurer.eventCompleted();
-            });
-          } else if (typedValue.getValue() instanceof Message) {
-            // If value is a Message then use it directly conserving attributes and properties.
-            partEventBuilder.message((Message) typedValue.getValue());
-          } else {
-            // Otherwise create a new message
-            partEventBuilder.message(Message.builder().payload(typedValue).build());
-          }
-
-          return Mono.from(just(partEventBuilder.addVariable(counterVariableName, count.incrementAndGet()).build())
-              .transform(nestedChain)
-              .doOnNext(completeSuccessIfNeeded(childContext, true))
-              .switchIfEmpty(Mono.from(childContext.getResponsePublisher()))
-              .map(result -> quickCopy(parentContext, result))
-              .doOnNext(result -> currentEvent.set(CoreEvent.builder(result).build()))
-              .doOnError(MessagingException.class,
-                         me -> me.setProcessedEvent(quickCopy(parentContext, me.getEvent())))
-              .doOnSuccess(result -> {
-                if (result == null) {
-                  childContext.success();
-                }
-              }));
-        },
-                           // Force sequential execution of the chain for each element
-                           1)
+        .transform(parts -> processParts(parts, request, count, currentEvent))
         // This can potentially be improved but simplest way currently to determine if split results in empty
         // iterator is to check atomic count
         .switchIfEmpty(defer(() -> {
@@ -217,6 +187,61 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
         .onErrorStop();
   }
 
+  private Flux<CoreEvent> processParts(Flux<? extends TypedValue<?>> parts, CoreEvent request, AtomicInteger count,
+                                       AtomicReference<CoreEvent> currentEvent) {
+    if (maxConcurrency > 1) {
+      // Parts are processed concurrently, so each one starts from the request event instead of from the result of the previous
+      // part. Only up to maxConcurrency elements are taken from the split iterator at any time.
+      ReactiveProcessor chain = processingStrategy.map(ps -> ps.onPipeline(nestedChain)).orElse(nestedChain);
+      Function<TypedValue<?>, Publisher<CoreEvent>> partProcessor = typedValue -> processPart(typedValue, request, count, chain);
+      return (ordered ? parts.flatMapSequential(partProcessor, maxConcurrency) : parts.flatMap(partProcessor, maxConcurrency))
+          .doOnNext(result -> currentEvent.set(CoreEvent.builder(result).build()));
+    } else {
+      // For each TypedValue part process the nested chain using the event from the previous part.
+      return parts.flatMapSequential(typedValue -> processPart(typedValue, currentEvent.get(), count, nestedChain)
+          .doOnNext(result -> currentEvent.set(CoreEvent.builder(result).build())),
+                                     // Force sequential execution of the chain for each element
+                                     1);
+    }
+  }
+
+  private Mono<CoreEvent> processPart(TypedValue<?> typedValue, CoreEvent source, AtomicInteger count, ReactiveProcessor chain) {
+    EventContext parentContext = source.getContext();
+    BaseEventContext childContext = newChildContext(source, ofNullable(getLocation()));
+
+    Builder partEventBuilder = builder(childContext, source);
+    if (typedValue.getValue() instanceof EventBuilderConfigurer) {
+      // Support EventBuilderConfigurer currently used by Batch Module
+      EventBuilderConfigurer configurer = (EventBuilderConfigurer) typedValue.getValue();
+      configurer.configure(partEventBuilder);
+
+      childContext.onResponse((e, t) -> {
+        configurer.eventCompleted();
+      });
+    } else if (typedValue.getValue() instanceof Message) {
+      // If value is a Message then use it directly conserving attributes and properties.
+      partEventBuilder.message((Message) typedValue.getValue());
+    } else {
+      // Otherwise create a new message
+      partEventBuilder.message(Message.builder().payload(typedValue).build());
+    }
+
+    return Mono.from(just(partEventBuilder.addVariable(counterVariableName, count.incrementAndGet()).build())
+        .transform(chain)
+        .doOnNext(completeSuccessIfNeeded(childContext, true))
+        .switchIfEmpty(Mono.from(childContext.getResponsePublisher()))
+        .map(result -> quickCopy(parentContext, result))
+        .doOnError(MessagingException.class,
+                   me -> me.setProcessedEvent(quickCopy(parentContext, me.getEvent())))
+        .doOnSuccess(result -> {
+          if (result == null) {
+            childContext.success();
+          }
+        })
+        // A part cancelled because another one failed has to complete its context anyway
+        .doOnCancel(childContext::success));
+  }
+
   private Iterator<TypedValue<?>> splitRequest(CoreEvent request) {
     Object payloadValue = request.getMessage().getPayload().getValue();
     if (DEFAULT_SPLIT_EXPRESSION.equals(expression) && payloadValue instanceof EventBuilderConfigurerList) {
@@ -242,7 +267,7 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
 
   @Override
   public void initialise() throws InitialisationException {
-    Optional<ProcessingStrategy> processingStrategy = getProcessingStrategy(locator, getRootContainerLocation());
+    processingStrategy = getProcessingStrategy(locator, getRootContainerLocation());
     nestedChain = newChain(processingStrategy, messageProcessors);
     splittingStrategy = new ExpressionSplittingStrategy(expressionManager, expression);
     super.initialise();
@@ -256,6 +281,30 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     this.batchSize = batchSize;
   }
 
+  /**
+   * Sets the maximum number of elements to be processed concurrently. With a value of {@code 1} (the default) elements are
+   * processed sequentially, each one with the event resulting from the previous one. With a greater value each element is
+   * processed with the event received by this {@code foreach}, and the resulting event has the variables of the last element to
+   * complete (see {@link #setOrdered(boolean)}).
+   *
+   * @param maxConcurrency the maximum number of elements to process concurrently
+   * @throws IllegalArgumentException if the value is zero or less.
+   */
+  public void setMaxConcurrency(int maxConcurrency) {
+    checkArgument(maxConcurrency > 0, "Maximum concurrency must be one or more.");
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * When processing elements concurrently, defines whether the elements complete in the order of the collection (the default)
+   * or as soon as they are processed. Unordered completion does not hold finished elements back behind slower ones.
+   *
+   * @param ordered whether the elements complete in the order of the collection.
+   */
+  public void setOrdered(boolean ordered) {
+    this.ordered = ordered;
+  }
+
   public void setRootMessageVariableName(String rootMessageVariableName) {
     this.rootMessageVariableName = rootMessageVariableName;
   }
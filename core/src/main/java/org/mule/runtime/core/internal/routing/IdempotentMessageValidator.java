@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.routing;
 
 import static java.lang.String.format;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mule.runtime.api.el.BindingContextUtils.CORRELATION_ID;
@@ -26,6 +28,7 @@ import org.mule.runtime.api.component.AbstractComponent;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -39,7 +42,15 @@ import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.exception.MessagingException;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -51,12 +62,24 @@ import org.slf4j.Logger;
  * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/IdempotentReceiver.html">
  * http://www.eaipatterns.com/IdempotentReceiver.html</a>
+ * <p>
+ * When {@link #setUseBloomFilter(boolean) useBloomFilter} is enabled, ids are first looked up in an in-memory bloom filter of the
+ * ids in the store, built when the validator starts. The store is only queried for the ids the filter reports as possibly
+ * processed, and accepted ids are written to it in the background, in batches. Ids waiting to be written are kept in memory, so
+ * duplicates are still detected while they are pending.
  */
 public class IdempotentMessageValidator extends AbstractComponent
     implements Processor, MuleContextAware, Lifecycle {
 
   private static final Logger LOGGER = getLogger(IdempotentMessageValidator.class);
 
+  private static final int BLOOM_FILTER_INITIAL_CAPACITY = 100_000;
+  private static final double BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
+  private static final int REBUILD_MIN_FALSE_POSITIVES = 1000;
+  private static final double REBUILD_FALSE_POSITIVE_RATE = BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY * 5;
+  private static final int MAX_PENDING_WRITES = 10_000;
+  private static final long WRITE_RETRY_DELAY_MILLIS = 1000;
+
   protected MuleContext muleContext;
 
   protected volatile ObjectStore<String> store;
@@ -66,6 +89,22 @@ public class IdempotentMessageValidator extends AbstractComponent
   protected String idExpression = format("%s%s%s", DEFAULT_EXPRESSION_PREFIX, CORRELATION_ID, DEFAULT_EXPRESSION_POSTFIX);
   protected String valueExpression = format("%s%s%s", DEFAULT_EXPRESSION_PREFIX, CORRELATION_ID, DEFAULT_EXPRESSION_POSTFIX);
 
+  private boolean useBloomFilter = false;
+  private volatile ScalableBloomFilter bloomFilter;
+  private volatile Scheduler writerScheduler;
+  private final Map<String, String> pendingWrites = new ConcurrentHashMap<>();
+  private final Deque<String> writeQueue = new ConcurrentLinkedDeque<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+  private final Object bloomFilterLock = new Object();
+  private long lookupsAtRebuild;
+  private long falsePositivesAtRebuild;
+
+  private final LongAdder storeContainsCount = new LongAdder();
+  private final LongAdder storeWriteCount = new LongAdder();
+  private final LongAdder filterLookupCount = new LongAdder();
+  private final LongAdder filterFalsePositiveCount = new LongAdder();
+  private final IdempotentValidationStatistics statistics = new Statistics();
+
   @Override
   public void setMuleContext(MuleContext context) {
     this.muleContext = context;
@@ -100,10 +139,22 @@ public class IdempotentMessageValidator extends AbstractComponent
   @Override
   public void start() throws MuleException {
     startIfNeeded(store);
+    if (useBloomFilter) {
+      bloomFilter = buildBloomFilter();
+      writerScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName(storePrefix + ".writer"));
+    }
   }
 
   @Override
   public void stop() throws MuleException {
+    if (writerScheduler != null) {
+      // Validate synchronously from now on, and make sure every accepted id is written before the store is stopped
+      bloomFilter = null;
+      flushPendingWrites();
+      writerScheduler.stop();
+      writerScheduler = null;
+    }
     stopIfNeeded(store);
   }
 
@@ -121,6 +172,16 @@ public class IdempotentMessageValidator extends AbstractComponent
         .build());
   }
 
+  private ScalableBloomFilter buildBloomFilter() throws ObjectStoreException {
+    List<String> keys = store.allKeys();
+    ScalableBloomFilter filter =
+        new ScalableBloomFilter(max(BLOOM_FILTER_INITIAL_CAPACITY, keys.size() * 2), BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY);
+    keys.forEach(filter::put);
+    lookupsAtRebuild = filterLookupCount.sum();
+    falsePositivesAtRebuild = filterFalsePositiveCount.sum();
+    return filter;
+  }
+
   protected String getValueForEvent(CoreEvent event) throws MessagingException {
     return (String) muleContext.getExpressionManager().evaluate(valueExpression, STRING, NULL_BINDING_CONTEXT, event).getValue();
   }
@@ -146,12 +207,21 @@ public class IdempotentMessageValidator extends AbstractComponent
   }
 
   private boolean accept(CoreEvent event) {
-    if (event != null && isNewMessage(event)) {
+    if (event != null && bloomFilter != null && pendingWrites.size() < MAX_PENDING_WRITES) {
+      return acceptWithBloomFilter(event);
+    } else if (event != null && isNewMessage(event)) {
       try {
         String id = getIdForEvent(event);
         String value = getValueForEvent(event);
+        // The id is pending while it is written, so the same id being accepted with the bloom filter concurrently is detected
+        if (pendingWrites.putIfAbsent(id, value) != null) {
+          return false;
+        }
         try {
+          storeWriteCount.increment();
           store.store(id, value);
+          // Before it stops being pending, so that acceptance with the bloom filter detects it once it is back in use
+          addToBloomFilter(id);
           return true;
         } catch (ObjectAlreadyExistsException ex) {
           return false;
@@ -161,6 +231,8 @@ public class IdempotentMessageValidator extends AbstractComponent
         } catch (ObjectStoreException e) {
           LOGGER.warn("ObjectStore exception: " + e.getMessage());
           return false;
+        } finally {
+          pendingWrites.remove(id);
         }
       } catch (MuleException e) {
         LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
@@ -171,6 +243,143 @@ public class IdempotentMessageValidator extends AbstractComponent
     }
   }
 
+  private boolean acceptWithBloomFilter(CoreEvent event) {
+    String id;
+    String value;
+    try {
+      id = getIdForEvent(event);
+      value = getValueForEvent(event);
+    } catch (MuleException e) {
+      LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
+      return false;
+    }
+
+    try {
+      if (pendingWrites.containsKey(id) || isStored(id) || pendingWrites.putIfAbsent(id, value) != null) {
+        return false;
+      }
+      // The id is added to the filter before it stops being pending, so this catches an id written after it was looked up
+      if (isStored(id)) {
+        pendingWrites.remove(id);
+        return false;
+      }
+    } catch (ObjectStoreNotAvailableException e) {
+      LOGGER.error("ObjectStore not available: " + e.getMessage());
+      return false;
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("ObjectStore exception: " + e.getMessage());
+      return false;
+    }
+
+    writeQueue.add(id);
+    scheduleFlush();
+    return true;
+  }
+
+  private boolean isStored(String id) throws ObjectStoreException {
+    ScalableBloomFilter filter = bloomFilter;
+    if (filter == null) {
+      storeContainsCount.increment();
+      return store.contains(id);
+    }
+
+    filterLookupCount.increment();
+    if (!filter.mightContain(id)) {
+      return false;
+    }
+    storeContainsCount.increment();
+    if (store.contains(id)) {
+      return true;
+    }
+    filterFalsePositiveCount.increment();
+    return false;
+  }
+
+  private void scheduleFlush() {
+    if (flushScheduled.compareAndSet(false, true)) {
+      Scheduler scheduler = writerScheduler;
+      if (scheduler == null) {
+        // The validator is being stopped
+        flushPendingWrites();
+        return;
+      }
+      try {
+        scheduler.submit(this::flushPendingWrites);
+      } catch (RejectedExecutionException e) {
+        flushPendingWrites();
+      }
+    }
+  }
+
+  /**
+   * Adds a written id to the bloom filter, if there is one. Ids are written both by the writer and synchronously once too many
+   * are pending, so this is serialized, as {@link ScalableBloomFilter} allows only one thread to add to it.
+   */
+  private void addToBloomFilter(String id) {
+    if (bloomFilter == null) {
+      return;
+    }
+    synchronized (bloomFilterLock) {
+      ScalableBloomFilter filter = bloomFilter;
+      if (filter != null) {
+        filter.put(id);
+      }
+    }
+  }
+
+  /**
+   * Writes the pending ids to the store. Only one thread flushes at a time.
+   */
+  private synchronized void flushPendingWrites() {
+    flushScheduled.set(false);
+    String id;
+    while ((id = writeQueue.poll()) != null) {
+      try {
+        storeWriteCount.increment();
+        store.store(id, pendingWrites.get(id));
+      } catch (ObjectAlreadyExistsException e) {
+        // Nothing to do, it is already there
+      } catch (ObjectStoreException e) {
+        LOGGER.warn("ObjectStore exception, retrying in " + WRITE_RETRY_DELAY_MILLIS + " ms: " + e.getMessage());
+        writeQueue.addFirst(id);
+        Scheduler scheduler = writerScheduler;
+        if (scheduler != null && bloomFilter != null) {
+          scheduler.schedule(this::scheduleFlush, WRITE_RETRY_DELAY_MILLIS, MILLISECONDS);
+        }
+        return;
+      }
+
+      addToBloomFilter(id);
+      pendingWrites.remove(id);
+    }
+
+    rebuildBloomFilterIfNeeded();
+  }
+
+  /**
+   * Ids that expire from the store are not removed from the filter, so it is rebuilt when its false positives are well above the
+   * expected rate.
+   */
+  private void rebuildBloomFilterIfNeeded() {
+    if (bloomFilter == null) {
+      return;
+    }
+
+    long falsePositives = filterFalsePositiveCount.sum() - falsePositivesAtRebuild;
+    long lookups = filterLookupCount.sum() - lookupsAtRebuild;
+    if (falsePositives >= REBUILD_MIN_FALSE_POSITIVES && falsePositives > lookups * REBUILD_FALSE_POSITIVE_RATE) {
+      // Pending ids are not written while rebuilding and the ids written synchronously are added holding the same lock, so the
+      // new filter is missing none of the written ones
+      synchronized (bloomFilterLock) {
+        try {
+          bloomFilter = buildBloomFilter();
+        } catch (ObjectStoreException e) {
+          LOGGER.warn("Could not rebuild the bloom filter: " + e.getMessage());
+        }
+      }
+    }
+  }
+
   @Override
   public final CoreEvent process(CoreEvent event) throws MuleException {
     if (accept(event)) {
@@ -188,7 +397,9 @@ public class IdempotentMessageValidator extends AbstractComponent
           initialise();
         }
       }
-      return !store.contains(id);
+      storeContainsCount.increment();
+      // Ids accepted with the bloom filter may still be waiting to be written
+      return !pendingWrites.containsKey(id) && !store.contains(id);
     } catch (MuleException e) {
       LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
           + " from the connector "
@@ -212,4 +423,53 @@ public class IdempotentMessageValidator extends AbstractComponent
   public void setPrivateObjectStore(ObjectStore<String> privateStore) {
     this.privateStore = privateStore;
   }
+
+  /**
+   * Enables the bloom filter, which avoids querying the store for new ids and moves the writes to the store out of the
+   * processing of the events.
+   * <p>
+   * Ids written to the store by anything other than this validator after it started are not known to the filter, so this must
+   * not be enabled when the store is shared with other validators, for instance with the ones in other nodes of a cluster.
+   * Accepted ids are written to the store asynchronously, so they are lost if the runtime stops abruptly before they are.
+   *
+   * @param useBloomFilter whether to look up ids in a bloom filter before querying the store
+   */
+  public void setUseBloomFilter(boolean useBloomFilter) {
+    this.useBloomFilter = useBloomFilter;
+  }
+
+  /**
+   * @return the statistics of the store accesses and the bloom filter of this validator
+   */
+  public IdempotentValidationStatistics getStatistics() {
+    return statistics;
+  }
+
+  private final class Statistics implements IdempotentValidationStatistics {
+
+    @Override
+    public long getStoreContainsCount() {
+      return storeContainsCount.sum();
+    }
+
+    @Override
+    public long getStoreWriteCount() {
+      return storeWriteCount.sum();
+    }
+
+    @Override
+    public long getFilterLookupCount() {
+      return filterLookupCount.sum();
+    }
+
+    @Override
+    public long getFilterFalsePositiveCount() {
+      return filterFalsePositiveCount.sum();
+    }
+
+    @Override
+    public int getPendingWriteCount() {
+      return pendingWrites.size();
+    }
+  }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+/**
+ * Statistics of an {@link IdempotentMessageValidator}, meant to help assessing the cost of its object store and the accuracy of
+ * its bloom filter.
+ *
+ * @since 4.2
+ */
+public interface IdempotentValidationStatistics {
+
+  /**
+   * @return the number of times the object store was queried for an id
+   */
+  long getStoreContainsCount();
+
+  /**
+   * @return the number of ids written to the object store
+   */
+  long getStoreWriteCount();
+
+  /**
+   * @return the number of ids looked up in the bloom filter
+   */
+  long getFilterLookupCount();
+
+  /**
+   * @return the number of ids the bloom filter reported as possibly processed that were not in the object store
+   */
+  long getFilterFalsePositiveCount();
+
+  /**
+   * @return the ratio of lookups in the bloom filter which were false positives, or {@code 0} if there were no lookups
+   */
+  default double getFilterFalsePositiveRate() {
+    long lookups = getFilterLookupCount();
+    return lookups == 0 ? 0 : (double) getFilterFalsePositiveCount() / lookups;
+  }
+
+  /**
+   * @return the number of accepted ids waiting to be written to the object store
+   */
+  int getPendingWriteCount();
+}
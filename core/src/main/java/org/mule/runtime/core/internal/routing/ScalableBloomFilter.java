@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of {@link String}s that grows as keys are added, keeping its false positive probability bounded.
+ * <p>
+ * Keys are added to the last of a series of filters. Once it reaches its capacity a new one is added, with twice the capacity
+ * and half the false positive probability of the previous one, so the compound probability stays around the one given on
+ * construction however many keys are added.
+ * <p>
+ * Keys may be looked up concurrently with additions, but keys must be added by a single thread at a time.
+ *
+ * @since 4.2
+ */
+final class ScalableBloomFilter {
+
+  private static final double LN2 = log(2);
+
+  private volatile Layer[] layers;
+  private int size;
+
+  /**
+   * Creates a new instance
+   *
+   * @param initialCapacity the number of keys the filter may hold before growing
+   * @param falsePositiveProbability the expected probability of {@link #mightContain(String)} returning {@code true} for a key
+   *        that was not added
+   */
+  ScalableBloomFilter(int initialCapacity, double falsePositiveProbability) {
+    checkArgument(initialCapacity > 0, "initialCapacity must be greater than 0");
+    checkArgument(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+                  "falsePositiveProbability must be between 0 and 1");
+    layers = new Layer[] {new Layer(initialCapacity, falsePositiveProbability / 2)};
+  }
+
+  /**
+   * @param key the key to look up
+   * @return {@code false} if {@code key} was definitely not added, {@code true} if it may have been
+   */
+  boolean mightContain(String key) {
+    long hash = hash(key);
+    for (Layer layer : layers) {
+      if (layer.mightContain(hash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param key the key to add
+   */
+  void put(String key) {
+    long hash = hash(key);
+    Layer[] current = layers;
+    Layer last = current[current.length - 1];
+    if (last.isFull()) {
+      last = new Layer(last.capacity * 2, last.falsePositiveProbability / 2);
+      current = copyOf(current, current.length + 1);
+      current[current.length - 1] = last;
+      layers = current;
+    }
+    last.put(hash);
+    size++;
+  }
+
+  /**
+   * @return the number of keys added to this filter
+   */
+  int size() {
+    return size;
+  }
+
+  private static long hash(String key) {
+    // FNV-1a over the chars, followed by the murmur3 finalizer to spread the bits evenly
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private static final class Layer {
+
+    private final int capacity;
+    private final double falsePositiveProbability;
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+    private int size;
+
+    private Layer(int capacity, double falsePositiveProbability) {
+      this.capacity = capacity;
+      this.falsePositiveProbability = falsePositiveProbability;
+      long optimalBits = (long) ceil(-capacity * log(falsePositiveProbability) / (LN2 * LN2));
+      bits = new AtomicLongArray((int) ((optimalBits + 63) >>> 6));
+      numBits = bits.length() * 64L;
+      numHashes = max(1, (int) round((double) numBits / capacity * LN2));
+    }
+
+    private boolean isFull() {
+      return size >= capacity;
+    }
+
+    private boolean mightContain(long hash) {
+      long hash1 = (int) hash;
+      long hash2 = hash >>> 32;
+      for (int i = 1; i <= numHashes; i++) {
+        long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % numBits;
+        if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void put(long hash) {
+      long hash1 = (int) hash;
+      long hash2 = hash >>> 32;
+      for (int i = 1; i <= numHashes; i++) {
+        long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % numBits;
+        int index = (int) (bit >>> 6);
+        // Only one thread adds keys, so there is no need to retry here
+        bits.set(index, bits.get(index) | (1L << bit));
+      }
+      size++;
+    }
+  }
+}
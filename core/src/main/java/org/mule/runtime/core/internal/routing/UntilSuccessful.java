@@ -28,6 +28,7 @@ import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
@@ -55,6 +56,9 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Inject
   private SchedulerService schedulerService;
 
+  @Inject
+  private TimerService timerService;
+
   private int maxRetries = DEFAULT_RETRIES;
   private Long millisBetweenRetries = DEFAULT_MILLIS_BETWEEN_RETRIES;
   private MessageProcessorChain nestedChain;
@@ -71,7 +75,8 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     }
     this.nestedChain = newChain(getProcessingStrategy(locator, getRootContainerLocation()), processors);
     super.initialise();
-    timer = schedulerService.cpuLightScheduler();
+    // Lots of events may be waiting for a retry at the same time, so the delays are kept track of by the shared timer
+    timer = timerService.timerScheduler(schedulerService.cpuLightScheduler());
     policyTemplate =
         maxRetries != 0 ? new SimpleRetryPolicyTemplate(millisBetweenRetries, maxRetries) : new NoRetryPolicyTemplate();
     shouldRetry = event -> event.getError().isPresent();
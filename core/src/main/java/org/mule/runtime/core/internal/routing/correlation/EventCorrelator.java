@@ -7,10 +7,12 @@
 package org.mule.runtime.core.internal.routing.correlation;
 
 import static java.lang.String.format;
+import static java.lang.Runtime.getRuntime;
 import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.notification.RoutingNotification.CORRELATION_TIMEOUT;
 import static org.mule.runtime.api.notification.RoutingNotification.MISSED_AGGREGATION_GROUP_EVENT;
@@ -43,18 +45,28 @@ import org.mule.runtime.core.api.util.StringMessageUtils;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.EventGroup;
+import org.mule.runtime.core.internal.time.DefaultTimerService;
+import org.mule.runtime.core.internal.time.Timeout;
+import org.mule.runtime.core.internal.time.TimerService;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
 import org.mule.runtime.core.privileged.routing.RoutingException;
 import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
 import org.mule.runtime.core.privileged.util.monitor.Expirable;
 import org.mule.runtime.core.privileged.util.monitor.ExpiryMonitor;
 
+import com.google.common.util.concurrent.Striped;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
 
 public class EventCorrelator implements Startable, Stoppable {
 
@@ -66,12 +78,26 @@ public class EventCorrelator implements Startable, Stoppable {
   public static final String NO_CORRELATION_ID = "no-id";
 
   private static final long DELAY_TIME = 10;
+  private static final long RECONCILE_INTERVAL = SECONDS.toMillis(1);
 
-  protected final Object groupsLock = new Object();
+  /**
+   * Events for the same group are evaluated by one thread at a time, while events of different groups may be processed
+   * concurrently.
+   */
+  private final Striped<Lock> groupLocks = Striped.lock(getRuntime().availableProcessors() * 16);
 
-  // @GuardedBy groupsLock
   protected ObjectStore<Long> processedGroups = null;
 
+  /**
+   * Timeouts of the groups in the store. Groups are scheduled when created by this correlator and, to account for the ones
+   * recovered from a persistent store or created by another node, by a periodic reconciliation with the store's keys. Once due,
+   * they are queued for the expiring group monitor to process.
+   */
+  private TimerService timerService;
+  private DefaultTimerService ownTimerService;
+  private final Map<String, Timeout> groupTimeouts = new ConcurrentHashMap<>();
+  private final Queue<String> dueGroups = new ConcurrentLinkedQueue<>();
+
   private long timeout = -1; // undefined
 
   private boolean failOnTimeout = true;
@@ -110,9 +136,14 @@ public class EventCorrelator implements Startable, Stoppable {
     this.muleContext = muleContext;
     try {
       this.notificationFirer = ((MuleContextWithRegistry) muleContext).getRegistry().lookupObject(NotificationDispatcher.class);
+      this.timerService = ((MuleContextWithRegistry) muleContext).getRegistry().lookupObject(TimerService.class);
     } catch (RegistrationException e) {
       throw new MuleRuntimeException(e);
     }
+    if (timerService == null) {
+      ownTimerService = new DefaultTimerService(muleContext.getSchedulerService(), muleContext.getSchedulerBaseConfig());
+      timerService = ownTimerService;
+    }
     this.timeoutMessageProcessor = timeoutMessageProcessor;
     name = format("%s.event.correlator", flowConstruct.getName());
     this.flowConstruct = flowConstruct;
@@ -185,10 +216,13 @@ public class EventCorrelator implements Startable, Stoppable {
         } catch (ObjectStoreException e) {
           throw new RoutingException(timeoutMessageProcessor, e);
         }
+        scheduleExpiry(group);
       }
 
       // ensure that only one thread at a time evaluates this EventGroup
-      synchronized (groupsLock) {
+      Lock groupLock = groupLocks.get(groupId);
+      groupLock.lock();
+      try {
         if (logger.isDebugEnabled()) {
           logger.debug("Adding event to aggregator group: " + groupId);
         }
@@ -228,6 +262,8 @@ public class EventCorrelator implements Startable, Stoppable {
         } else {
           return null;
         }
+      } finally {
+        groupLock.unlock();
       }
     }
   }
@@ -260,24 +296,45 @@ public class EventCorrelator implements Startable, Stoppable {
 
   protected void removeEventGroup(EventGroup group) throws ObjectStoreException {
     final Object groupId = group.getGroupId();
-    synchronized (groupsLock) {
+    Lock groupLock = groupLocks.get(groupId);
+    groupLock.lock();
+    try {
       if (!isGroupAlreadyProcessed(groupId)) {
         correlatorStore.remove((String) groupId, getEventGroupsPartitionKey());
         addProcessedGroup(groupId);
       }
+    } finally {
+      groupLock.unlock();
+    }
+    Timeout groupTimeout = groupTimeouts.remove(groupId);
+    if (groupTimeout != null) {
+      groupTimeout.cancel();
     }
   }
 
   protected void addProcessedGroup(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
-      processedGroups.store((String) id, currentTimeMillis());
-    }
+    processedGroups.store((String) id, currentTimeMillis());
   }
 
   protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
-      return processedGroups.contains((String) id);
+    return processedGroups.contains((String) id);
+  }
+
+  private void scheduleExpiry(EventGroup group) {
+    // Groups never expire without a timeout, as the expiring group monitor is not even started
+    if (!isExpiryMonitored()) {
+      return;
     }
+    groupTimeouts.computeIfAbsent((String) group.getGroupId(),
+                                  groupId -> scheduleTimeout(groupId, group.getCreated() + getTimeout()));
+  }
+
+  private Timeout scheduleTimeout(String groupId, long deadline) {
+    return timerService.newTimeout(() -> dueGroups.add(groupId), deadline - currentTimeMillis(), MILLISECONDS);
+  }
+
+  private boolean isExpiryMonitored() {
+    return timeout != 0;
   }
 
   public boolean isFailOnTimeout() {
@@ -353,7 +410,10 @@ public class EventCorrelator implements Startable, Stoppable {
   @Override
   public void start() throws MuleException {
     logger.info("Starting event correlator: " + name);
-    if (timeout != 0) {
+    if (isExpiryMonitored()) {
+      if (ownTimerService != null) {
+        ownTimerService.initialise();
+      }
       scheduler = muleContext.getSchedulerService().customScheduler(muleContext.getSchedulerBaseConfig().withName(name)
           .withMaxConcurrentTasks(1).withShutdownTimeout(0, MILLISECONDS));
       expiringGroupRunnable = new ExpiringGroupMonitoringRunnable();
@@ -371,11 +431,15 @@ public class EventCorrelator implements Startable, Stoppable {
       expiringGroupRunnable.dispose();
       expiringGroupRunnable = null;
     }
+    if (ownTimerService != null) {
+      ownTimerService.dispose();
+    }
   }
 
   private final class ExpiringGroupMonitoringRunnable implements Runnable, Expirable, Disposable {
 
     private ExpiryMonitor expiryMonitor;
+    private long nextReconciliation = 0;
 
     public ExpiringGroupMonitoringRunnable() {
       this.expiryMonitor = new ExpiryMonitor(name, MINUTES.toMillis(1), muleContext, true);
@@ -406,17 +470,35 @@ public class EventCorrelator implements Startable, Stoppable {
       //// TODO(pablo.kraan): is not good to have threads doing nothing in all the nodes but the primary. Need to
       //// start the thread on the primary node only, and then use a notification schema to start a new thread
       //// in a different node when the primary goes down.
+      final long now = currentTimeMillis();
+      final List<String> due = new ArrayList<>();
+      String dueGroup;
+      while ((dueGroup = dueGroups.poll()) != null) {
+        due.add(dueGroup);
+      }
       if (!muleContext.isPrimaryPollingInstance()) {
+        // the groups will be scheduled again by the reconciliation if this node becomes the primary one
+        due.forEach(groupTimeouts::remove);
+        nextReconciliation = 0;
         return;
       }
 
       List<EventGroup> expired = new ArrayList<>(1);
       try {
-        for (String o : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
-          EventGroup group = getEventGroup(o);
-          // group may have been removed by another thread right after eventGroups.allKeys()
-          if (group != null && group.getCreated() + getTimeout() < currentTimeMillis()) {
+        if (now >= nextReconciliation) {
+          reconcile();
+          nextReconciliation = now + RECONCILE_INTERVAL;
+        }
+
+        for (String groupId : due) {
+          EventGroup group = getEventGroup(groupId);
+          // group may have been removed by another thread after being scheduled
+          if (group == null) {
+            groupTimeouts.remove(groupId);
+          } else if (group.getCreated() + getTimeout() < now) {
             expired.add(group);
+          } else {
+            groupTimeouts.put(groupId, scheduleTimeout(groupId, group.getCreated() + getTimeout()));
           }
         }
       } catch (ObjectStoreException e) {
@@ -433,6 +515,21 @@ public class EventCorrelator implements Startable, Stoppable {
       }
     }
 
+    /**
+     * Schedules the groups in the store that are not tracked yet.
+     */
+    private void reconcile() throws ObjectStoreException {
+      for (String groupId : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
+        if (!groupTimeouts.containsKey(groupId)) {
+          EventGroup group = getEventGroup(groupId);
+          // group may have been removed by another thread right after eventGroups.allKeys()
+          if (group != null) {
+            scheduleExpiry(group);
+          }
+        }
+      }
+    }
+
     @Override
     public void dispose() {
       if (expiryMonitor != null) {
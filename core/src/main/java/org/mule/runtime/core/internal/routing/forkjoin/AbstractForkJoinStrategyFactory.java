@@ -7,6 +7,7 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
+import static java.lang.Long.MAX_VALUE;
 import static java.time.Duration.ofMillis;
 import static java.util.Optional.empty;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
@@ -50,6 +51,7 @@ import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
 import org.mule.runtime.core.privileged.routing.RoutingResult;
 
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -73,13 +75,9 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
     reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
     return (original, routingPairs) -> {
-      final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
-      return from(routingPairs)
-          .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
-                                              timeoutErrorType),
-                             maxConcurrency)
+      return forkRoutes(routingPairs, processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
+                        timeoutErrorType)
           .collectList()
           .doOnNext(list -> {
             if (list.stream().anyMatch(event -> event.getError().isPresent())) {
@@ -102,21 +100,37 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
-  private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
+  /**
+   * Processes the given routing pairs subject to {@code maxConcurrency}, emitting the result event of each route in the order of
+   * the routing pairs. When {@code delayErrors} is {@code true}, failed routes emit an event with the error instead of an error
+   * signal.
+   */
+  static Flux<CoreEvent> forkRoutes(Publisher<RoutingPair> routingPairs, ProcessingStrategy processingStrategy,
+                                    int maxConcurrency, boolean delayErrors, long timeout,
+                                    reactor.core.scheduler.Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    final AtomicInteger count = new AtomicInteger();
+    return from(routingPairs)
+        .map(addSequence(count))
+        .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler,
+                                            timeoutErrorType),
+                           maxConcurrency);
+  }
+
+  private static Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
         .build(), pair.getRoute());
   }
 
-  private Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
-                                                                                 int maxConcurrency,
-                                                                                 boolean delayErrors, long timeout,
-                                                                                 reactor.core.scheduler.Scheduler timeoutScheduler,
-                                                                                 ErrorType timeoutErrorType) {
+  private static Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(
+      ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors, long timeout,
+      reactor.core.scheduler.Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
 
     return pair -> {
-      ReactiveProcessor route = publisher -> from(publisher)
-          .transform(pair.getRoute())
-          .timeout(ofMillis(timeout), onTimeout(processingStrategy, delayErrors, timeoutErrorType, pair), timeoutScheduler);
+      ReactiveProcessor route = timeout == MAX_VALUE
+          ? pair.getRoute()
+          : publisher -> from(publisher)
+              .transform(pair.getRoute())
+              .timeout(ofMillis(timeout), onTimeout(processingStrategy, delayErrors, timeoutErrorType, pair), timeoutScheduler);
       return from(processWithChildContext(pair.getEvent(),
                                           applyProcessingStrategy(processingStrategy, route, maxConcurrency), empty()))
                                               .onErrorResume(MessagingException.class,
@@ -124,16 +138,16 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
-                                    RoutingPair pair) {
+  private static Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors,
+                                           ErrorType timeoutErrorType, RoutingPair pair) {
     return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
         : error(new TimeoutException(TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX + " '"
             + pair.getEvent().getGroupCorrelation().get().getSequence() + "'")))
                 .transform(processingStrategy.onPipeline(p -> p));
   }
 
-  private ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
-                                                    int maxConcurrency) {
+  private static ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
+                                                           int maxConcurrency) {
     if (maxConcurrency > 1) {
       return processingStrategy.onPipeline(processor);
     } else {
@@ -141,7 +155,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     }
   }
 
-  private CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
+  private static CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
     return builder(pair.getEvent()).message(Message.of(null))
         .error(ErrorBuilder.builder().errorType(timeoutErrorType)
             .exception(new TimeoutException()).description(TIMEOUT_EXCEPTION_DESCRIPTION)
@@ -151,7 +165,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         .build();
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
+  static CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
 
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Math.min;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.CURSOR_ITERATOR_PROVIDER;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig.getDefault;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.createCompositeRoutingException;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.forkRoutes;
+import static reactor.core.publisher.Flux.defer;
+import static reactor.core.publisher.Mono.fromCallable;
+
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.streaming.object.InMemoryCursorIteratorProvider;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.inject.Inject;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ForkJoinStrategy} that:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency}.
+ * <li>Emits the result event right away, without waiting for the routes to complete.
+ * <li>Streams the results into a result {@link CoreEvent} with a repeatable {@link CursorIteratorProvider} payload of
+ * {@link Message}s, in the order of the routes. Iterating it blocks until the result of the next route is available.
+ * <li>Does not merge variables, since the result event is emitted before any route completes.
+ * <li>When delaying errors, processes all routes regardless of errors, and the iteration fails with a composite exception once
+ * all successful results have been consumed.
+ * </ul>
+ * Only a bounded number of results is held until consumed, and routes that have not started are not processed until there is
+ * room for their results. Consumed results are kept as configured by the {@link InMemoryCursorIteratorConfig}, so that they can
+ * be iterated again.
+ * <p>
+ * Since iterating the results blocks, routers using this strategy are {@link ProcessingType#BLOCKING}, so that the result event
+ * is emitted on, and consumed by the processors that follow on, a thread of the blocking scheduler of the flow's
+ * {@link ProcessingStrategy}. Consuming it on a {@code CPU_LITE} thread instead, for instance after a processor that switches
+ * back to one, could leave no thread available to process the routes.
+ *
+ * @since 4.2
+ */
+public class CollectStreamForkJoinStrategyFactory implements ForkJoinStrategyFactory {
+
+  private static final int MAX_PENDING_RESULTS = 256;
+
+  @Inject
+  private StreamingManager streamingManager;
+
+  private final InMemoryCursorIteratorConfig config;
+
+  public CollectStreamForkJoinStrategyFactory() {
+    this(getDefault());
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param config the configuration of the buffer that holds the consumed results
+   */
+  public CollectStreamForkJoinStrategyFactory(InMemoryCursorIteratorConfig config) {
+    this.config = config;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    return (original, routingPairs) -> fromCallable(() -> {
+      Flux<CoreEvent> results = forkRoutes(routingPairs, processingStrategy, maxConcurrency, delayErrors, timeout,
+                                           reactorTimeoutScheduler, timeoutErrorType);
+      RouteResultsIterator iterator = new RouteResultsIterator(toMessages(results), min(maxConcurrency, MAX_PENDING_RESULTS));
+
+      Object payload = streamingManager != null
+          ? streamingManager.forObjects().getInMemoryCursorProviderFactory(config).of(original.getContext(), iterator)
+          : new InMemoryCursorIteratorProvider(iterator, config);
+      return builder(original).message(of(payload)).build();
+    });
+  }
+
+  private Flux<Message> toMessages(Flux<CoreEvent> results) {
+    return defer(() -> {
+      List<CoreEvent> failed = new ArrayList<>();
+      return results
+          .filter(event -> {
+            if (event.getError().isPresent()) {
+              failed.add(event);
+              return false;
+            }
+            return true;
+          })
+          .map(CoreEvent::getMessage)
+          .concatWith(defer(() -> failed.isEmpty()
+              ? Flux.<Message>empty()
+              : Flux.<Message>error(createCompositeRoutingException(failed))));
+    });
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return CURSOR_ITERATOR_PROVIDER;
+  }
+
+  @Override
+  public ProcessingType getProcessingType() {
+    return BLOCKING;
+  }
+
+  /**
+   * Blocking {@link Iterator} over the results of the routes, which only requests as many results as it can hold. Closing it
+   * cancels the processing of the routes that have not completed.
+   */
+  private static final class RouteResultsIterator implements Iterator<Message>, Closeable {
+
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+    private final Iterator<Message> delegate;
+
+    private RouteResultsIterator(Flux<Message> results, int prefetch) {
+      delegate = results.doOnSubscribe(subscription::set).toIterable(prefetch).iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public Message next() {
+      return delegate.next();
+    }
+
+    @Override
+    public void close() {
+      Subscription current = subscription.getAndSet(null);
+      if (current != null) {
+        current.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads instances of a given type for the {@link BinarySerializationProtocol}.
+ * <p>
+ * Implementations must keep the format they write readable by later versions, since it may be persisted. A common way to do so is
+ * to start with a version byte and only append fields in later versions.
+ *
+ * @param <T> the type of the values handled by this codec
+ * @since 4.2
+ */
+public interface BinaryCodec<T> {
+
+  /**
+   * Writes the given {@code value}
+   *
+   * @param value the value to write. Never {@code null}
+   * @param encoder the encoder to write to
+   * @throws IOException if the value cannot be written
+   */
+  void encode(T value, BinaryEncoder encoder) throws IOException;
+
+  /**
+   * Reads a value previously written by {@link #encode(Object, BinaryEncoder)}
+   *
+   * @param decoder the decoder to read from
+   * @return the read value
+   * @throws IOException if the value cannot be read
+   */
+  T decode(BinaryDecoder decoder) throws IOException;
+}
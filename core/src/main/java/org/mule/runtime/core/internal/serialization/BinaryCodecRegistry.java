@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the {@link BinaryCodec}s known by a {@link BinarySerializationProtocol}, each one identified by a numeric id that is
+ * written instead of the name of the class of the value.
+ * <p>
+ * A codec may be registered either for an exact type or for a type and all its subtypes. The first is checked before the
+ * latter, and the codec resolved for each concrete class is cached.
+ *
+ * @since 4.2
+ */
+public final class BinaryCodecRegistry {
+
+  /**
+   * Id written for {@code null} values.
+   */
+  static final int NULL_ID = 0;
+
+  /**
+   * Id written for values without a codec, which are written with Java serialization.
+   */
+  static final int JAVA_ID = 1;
+
+  /**
+   * Ids lower than this one are reserved for the codecs of the Mule Runtime.
+   */
+  public static final int FIRST_CUSTOM_ID = 128;
+
+  private static final Registration NO_CODEC = new Registration(JAVA_ID, Object.class, null);
+
+  private final Map<Class<?>, Registration> exactTypes = new ConcurrentHashMap<>();
+  private final List<Registration> hierarchies = new CopyOnWriteArrayList<>();
+  private final Map<Class<?>, Registration> resolved = new ConcurrentHashMap<>();
+  private volatile Registration[] ids = new Registration[FIRST_CUSTOM_ID];
+
+  /**
+   * Registers a codec for values of exactly the given {@code type}
+   *
+   * @param id the id of the codec, greater than {@link #JAVA_ID}
+   * @param type the type of the values
+   * @param codec the codec to use
+   */
+  public <T> void register(int id, Class<T> type, BinaryCodec<? super T> codec) {
+    Registration registration = addId(id, type, codec);
+    exactTypes.put(type, registration);
+    resolved.clear();
+  }
+
+  /**
+   * Registers a codec for values of the given {@code type} or any of its subtypes
+   *
+   * @param id the id of the codec, greater than {@link #JAVA_ID}
+   * @param type the base type of the values
+   * @param codec the codec to use
+   */
+  public <T> void registerHierarchy(int id, Class<T> type, BinaryCodec<? super T> codec) {
+    Registration registration = addId(id, type, codec);
+    hierarchies.add(registration);
+    resolved.clear();
+  }
+
+  private synchronized Registration addId(int id, Class<?> type, BinaryCodec<?> codec) {
+    checkArgument(id > JAVA_ID, "id must be greater than " + JAVA_ID);
+    if (id < ids.length && ids[id] != null) {
+      throw new IllegalArgumentException(format("id %d is already registered for type %s", id, ids[id].type.getName()));
+    }
+
+    Registration registration = new Registration(id, type, codec);
+    Registration[] newIds = id < ids.length ? copyOf(ids, ids.length) : copyOf(ids, id + 1);
+    newIds[id] = registration;
+    ids = newIds;
+    return registration;
+  }
+
+  /**
+   * @return the registration to use for values of the given {@code type}, or {@code null} if there's no codec for it.
+   */
+  Registration forType(Class<?> type) {
+    Registration registration = resolved.get(type);
+    if (registration == null) {
+      registration = exactTypes.get(type);
+      if (registration == null) {
+        registration = NO_CODEC;
+        for (Registration candidate : hierarchies) {
+          if (candidate.type.isAssignableFrom(type)) {
+            registration = candidate;
+            break;
+          }
+        }
+      }
+      resolved.put(type, registration);
+    }
+    return registration == NO_CODEC ? null : registration;
+  }
+
+  /**
+   * @return the registration with the given {@code id}, or {@code null} if there's none.
+   */
+  Registration forId(int id) {
+    Registration[] current = ids;
+    return id >= 0 && id < current.length ? current[id] : null;
+  }
+
+  static final class Registration {
+
+    final int id;
+    final Class<?> type;
+    final BinaryCodec<Object> codec;
+
+    private Registration(int id, Class<?> type, BinaryCodec<?> codec) {
+      this.id = id;
+      this.type = type;
+      this.codec = (BinaryCodec<Object>) codec;
+    }
+  }
+}
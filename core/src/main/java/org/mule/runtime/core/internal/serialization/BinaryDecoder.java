@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.JAVA_ID;
+import static org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.NULL_ID;
+
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.Registration;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+/**
+ * Reads values written by a {@link BinaryEncoder}.
+ *
+ * @since 4.2
+ */
+public final class BinaryDecoder {
+
+  private final BinaryCodecRegistry registry;
+  private final SerializationProtocol fallbackProtocol;
+  private final ClassLoader classLoader;
+  private final byte[] buffer;
+  private final int limit;
+  private int position;
+
+  BinaryDecoder(BinaryCodecRegistry registry, SerializationProtocol fallbackProtocol, ClassLoader classLoader, byte[] buffer,
+                int offset) {
+    this.registry = registry;
+    this.fallbackProtocol = fallbackProtocol;
+    this.classLoader = classLoader;
+    this.buffer = buffer;
+    this.limit = buffer.length;
+    this.position = offset;
+  }
+
+  public int readByte() throws IOException {
+    require(1);
+    return buffer[position++];
+  }
+
+  public boolean readBoolean() throws IOException {
+    return readByte() != 0;
+  }
+
+  public int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length integer");
+  }
+
+  public long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      int b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length integer");
+  }
+
+  public long readSignedVarLong() throws IOException {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public double readDouble() throws IOException {
+    require(8);
+    long bits = 0;
+    for (int i = 0; i < 8; i++) {
+      bits = (bits << 8) | (buffer[position++] & 0xFF);
+    }
+    return longBitsToDouble(bits);
+  }
+
+  public String readString() throws IOException {
+    int length = readLength();
+    if (length < 0) {
+      return null;
+    }
+    String value = new String(buffer, position, length, UTF_8);
+    position += length;
+    return value;
+  }
+
+  public byte[] readBytes() throws IOException {
+    int length = readLength();
+    if (length < 0) {
+      return null;
+    }
+    byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+    position += length;
+    return value;
+  }
+
+  /**
+   * Reads a value written by {@link BinaryEncoder#writeObject(Object)}
+   */
+  public Object readObject() throws IOException {
+    int id = readVarInt();
+    if (id == NULL_ID) {
+      return null;
+    } else if (id == JAVA_ID) {
+      return fallbackProtocol.deserialize(readBytes(), classLoader);
+    }
+
+    Registration registration = registry.forId(id);
+    if (registration == null) {
+      throw new StreamCorruptedException(format("No codec registered for id %d", id));
+    }
+    return registration.codec.decode(this);
+  }
+
+  /**
+   * Reads a value written by {@link BinaryEncoder#writeFallback(Object)}
+   */
+  public Object readFallback() throws IOException {
+    byte[] bytes = readBytes();
+    return bytes == null ? null : fallbackProtocol.deserialize(bytes, classLoader);
+  }
+
+  /**
+   * @param className the name of a class
+   * @return the class with the given name, as seen from the class loader used for deserialization
+   * @throws IOException if the class is not found
+   */
+  public Class<?> loadClass(String className) throws IOException {
+    try {
+      return ClassUtils.loadClass(className, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new IOException(format("Could not load class %s", className), e);
+    }
+  }
+
+  private int readLength() throws IOException {
+    int length = readVarInt() - 1;
+    if (length < -1) {
+      throw new StreamCorruptedException(format("Invalid length %d", length));
+    } else if (length >= 0) {
+      require(length);
+    }
+    return length;
+  }
+
+  private void require(int bytes) throws EOFException {
+    if (bytes > limit - position) {
+      throw new EOFException();
+    }
+  }
+}
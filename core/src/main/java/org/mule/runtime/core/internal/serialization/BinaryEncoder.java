@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.JAVA_ID;
+import static org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.NULL_ID;
+
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.internal.serialization.BinaryCodecRegistry.Registration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes values in the format of the {@link BinarySerializationProtocol} into a growable buffer.
+ * <p>
+ * Integral values are written as variable length integers, so small values take less space. Instances are not thread safe, and
+ * may be reused after {@link #reset()}.
+ *
+ * @since 4.2
+ */
+public final class BinaryEncoder {
+
+  private final BinaryCodecRegistry registry;
+  private final SerializationProtocol fallbackProtocol;
+
+  private byte[] buffer;
+  private int size;
+
+  BinaryEncoder(BinaryCodecRegistry registry, SerializationProtocol fallbackProtocol, int initialCapacity) {
+    this.registry = registry;
+    this.fallbackProtocol = fallbackProtocol;
+    this.buffer = new byte[initialCapacity];
+  }
+
+  public void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) value;
+  }
+
+  public void writeBoolean(boolean value) {
+    writeByte(value ? 1 : 0);
+  }
+
+  /**
+   * Writes the given value as an unsigned variable length integer, taking from 1 to 5 bytes.
+   */
+  public void writeVarInt(int value) {
+    ensureCapacity(5);
+    while ((value & ~0x7F) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  /**
+   * Writes the given value as an unsigned variable length integer, taking from 1 to 10 bytes.
+   */
+  public void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  /**
+   * Writes the given value as a variable length integer, taking less space the closer it is to zero.
+   */
+  public void writeSignedVarLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  public void writeDouble(double value) {
+    long bits = doubleToRawLongBits(value);
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[size++] = (byte) (bits >>> shift);
+    }
+  }
+
+  /**
+   * Writes the given string in UTF-8, preceded by its length. {@code null} is supported.
+   */
+  public void writeString(String value) {
+    if (value == null) {
+      writeVarInt(0);
+      return;
+    }
+
+    int length = value.length();
+    boolean ascii = true;
+    for (int i = 0; i < length && ascii; i++) {
+      ascii = value.charAt(i) < 0x80;
+    }
+
+    if (ascii) {
+      writeVarInt(length + 1);
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++) {
+        buffer[size++] = (byte) value.charAt(i);
+      }
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      writeVarInt(bytes.length + 1);
+      writeRaw(bytes);
+    }
+  }
+
+  /**
+   * Writes the given bytes, preceded by their length. {@code null} is supported.
+   */
+  public void writeBytes(byte[] value) {
+    if (value == null) {
+      writeVarInt(0);
+    } else {
+      writeVarInt(value.length + 1);
+      writeRaw(value);
+    }
+  }
+
+  /**
+   * Writes the given value, preceded by the id of the codec that handles it. Values without a registered codec are written with
+   * the fallback protocol.
+   *
+   * @param value the value to write. {@code null} is supported.
+   * @throws IOException if the value cannot be written
+   */
+  public void writeObject(Object value) throws IOException {
+    if (value == null) {
+      writeVarInt(NULL_ID);
+      return;
+    }
+
+    Registration registration = registry.forType(value.getClass());
+    if (registration == null) {
+      writeVarInt(JAVA_ID);
+      writeBytes(fallbackProtocol.serialize(value));
+    } else {
+      writeVarInt(registration.id);
+      registration.codec.encode(value, this);
+    }
+  }
+
+  /**
+   * Writes the given value using the fallback protocol, regardless of it having a registered codec. Useful for codecs to delegate
+   * values they are not able to handle.
+   *
+   * @param value the value to write. {@code null} is supported.
+   */
+  public void writeFallback(Object value) {
+    writeBytes(value == null ? null : fallbackProtocol.serialize(value));
+  }
+
+  private void writeRaw(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = copyOf(buffer, max(buffer.length << 1, size + extra));
+    }
+  }
+
+  /**
+   * Discards the written data, so this instance can be reused.
+   */
+  void reset() {
+    size = 0;
+  }
+
+  /**
+   * @return the size of the underlying buffer
+   */
+  int capacity() {
+    return buffer.length;
+  }
+
+  /**
+   * @return a copy of the written data
+   */
+  byte[] toByteArray() {
+    return copyOf(buffer, size);
+  }
+
+  /**
+   * Writes the written data into the given {@code out}, avoiding an intermediate copy
+   */
+  void writeTo(OutputStream out) throws IOException {
+    out.write(buffer, 0, size);
+  }
+}
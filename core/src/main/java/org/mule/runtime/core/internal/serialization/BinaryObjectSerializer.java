@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.context.MuleContextAware;
+
+/**
+ * Serializes objects using a {@link BinarySerializationProtocol}, falling back to the default Java serialization mechanism for
+ * the types it has no codec for.
+ * <p>
+ * May be set as the default serializer of an application through the {@code defaultObjectSerializer-ref} attribute of its
+ * {@code configuration} element.
+ *
+ * @since 4.2
+ */
+public class BinaryObjectSerializer implements ObjectSerializer, MuleContextAware {
+
+  private final JavaExternalSerializerProtocol javaSerializerProtocol = new JavaExternalSerializerProtocol();
+  private final BinarySerializationProtocol binarySerializationProtocol =
+      new BinarySerializationProtocol(javaSerializerProtocol);
+
+  @Override
+  public SerializationProtocol getInternalProtocol() {
+    return binarySerializationProtocol;
+  }
+
+  @Override
+  public SerializationProtocol getExternalProtocol() {
+    return binarySerializationProtocol;
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    javaSerializerProtocol.setMuleContext(context);
+    binarySerializationProtocol.setMuleContext(context);
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Runtime.getRuntime;
+import static java.lang.String.format;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link SerializationProtocol} that writes the types of the Mule Runtime with compact {@link BinaryCodec}s, referring to their
+ * classes by a registered id instead of by name.
+ * <p>
+ * Values with no registered codec are written with a fallback protocol, so any value supported by it is supported by this one
+ * too. Data written by the fallback protocol alone (for instance, data persisted before switching to this protocol) may also be
+ * read, as long as the fallback is a Java serialization protocol.
+ * <p>
+ * Codecs for custom types may be added through {@link #getRegistry()}.
+ *
+ * @since 4.2
+ */
+public class BinarySerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final int FORMAT_VERSION = 1;
+  private static final byte JAVA_STREAM_MAGIC = (byte) (ObjectStreamConstants.STREAM_MAGIC >>> 8);
+
+  private static final int INITIAL_BUFFER_SIZE = 512;
+  private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+  private final SerializationProtocol fallbackProtocol;
+  private final BinaryCodecRegistry registry = CoreBinaryCodecs.createRegistry();
+  private final BlockingQueue<BinaryEncoder> encoders = new ArrayBlockingQueue<>(getRuntime().availableProcessors() * 2);
+
+  /**
+   * Creates a new instance that falls back to a {@link JavaExternalSerializerProtocol}
+   */
+  public BinarySerializationProtocol() {
+    this(new JavaExternalSerializerProtocol());
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param fallbackProtocol the protocol to use for values with no registered codec. It has to be initialised by the caller.
+   */
+  public BinarySerializationProtocol(SerializationProtocol fallbackProtocol) {
+    checkArgument(fallbackProtocol != null, "fallbackProtocol cannot be null");
+    this.fallbackProtocol = fallbackProtocol;
+  }
+
+  /**
+   * @return the registry of the codecs used by this protocol, for custom codecs to be added to it.
+   */
+  public BinaryCodecRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * @return the protocol to use for values with no registered codec.
+   */
+  public SerializationProtocol getFallbackProtocol() {
+    return fallbackProtocol;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    BinaryEncoder encoder = encode(object);
+    try {
+      return encoder.toByteArray();
+    } finally {
+      release(encoder);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Object object, OutputStream out) throws SerializationException {
+    try {
+      BinaryEncoder encoder = encode(object);
+      try {
+        encoder.writeTo(out);
+        out.flush();
+      } finally {
+        release(encoder);
+      }
+    } catch (SerializationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new SerializationException("Could not serialize object", e);
+    } finally {
+      closeQuietly(out);
+    }
+  }
+
+  private BinaryEncoder encode(Object object) throws IOException {
+    BinaryEncoder encoder = acquire();
+    try {
+      encoder.writeByte(FORMAT_VERSION);
+      if (object instanceof CursorStreamProvider) {
+        // TODO: MULE-11939
+        try (CursorStream cursor = ((CursorStreamProvider) object).openCursor()) {
+          encoder.writeObject(toByteArray(cursor));
+        }
+      } else {
+        encoder.writeObject(object);
+      }
+      return encoder;
+    } catch (IOException | RuntimeException e) {
+      release(encoder);
+      throw e;
+    }
+  }
+
+  private BinaryEncoder acquire() {
+    BinaryEncoder encoder = encoders.poll();
+    return encoder != null ? encoder : new BinaryEncoder(registry, fallbackProtocol, INITIAL_BUFFER_SIZE);
+  }
+
+  private void release(BinaryEncoder encoder) {
+    // Do not retain the buffers grown by big values
+    if (encoder.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+      encoder.reset();
+      encoders.offer(encoder);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <T> T deserialize(InputStream inputStream, ClassLoader classLoader) throws SerializationException {
+    checkArgument(inputStream != null, "Cannot deserialize a null stream");
+    try {
+      return deserialize(toByteArray(inputStream), classLoader);
+    } finally {
+      closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <T> T deserialize(byte[] bytes, ClassLoader classLoader) throws SerializationException {
+    checkArgument(bytes != null, "The byte[] must not be null");
+    checkArgument(classLoader != null, "Cannot deserialize with a null classloader");
+    if (bytes.length > 0 && bytes[0] == JAVA_STREAM_MAGIC) {
+      // Written by the fallback protocol alone, which already takes care of the post initialization
+      return fallbackProtocol.deserialize(bytes, classLoader);
+    }
+
+    try {
+      return (T) postInitialize(decode(bytes, classLoader));
+    } catch (SerializationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new SerializationException("Could not deserialize object", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    return (T) decode(toByteArray(inputStream), classLoader);
+  }
+
+  private Object decode(byte[] bytes, ClassLoader classLoader) throws IOException {
+    if (bytes.length == 0) {
+      throw new EOFException();
+    } else if (bytes[0] != FORMAT_VERSION) {
+      throw new StreamCorruptedException(format("Unsupported format version %d", bytes[0]));
+    }
+
+    return new BinaryDecoder(registry, fallbackProtocol, classLoader, bytes, 1).readObject();
+  }
+}
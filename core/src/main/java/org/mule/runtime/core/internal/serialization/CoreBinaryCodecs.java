@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.internal.event.DefaultEventContext;
+import org.mule.runtime.core.internal.event.DefaultEventContextBinaryCodec;
+import org.mule.runtime.core.internal.event.InternalEventBinaryCodec;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.message.MessageBinaryCodec;
+import org.mule.runtime.core.internal.metadata.SimpleDataType;
+import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition.StoreValue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * The {@link BinaryCodec}s for the types of the Mule Runtime. The ids of these must never change, since values written with them
+ * may be persisted.
+ *
+ * @since 4.2
+ */
+final class CoreBinaryCodecs {
+
+  private CoreBinaryCodecs() {}
+
+  static BinaryCodecRegistry createRegistry() {
+    BinaryCodecRegistry registry = new BinaryCodecRegistry();
+
+    registry.register(2, String.class, codec(BinaryEncoder::writeString, BinaryDecoder::readString));
+    registry.register(3, Integer.class, codec((encoder, value) -> encoder.writeSignedVarLong(value),
+                                              decoder -> (int) decoder.readSignedVarLong()));
+    registry.register(4, Long.class, codec(BinaryEncoder::writeSignedVarLong, BinaryDecoder::readSignedVarLong));
+    registry.register(5, Boolean.class, codec(BinaryEncoder::writeBoolean, BinaryDecoder::readBoolean));
+    registry.register(6, Double.class, codec(BinaryEncoder::writeDouble, BinaryDecoder::readDouble));
+    registry.register(7, byte[].class, codec(BinaryEncoder::writeBytes, BinaryDecoder::readBytes));
+    registry.register(8, ArrayList.class, listCodec(ArrayList::new));
+    registry.register(9, HashMap.class, mapCodec(HashMap::new));
+    registry.register(10, LinkedHashMap.class, mapCodec(LinkedHashMap::new));
+    registry.register(11, TypedValue.class, CoreBinaryCodecs.<TypedValue>codec((encoder, value) -> {
+      encoder.writeObject(value.getValue());
+      encoder.writeObject(value.getDataType());
+    }, decoder -> new TypedValue<>(decoder.readObject(), (DataType) decoder.readObject())));
+    registry.register(12, SimpleDataType.class, CoreBinaryCodecs.<SimpleDataType>codec((encoder, value) -> {
+      encoder.writeString(value.getType().getName());
+      encoder.writeString(value.getMediaType().toRfcString());
+    }, decoder -> DataType.builder().type(decoder.loadClass(decoder.readString())).mediaType(decoder.readString()).build()));
+    registry.register(13, StoreValue.class, CoreBinaryCodecs.<StoreValue>codec((encoder, value) -> {
+      encoder.writeObject(value.getKey());
+      encoder.writeObject(value.getValue());
+    }, decoder -> new StoreValue<>((Serializable) decoder.readObject(), decoder.readObject())));
+
+    registry.register(20, DefaultEventContext.class, new DefaultEventContextBinaryCodec());
+    registry.registerHierarchy(21, Message.class, new MessageBinaryCodec());
+    registry.registerHierarchy(22, InternalEvent.class, new InternalEventBinaryCodec());
+
+    return registry;
+  }
+
+  private static <T extends List> BinaryCodec<T> listCodec(IntFunction<T> factory) {
+    return codec((encoder, list) -> {
+      encoder.writeVarInt(list.size());
+      for (Object item : list) {
+        encoder.writeObject(item);
+      }
+    }, decoder -> {
+      int size = decoder.readVarInt();
+      T list = factory.apply(size);
+      for (int i = 0; i < size; i++) {
+        list.add(decoder.readObject());
+      }
+      return list;
+    });
+  }
+
+  private static <T extends Map> BinaryCodec<T> mapCodec(IntFunction<T> factory) {
+    return codec((encoder, map) -> {
+      encoder.writeVarInt(map.size());
+      for (Object item : map.entrySet()) {
+        Map.Entry entry = (Map.Entry) item;
+        encoder.writeObject(entry.getKey());
+        encoder.writeObject(entry.getValue());
+      }
+    }, decoder -> {
+      int size = decoder.readVarInt();
+      T map = factory.apply(size);
+      for (int i = 0; i < size; i++) {
+        map.put(decoder.readObject(), decoder.readObject());
+      }
+      return map;
+    });
+  }
+
+  private static <T> BinaryCodec<T> codec(ValueWriter<T> writer, ValueReader<T> reader) {
+    return new BinaryCodec<T>() {
+
+      @Override
+      public void encode(T value, BinaryEncoder encoder) throws IOException {
+        writer.write(encoder, value);
+      }
+
+      @Override
+      public T decode(BinaryDecoder decoder) throws IOException {
+        return reader.read(decoder);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter<T> {
+
+    void write(BinaryEncoder encoder, T value) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface ValueReader<T> {
+
+    T read(BinaryDecoder decoder) throws IOException;
+  }
+}
@@ -16,24 +16,31 @@ import org.mule.runtime.core.api.component.InternalComponent;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * In memory {@link PartitionableExpirableObjectStore}.
+ * <p>
+ * Each partition keeps a time ordered {@link ExpiryIndex} next to its values, so an expiration sweep only visits the entries it
+ * actually expires and never blocks the threads storing, retrieving or removing entries from the same partition.
+ */
 public class PartitionedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
     implements PartitionableExpirableObjectStore<T>, InternalComponent {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
   private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, ExpiryIndex<T>> expiryInfoPartition = new ConcurrentHashMap<>();
 
   @Override
   public boolean isPersistent() {
@@ -55,7 +62,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     if (oldValue != null) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
+    getExpiryInfoPartition(partitionName).add(key, value, getCurrentNanoTime());
   }
 
   @Override
@@ -74,14 +81,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       throw new ObjectDoesNotExistException();
     }
 
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
-      }
-    }
+    getExpiryInfoPartition(partitionName).remove(key, removedValue);
 
     return removedValue;
   }
@@ -119,11 +119,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return partition;
   }
 
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
+  private ExpiryIndex<T> getExpiryInfoPartition(String partitionName) {
+    ExpiryIndex<T> partition = expiryInfoPartition.get(partitionName);
     if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
+      partition = new ExpiryIndex<>();
+      ExpiryIndex<T> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -150,8 +150,8 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
     final long now = getCurrentNanoTime();
     int expiredEntries = 0;
-    ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
+    ExpiryEntry<T> oldestEntry;
+    ExpiryIndex<T> store = getExpiryInfoPartition(partitionName);
     ConcurrentMap<String, T> partition = getPartition(partitionName);
 
     trimToMaxSize(store, maxEntries, partition);
@@ -162,9 +162,10 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
     while ((oldestEntry = store.peek()) != null) {
       if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
+        if (store.remove(oldestEntry)) {
+          partition.remove(oldestEntry.getKey(), oldestEntry.getValue());
+          expiredEntries++;
+        }
       } else {
         break;
       }
@@ -175,7 +176,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
+  private void trimToMaxSize(ExpiryIndex<T> store, int maxEntries, ConcurrentMap<String, T> partition) {
     if (maxEntries == UNBOUNDED) {
       return;
     }
@@ -183,10 +184,12 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     int currentSize = store.size();
     int excess = (currentSize - maxEntries);
     if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
+      ExpiryEntry<T> toRemove;
+      while (currentSize > maxEntries && (toRemove = store.peek()) != null) {
+        if (store.remove(toRemove)) {
+          partition.remove(toRemove.getKey(), toRemove.getValue());
+          currentSize--;
+        }
       }
 
       if (LOGGER.isDebugEnabled()) {
@@ -202,7 +205,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       partition.clear();
     }
 
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
+    ExpiryIndex<T> entries = expiryInfoPartition.remove(partitionName);
     if (entries != null) {
       entries.clear();
     }
@@ -212,22 +215,90 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return System.nanoTime();
   }
 
-  private static class ExpiryEntry {
+  /**
+   * Keeps the entries of a partition ordered by insertion, with a reverse index from key to position so that removing a key
+   * does not require a scan. All operations are lock free.
+   */
+  private static class ExpiryIndex<T> {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, ExpiryEntry<T>> entries = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, ExpiryEntry<T>> entriesByKey = new ConcurrentHashMap<>();
+
+    public void add(String key, T value, long time) {
+      ExpiryEntry<T> entry = new ExpiryEntry<>(sequence.getAndIncrement(), time, key, value);
+      ExpiryEntry<T> previous = entriesByKey.put(key, entry);
+      if (previous != null) {
+        // the key was removed and stored again before the removal got to the index
+        entries.remove(previous.getSequence(), previous);
+      }
+      entries.put(entry.getSequence(), entry);
+    }
+
+    /**
+     * Removes the entry of the given key, as long as it was indexed for {@code value}. The key may have been stored again by
+     * another thread since {@code value} was removed, and the entry of that store has to be kept.
+     */
+    public void remove(String key, T value) {
+      ExpiryEntry<T> entry = entriesByKey.get(key);
+      if (entry != null && entry.getValue() == value) {
+        remove(entry);
+      }
+    }
+
+    /**
+     * Removes the given entry, unless its key was removed or stored again since it was obtained.
+     *
+     * @return whether this invocation removed the entry
+     */
+    public boolean remove(ExpiryEntry<T> entry) {
+      entries.remove(entry.getSequence(), entry);
+      return entriesByKey.remove(entry.getKey(), entry);
+    }
 
+    public ExpiryEntry<T> peek() {
+      Map.Entry<Long, ExpiryEntry<T>> eldest = entries.firstEntry();
+      return eldest != null ? eldest.getValue() : null;
+    }
+
+    public int size() {
+      return entriesByKey.size();
+    }
+
+    public void clear() {
+      entriesByKey.clear();
+      entries.clear();
+    }
+  }
+
+  private static class ExpiryEntry<T> {
+
+    private final long sequence;
     private final long time;
-    private final Serializable key;
+    private final String key;
+    private final T value;
 
-    public ExpiryEntry(long time, Serializable key) {
+    public ExpiryEntry(long sequence, long time, String key, T value) {
+      this.sequence = sequence;
       this.time = time;
       this.key = key;
+      this.value = value;
+    }
+
+    public long getSequence() {
+      return sequence;
     }
 
     public long getTime() {
       return time;
     }
 
-    public Serializable getKey() {
+    public String getKey() {
       return key;
     }
+
+    public T getValue() {
+      return value;
+    }
   }
 }
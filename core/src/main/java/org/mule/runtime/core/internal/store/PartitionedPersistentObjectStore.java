@@ -6,9 +6,17 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructuredPartition;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.store.ExpirableObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
@@ -17,6 +25,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -29,16 +38,34 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 
+/**
+ * {@link PartitionableExpirableObjectStore} that persists each of its partitions in its own directory under the working
+ * directory.
+ * <p>
+ * Two storage engines are available for the partitions: {@link #FILE_PER_KEY_ENGINE}, which writes one file per entry, and
+ * {@link #LOG_STRUCTURED_ENGINE}, which appends every change to segmented log files. The engine for new partitions is
+ * selected through the {@link #PERSISTENT_ENGINE_PROPERTY} system property, and may be overridden for a specific partition by
+ * suffixing the property with {@code .<partitionName>}. Partitions recovered from disk always keep the engine they were
+ * written with.
+ */
 public class PartitionedPersistentObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
-    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware {
+    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware, Disposable {
 
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  public static final String PERSISTENT_ENGINE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.persistent.engine";
+  public static final String FILE_PER_KEY_ENGINE = "file";
+  public static final String LOG_STRUCTURED_ENGINE = "log";
+
+  private static final long COMPACTION_INTERVAL =
+      getLong(SYSTEM_PROPERTY_PREFIX + "objectStore.log.compactionInterval.millis", 30000);
+
   private MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
+  private Map<String, ExpirableObjectStore<T>> partitionsByName = new HashMap<>();
   private boolean initialized = false;
+  private Scheduler compactionScheduler;
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -74,13 +101,53 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   }
 
   @Override
-  public void close(String partitionName) throws ObjectStoreException {}
+  public void close(String partitionName) throws ObjectStoreException {
+    getPartitionObjectStore(partitionName).close();
+  }
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
-    persistentObjectStorePartition.open();
-    partitionsByName.put(partitionName, persistentObjectStorePartition);
+    ExpirableObjectStore<T> partition;
+    if (LOG_STRUCTURED_ENGINE.equals(getEngine(partitionName))) {
+      partition = new LogStructuredObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+      scheduleCompaction();
+    } else {
+      partition = new PersistentObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    }
+    partition.open();
+    partitionsByName.put(partitionName, partition);
+  }
+
+  private String getEngine(String partitionName) {
+    return getProperty(PERSISTENT_ENGINE_PROPERTY + "." + partitionName,
+                       getProperty(PERSISTENT_ENGINE_PROPERTY, FILE_PER_KEY_ENGINE));
+  }
+
+  private void scheduleCompaction() {
+    if (compactionScheduler != null || muleContext == null) {
+      return;
+    }
+
+    compactionScheduler = muleContext.getSchedulerService()
+        .customScheduler(muleContext.getSchedulerBaseConfig().withName("PartitionedPersistentObjectStore-Compaction")
+            .withMaxConcurrentTasks(1));
+    compactionScheduler.scheduleWithFixedDelay(this::compactPartitions, COMPACTION_INTERVAL, COMPACTION_INTERVAL, MILLISECONDS);
+  }
+
+  private void compactPartitions() {
+    List<ExpirableObjectStore<T>> partitions;
+    synchronized (this) {
+      partitions = new ArrayList<>(partitionsByName.values());
+    }
+
+    for (ExpirableObjectStore<T> partition : partitions) {
+      if (partition instanceof LogStructuredObjectStorePartition) {
+        try {
+          ((LogStructuredObjectStorePartition) partition).compact();
+        } catch (Exception e) {
+          LOGGER.warn("Could not compact object store partition", e);
+        }
+      }
+    }
   }
 
   private File getNewPartitionDirectory() {
@@ -127,7 +194,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).clear();
   }
 
-  private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
+  private ExpirableObjectStore<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
     if (!partitionsByName.containsKey(partitionName)) {
       throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
     }
@@ -181,10 +248,18 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
-        persistentObjectStorePartition.open();
-        partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        if (isLogStructuredPartition(partitionDirectory)) {
+          LogStructuredObjectStorePartition<T> logStructuredPartition =
+              new LogStructuredObjectStorePartition<>(muleContext, partitionDirectory);
+          logStructuredPartition.open();
+          partitionsByName.put(logStructuredPartition.getPartitionName(), logStructuredPartition);
+          scheduleCompaction();
+        } else {
+          PersistentObjectStorePartition<T> persistentObjectStorePartition =
+              new PersistentObjectStorePartition<>(muleContext, partitionDirectory);
+          persistentObjectStorePartition.open();
+          partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        }
       } catch (Exception e) {
         LOGGER.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
       }
@@ -204,6 +279,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   @Override
   public void disposePartition(String partitionName) throws ObjectStoreException {
     clear(partitionName);
+    close(partitionName);
   }
 
   @Override
@@ -211,6 +287,22 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).expire(entryTTL, maxEntries);
   }
 
+  @Override
+  public synchronized void dispose() {
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+      compactionScheduler = null;
+    }
+
+    for (ExpirableObjectStore<T> partition : partitionsByName.values()) {
+      try {
+        partition.close();
+      } catch (ObjectStoreException e) {
+        LOGGER.warn("Could not close object store partition", e);
+      }
+    }
+  }
+
   protected String getWorkingDirectory() {
     return muleContext.getConfiguration().getWorkingDirectory();
   }
@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.identityHashCode;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link ByteBufferManager} implementation which hands out direct (off-heap) buffers, so that the in-memory window of repeatable
+ * streams doesn't add to the heap that the garbage collector has to go through.
+ * <p>
+ * Requested capacities are rounded up to a power of two size class. The chunks of the small size classes are carved out of
+ * larger direct slabs, while each chunk of the bigger classes is a slab of its own. Returned chunks are kept in a small cache
+ * local to the deallocating thread, and in a shared lock-free freelist per size class once that cache is full or when other
+ * threads are waiting for memory. A thread that has to wait for memory first moves the chunks cached by every thread to the
+ * freelists, so cached chunks never keep it from being served. Requests bigger than the largest size class get an unpooled
+ * direct buffer.
+ * <p>
+ * As with {@link PoolingByteBufferManager}, the total amount of reserved memory is limited by
+ * {@link org.mule.runtime.core.api.config.MuleProperties#MULE_STREAMING_MAX_MEMORY}. When exhausted, the slabs all of whose
+ * chunks are in the freelists are released, so that the memory kept by a size class which is no longer used can be reserved
+ * by another one. If that is not enough, invocations to {@link #allocate(int)} will block until memory becomes available or
+ * the wait timeout elapses, in which case a {@link MaxStreamingMemoryExceededException} is thrown.
+ *
+ * @since 4.2
+ */
+public class DirectByteBufferManager implements ByteBufferManager, Disposable {
+
+  /**
+   * System property which, when set to {@code true}, makes the runtime use this manager instead of
+   * {@link PoolingByteBufferManager}.
+   */
+  public static final String DIRECT_BUFFER_MANAGER_PROPERTY_KEY = SYSTEM_PROPERTY_PREFIX + "streaming.directBuffers";
+
+  static final int MIN_SIZE_CLASS = 1024;
+  static final int MAX_SIZE_CLASS = 4 * 1024 * 1024;
+  static final int SLAB_SIZE = 1024 * 1024;
+  private static final int THREAD_CACHE_SIZE = 8;
+  private static final int THREAD_CACHE_MAX_BYTES = 256 * 1024;
+
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+
+  private final SizeClass[] sizeClasses;
+  private final ConcurrentMap<LeaseKey, Chunk> leases = new ConcurrentHashMap<>();
+  private final Set<ThreadCache> threadCaches = newKeySet();
+  private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition memoryAvailable = lock.newCondition();
+  private final AtomicInteger waiters = new AtomicInteger(0);
+
+  /**
+   * Creates a new instance which allows up to 70% of the runtime's max memory to be reserved and has the default wait timeout.
+   */
+  public DirectByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT);
+  }
+
+  /**
+   * Creates a new instance which allows up to 70% of calling {@link MemoryManager#getMaxMemory()} on the given
+   * {@code memoryManager} to be reserved, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the memory is exhausted
+   */
+  public DirectByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+
+    sizeClasses = new SizeClass[indexOf(MAX_SIZE_CLASS) + 1];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(MIN_SIZE_CLASS << i);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    if (capacity > MAX_SIZE_CLASS) {
+      reserve(capacity);
+      return ByteBuffer.allocateDirect(capacity);
+    }
+
+    int index = indexOf(capacity);
+    Chunk chunk = threadCache.get().poll(index);
+    if (chunk == null) {
+      chunk = sizeClasses[index].take();
+    }
+
+    chunk.buffer.clear();
+    chunk.buffer.limit(capacity);
+    ByteBuffer lease = chunk.buffer.slice();
+    leases.put(new LeaseKey(lease), chunk);
+    return lease;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    int capacity = byteBuffer.capacity();
+    if (capacity > MAX_SIZE_CLASS) {
+      release(capacity);
+      return;
+    }
+
+    Chunk chunk = leases.remove(new LeaseKey(byteBuffer));
+    if (chunk == null) {
+      throw new MuleRuntimeException(createStaticMessage("Could not deallocate buffer of capacity " + capacity
+          + " since it was not allocated by this manager"));
+    }
+
+    int index = indexOf(capacity);
+    ThreadCache cache = threadCache.get();
+    if (waiters.get() == 0 && cache.offer(index, chunk)) {
+      // a thread may have drained the caches right before the chunk was added to this one
+      if (waiters.get() > 0) {
+        cache.drain();
+        signalMemoryAvailable();
+      }
+    } else {
+      sizeClasses[index].freeList.offer(chunk);
+      signalMemoryAvailable();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    drainThreadCaches();
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.clear();
+    }
+    leases.clear();
+    streamingMemory.set(0);
+    signalMemoryAvailable();
+  }
+
+  private void reserve(int bytes) {
+    while (!tryReserve(bytes)) {
+      awaitMemory(() -> streamingMemory.get() + bytes <= maxStreamingMemory);
+    }
+  }
+
+  private boolean tryReserve(int bytes) {
+    if (streamingMemory.addAndGet(bytes) <= maxStreamingMemory) {
+      return true;
+    }
+
+    streamingMemory.addAndGet(-bytes);
+    return false;
+  }
+
+  private void release(int bytes) {
+    streamingMemory.addAndGet(-bytes);
+    signalMemoryAvailable();
+  }
+
+  /**
+   * Waits until {@code available} holds or memory is released. {@code available} is evaluated while holding the lock that
+   * deallocations signal, so a release between the caller's last attempt and the wait is not lost.
+   */
+  private void awaitMemory(BooleanSupplier available) {
+    waiters.incrementAndGet();
+    drainThreadCaches();
+    releaseFreeSlabs();
+    lock.lock();
+    try {
+      if (!available.getAsBoolean() && !memoryAvailable.await(waitTimeoutMillis, MILLISECONDS)) {
+        throw new MaxStreamingMemoryExceededException(createStaticMessage(format("Max streaming memory limit of %d bytes was exceeded",
+                                                                                 maxStreamingMemory)));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MuleRuntimeException(createStaticMessage("Interrupted while waiting for streaming memory"), e);
+    } finally {
+      lock.unlock();
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void signalMemoryAvailable() {
+    if (waiters.get() > 0) {
+      lock.lock();
+      try {
+        memoryAvailable.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Moves the chunks cached by every thread to the freelists of their size classes, and forgets the caches of the threads that
+   * are gone.
+   */
+  private void drainThreadCaches() {
+    for (Iterator<ThreadCache> iterator = threadCaches.iterator(); iterator.hasNext();) {
+      ThreadCache cache = iterator.next();
+      cache.drain();
+      if (!cache.isOwnerAlive()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void releaseFreeSlabs() {
+    boolean released = false;
+    for (SizeClass sizeClass : sizeClasses) {
+      released |= sizeClass.releaseFreeSlabs();
+    }
+    if (released) {
+      signalMemoryAvailable();
+    }
+  }
+
+  private ThreadCache newThreadCache() {
+    ThreadCache cache = new ThreadCache();
+    threadCaches.add(cache);
+    return cache;
+  }
+
+  private static int indexOf(int capacity) {
+    if (capacity <= MIN_SIZE_CLASS) {
+      return 0;
+    }
+    int sizeClass = 1 << (32 - numberOfLeadingZeros(capacity - 1));
+    return numberOfTrailingZeros(sizeClass) - numberOfTrailingZeros(MIN_SIZE_CLASS);
+  }
+
+  private class SizeClass {
+
+    private final int chunkSize;
+    private final int slabSize;
+    private final ConcurrentLinkedQueue<Chunk> freeList = new ConcurrentLinkedQueue<>();
+    private Slab currentSlab;
+
+    private SizeClass(int chunkSize) {
+      this.chunkSize = chunkSize;
+      this.slabSize = max(chunkSize, SLAB_SIZE);
+    }
+
+    private Chunk take() {
+      while (true) {
+        Chunk chunk = freeList.poll();
+        if (chunk != null) {
+          return chunk;
+        }
+
+        chunk = carveChunk();
+        if (chunk != null) {
+          return chunk;
+        }
+
+        awaitMemory(() -> !freeList.isEmpty() || streamingMemory.get() + slabSize <= maxStreamingMemory);
+      }
+    }
+
+    private synchronized Chunk carveChunk() {
+      if (currentSlab == null || !currentSlab.buffer.hasRemaining()) {
+        if (!tryReserve(slabSize)) {
+          return null;
+        }
+        currentSlab = new Slab(ByteBuffer.allocateDirect(slabSize));
+      }
+
+      ByteBuffer slab = currentSlab.buffer;
+      slab.limit(slab.position() + chunkSize);
+      Chunk chunk = new Chunk(slab.slice(), currentSlab);
+      slab.position(slab.limit());
+      slab.limit(slab.capacity());
+      currentSlab.carved++;
+      return chunk;
+    }
+
+    /**
+     * Releases the slabs all of whose carved chunks are in the freelist. The chunks are taken out of the freelist while doing
+     * so, which means that none of them can be handed out before its slab is released.
+     *
+     * @return whether any slab was released
+     */
+    private synchronized boolean releaseFreeSlabs() {
+      Map<Slab, List<Chunk>> freeChunks = new IdentityHashMap<>();
+      Chunk chunk;
+      while ((chunk = freeList.poll()) != null) {
+        freeChunks.computeIfAbsent(chunk.slab, slab -> new ArrayList<>()).add(chunk);
+      }
+
+      boolean released = false;
+      for (Map.Entry<Slab, List<Chunk>> entry : freeChunks.entrySet()) {
+        Slab slab = entry.getKey();
+        if (entry.getValue().size() == slab.carved) {
+          if (slab == currentSlab) {
+            currentSlab = null;
+          }
+          streamingMemory.addAndGet(-slabSize);
+          released = true;
+        } else {
+          entry.getValue().forEach(freeList::offer);
+        }
+      }
+      return released;
+    }
+
+    private synchronized void clear() {
+      freeList.clear();
+      currentSlab = null;
+    }
+  }
+
+  /**
+   * The chunks cached by a thread, up to {@link #THREAD_CACHE_SIZE} per size class and {@link #THREAD_CACHE_MAX_BYTES} in total.
+   * Only its owner adds or takes chunks, but any thread waiting for memory may drain it.
+   */
+  private final class ThreadCache {
+
+    private final WeakReference<Thread> owner = new WeakReference<>(currentThread());
+    private final Deque<Chunk>[] chunks = new Deque[sizeClasses.length];
+    private int bytes;
+
+    private ThreadCache() {
+      for (int i = 0; i < chunks.length; i++) {
+        chunks[i] = new ArrayDeque<>(THREAD_CACHE_SIZE);
+      }
+    }
+
+    private synchronized Chunk poll(int index) {
+      Chunk chunk = chunks[index].pollFirst();
+      if (chunk != null) {
+        bytes -= chunk.buffer.capacity();
+      }
+      return chunk;
+    }
+
+    private synchronized boolean offer(int index, Chunk chunk) {
+      if (chunks[index].size() >= THREAD_CACHE_SIZE || bytes + chunk.buffer.capacity() > THREAD_CACHE_MAX_BYTES) {
+        return false;
+      }
+      chunks[index].addFirst(chunk);
+      bytes += chunk.buffer.capacity();
+      return true;
+    }
+
+    private synchronized void drain() {
+      for (int i = 0; i < chunks.length; i++) {
+        Chunk chunk;
+        while ((chunk = chunks[i].pollFirst()) != null) {
+          sizeClasses[i].freeList.offer(chunk);
+        }
+      }
+      bytes = 0;
+    }
+
+    private boolean isOwnerAlive() {
+      Thread thread = owner.get();
+      return thread != null && thread.isAlive();
+    }
+  }
+
+  /**
+   * A direct buffer out of which the chunks of a size class are carved. Its count of carved chunks is guarded by the monitor of
+   * its size class.
+   */
+  private static final class Slab {
+
+    private final ByteBuffer buffer;
+    private int carved;
+
+    private Slab(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+
+  private static final class Chunk {
+
+    private final ByteBuffer buffer;
+    private final Slab slab;
+
+    private Chunk(ByteBuffer buffer, Slab slab) {
+      this.buffer = buffer;
+      this.slab = slab;
+    }
+  }
+
+  /**
+   * Identity based key for the leased buffers, since {@link ByteBuffer#equals(Object)} depends on the buffer's contents.
+   */
+  private static final class LeaseKey {
+
+    private final ByteBuffer buffer;
+
+    private LeaseKey(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof LeaseKey && ((LeaseKey) obj).buffer == buffer;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(buffer);
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link AbstractInputStreamBuffer} which keeps the first {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} bytes
+ * of the stream in a buffer obtained from the {@link ByteBufferManager} and writes the rest to a temporary file.
+ * <p>
+ * Data in the file is served through read only memory-mapped regions of {@link #MAPPED_REGION_SIZE} bytes. Since the file is
+ * only appended to, the buffers returned by {@link #get(long, int)} are slices of the memory buffer or of those regions, so
+ * cursors re-reading the data don't copy it and the heap consumption doesn't depend on the size of the stream. A region is only
+ * mapped once the file holds all of it; until then, reads of the end of the file copy the requested bytes from the channel.
+ *
+ * @since 4.2
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  static final int MAPPED_REGION_SIZE = 16 * 1024 * 1024;
+
+  private final int maxInMemorySize;
+  private final int mappedRegionSize;
+  private ByteBuffer memoryBuffer;
+  private ByteBuffer transferBuffer;
+
+  private File bufferFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel fileChannel;
+  private final ConcurrentMap<Long, MappedByteBuffer> mappedRegions = new ConcurrentHashMap<>();
+
+  private volatile long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream the stream to be buffered
+   * @param config this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    this(stream, config, bufferManager, MAPPED_REGION_SIZE);
+  }
+
+  FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager,
+                        int mappedRegionSize) {
+    super(stream, bufferManager);
+    maxInMemorySize = config.getMaxInMemorySize().toBytes();
+    this.mappedRegionSize = mappedRegionSize;
+    memoryBuffer = bufferManager.allocate(maxInMemorySize);
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return withReadLock(releaser -> {
+      if (position < bufferTip) {
+        return copy(position, length);
+      }
+
+      releaser.release();
+      return withWriteLock(() -> {
+        while (position >= bufferTip) {
+          if (isStreamFullyConsumed()) {
+            return null;
+          }
+          try {
+            if (consumeForwardData() <= 0) {
+              streamFullyConsumed();
+            }
+          } catch (IOException e) {
+            throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+          }
+        }
+
+        return copy(position, length);
+      });
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   * Data is placed in the memory buffer while it has remaining space and appended to the buffer file afterwards.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (memoryBuffer.hasRemaining()) {
+      int read = consumeStream(memoryBuffer);
+      if (read > 0) {
+        bufferTip += read;
+      }
+      return read;
+    }
+
+    if (fileChannel == null) {
+      initialiseBufferFile();
+    }
+
+    transferBuffer.clear();
+    int read = consumeStream(transferBuffer);
+    if (read > 0) {
+      transferBuffer.flip();
+      long filePosition = bufferTip - maxInMemorySize;
+      while (transferBuffer.hasRemaining()) {
+        filePosition += fileChannel.write(transferBuffer, filePosition);
+      }
+      bufferTip += read;
+    }
+    return read;
+  }
+
+  private void initialiseBufferFile() throws IOException {
+    bufferFile = createBufferFile("stream");
+    randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+    fileChannel = randomAccessFile.getChannel();
+    transferBuffer = bufferManager.allocate(DEFAULT_BUFFER_BUCKET_SIZE);
+  }
+
+  /**
+   * {@inheritDoc}
+   * Returns a slice of either the memory buffer or a mapped region of the buffer file, or a copy of the incomplete region at
+   * the end of the file. The returned buffer never spans more than one of them.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    length = toIntExact(min(length, bufferTip - position));
+    if (position < maxInMemorySize) {
+      int offset = toIntExact(position);
+      return slice(memoryBuffer, offset, min(length, maxInMemorySize - offset));
+    }
+
+    long filePosition = position - maxInMemorySize;
+    long regionIndex = filePosition / mappedRegionSize;
+    int offset = toIntExact(filePosition % mappedRegionSize);
+    length = min(length, mappedRegionSize - offset);
+
+    if (bufferTip - maxInMemorySize < (regionIndex + 1) * mappedRegionSize) {
+      // mapping a region that is still growing would require mapping it again on every read at the tip
+      return read(filePosition, length);
+    }
+    return slice(getMappedRegion(regionIndex), offset, length);
+  }
+
+  private MappedByteBuffer getMappedRegion(long regionIndex) {
+    return mappedRegions.computeIfAbsent(regionIndex, index -> {
+      try {
+        return fileChannel.map(READ_ONLY, index * mappedRegionSize, mappedRegionSize);
+      } catch (IOException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not map buffer file " + bufferFile.getAbsolutePath()), e);
+      }
+    });
+  }
+
+  private ByteBuffer read(long filePosition, int length) {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    try {
+      while (buffer.hasRemaining()) {
+        if (fileChannel.read(buffer, filePosition + buffer.position()) < 0) {
+          throw new EOFException();
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read buffer file " + bufferFile.getAbsolutePath()), e);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  int getMappedRegionsCount() {
+    return mappedRegions.size();
+  }
+
+  private ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offset + length);
+    view.position(offset);
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    deallocate(memoryBuffer);
+    memoryBuffer = null;
+    deallocate(transferBuffer);
+    transferBuffer = null;
+
+    mappedRegions.clear();
+    if (fileChannel != null) {
+      closeSafely(randomAccessFile::close);
+      closeSafely(bufferFile::delete);
+    }
+  }
+}
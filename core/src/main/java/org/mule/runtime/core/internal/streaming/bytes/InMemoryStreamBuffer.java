@@ -8,7 +8,6 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
 import static java.nio.ByteBuffer.wrap;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -199,19 +198,28 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
   }
 
   private ByteBuffer softCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    return wrap(buffer.array(), offset, min(length, buffer.limit() - offset)).slice();
+    return view(position, length).slice();
   }
 
   protected ByteBuffer hardCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    length = min(length, buffer.limit() - offset);
+    ByteBuffer view = view(position, length);
 
-    byte[] b = new byte[length];
-    arraycopy(buffer.array(), offset, b, 0, length);
+    byte[] b = new byte[view.remaining()];
+    view.get(b);
     return wrap(b);
   }
 
+  /**
+   * Uses a duplicate of the {@code buffer} rather than its backing array, so that direct buffers are supported too.
+   */
+  private ByteBuffer view(long position, int length) {
+    final int offset = toIntExact(position);
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offset + min(length, buffer.limit() - offset));
+    view.position(offset);
+    return view;
+  }
+
   private boolean canDoSoftCopy() {
     return streamFullyConsumed ||
         buffer.capacity() >= maxBufferSize ||
@@ -127,7 +127,7 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
     defaultSizePool = newBufferPool(DEFAULT_BUFFER_BUCKET_SIZE);
   }
 
-  private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
+  static long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
       return round(memoryManager.getMaxMemory() * MAX_STREAMING_PERCENTILE);
@@ -6,10 +6,15 @@
  */
 package org.mule.runtime.core.internal.streaming.object;
 
+import static org.mule.runtime.api.util.Preconditions.checkState;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.internal.streaming.object.factory.FileStoreCursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.streaming.object.factory.InMemoryCursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.streaming.object.factory.NullCursorIteratorProviderFactory;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
 import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
 import org.mule.runtime.core.api.streaming.object.ObjectStreamingManager;
 
@@ -21,9 +26,19 @@ import org.mule.runtime.core.api.streaming.object.ObjectStreamingManager;
 public class DefaultObjectStreamingManager implements ObjectStreamingManager {
 
   protected final StreamingManager streamingManager;
+  private final ObjectSerializer objectSerializer;
 
   public DefaultObjectStreamingManager(StreamingManager streamingManager) {
+    this(streamingManager, null);
+  }
+
+  /**
+   * @param streamingManager the owning {@link StreamingManager}
+   * @param objectSerializer the {@link ObjectSerializer} used by the file store buffers
+   */
+  public DefaultObjectStreamingManager(StreamingManager streamingManager, ObjectSerializer objectSerializer) {
     this.streamingManager = streamingManager;
+    this.objectSerializer = objectSerializer;
   }
 
   /**
@@ -34,6 +49,17 @@ public class DefaultObjectStreamingManager implements ObjectStreamingManager {
     return new InMemoryCursorIteratorProviderFactory(config, streamingManager);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException if this manager was created without an {@link ObjectSerializer}
+   */
+  @Override
+  public CursorIteratorProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorIteratorConfig config) {
+    checkState(objectSerializer != null, "File store cursor iterators require an ObjectSerializer");
+    return new FileStoreCursorIteratorProviderFactory(config, objectSerializer, streamingManager);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.toIntExact;
+import static java.nio.ByteBuffer.wrap;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which keeps up to
+ * {@link FileStoreCursorIteratorConfig#getMaxInMemoryBuckets()} buckets in memory.
+ * <p>
+ * As long as the stream fits in that window nothing is written to disk. Once it doesn't, every full bucket is serialized and
+ * appended to a temporary file, and buckets are evicted from memory in least recently used order. Cursors seeking into an
+ * evicted bucket have it read back from the file, so memory consumption stays bounded regardless of the stream size.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.2
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private final FileStoreCursorIteratorConfig config;
+  private final ObjectSerializer serializer;
+
+  /**
+   * Full buckets held in memory, in access order. The bucket being filled is not part of it.
+   */
+  private final Map<Integer, Bucket<T>> inMemoryBuckets;
+
+  /**
+   * Offset in the file at which each spilled bucket starts, followed by the file's length.
+   */
+  private final List<Long> spillOffsets = new ArrayList<>();
+  private boolean spilling = false;
+
+  private File spillFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel fileChannel;
+
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config, ObjectSerializer serializer) {
+    super(stream);
+    this.config = config;
+    this.serializer = serializer;
+    final int maxFullBuckets = config.getMaxInMemoryBuckets() - 1;
+    inMemoryBuckets = new LinkedHashMap<Integer, Bucket<T>>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Bucket<T>> eldest) {
+        return size() > maxFullBuckets;
+      }
+    };
+    spillOffsets.add(0L);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    return new Position(toIntExact(position / config.getBucketSize()), (int) (position % config.getBucketSize()));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Optional<Bucket<T>> getPresentBucket(Position position) {
+    final int index = position.getBucketIndex();
+    Bucket<T> current = getCurrentBucket();
+    if (current != null && current.getIndex() == index) {
+      return of(current);
+    }
+
+    synchronized (inMemoryBuckets) {
+      Bucket<T> bucket = inMemoryBuckets.get(index);
+      if (bucket != null) {
+        return of(bucket);
+      }
+    }
+
+    if (index < spilledBucketsCount()) {
+      Bucket<T> bucket = readSpilledBucket(index);
+      synchronized (inMemoryBuckets) {
+        inMemoryBuckets.put(index, bucket);
+      }
+      return of(bucket);
+    }
+
+    return empty();
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    synchronized (inMemoryBuckets) {
+      if (!spilling && inMemoryBuckets.size() + 1 >= config.getMaxInMemoryBuckets()) {
+        // From now on the buckets may get evicted, so the ones which were only held in memory are written first
+        for (int i = spilledBucketsCount(); i < overflownBucket.getIndex(); i++) {
+          spill(inMemoryBuckets.get(i));
+        }
+        spilling = true;
+      }
+
+      if (spilling) {
+        spill(overflownBucket);
+      }
+      inMemoryBuckets.put(overflownBucket.getIndex(), overflownBucket);
+    }
+
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
+    // Memory is bounded by the amount of in memory buckets, the rest of the items are in the file
+  }
+
+  private int spilledBucketsCount() {
+    return spillOffsets.size() - 1;
+  }
+
+  private void spill(Bucket<T> bucket) {
+    try {
+      if (fileChannel == null) {
+        spillFile = createBufferFile("iterator");
+        randomAccessFile = new RandomAccessFile(spillFile, "rw");
+        fileChannel = randomAccessFile.getChannel();
+      }
+
+      long offset = spillOffsets.get(spillOffsets.size() - 1);
+      ByteBuffer buffer = wrap(serializer.getInternalProtocol().serialize(bucket));
+      while (buffer.hasRemaining()) {
+        offset += fileChannel.write(buffer, offset);
+      }
+      spillOffsets.add(offset);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write streaming buffer file"), e);
+    }
+  }
+
+  private Bucket<T> readSpilledBucket(int index) {
+    long offset = spillOffsets.get(index);
+    ByteBuffer buffer = ByteBuffer.allocate(toIntExact(spillOffsets.get(index + 1) - offset));
+    try {
+      while (buffer.hasRemaining()) {
+        int read = fileChannel.read(buffer, offset + buffer.position());
+        if (read < 0) {
+          throw new EOFException("Unexpected end of streaming buffer file " + spillFile.getAbsolutePath());
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read streaming buffer file"), e);
+    }
+
+    return serializer.getInternalProtocol().deserialize(buffer.array());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    synchronized (inMemoryBuckets) {
+      inMemoryBuckets.clear();
+    }
+    if (fileChannel != null) {
+      closeSafely(randomAccessFile::close);
+      closeSafely(spillFile::delete);
+    }
+  }
+}
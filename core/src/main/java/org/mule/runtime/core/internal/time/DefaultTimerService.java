@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.lifecycle.Initialisable;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+/**
+ * Default {@link TimerService}, backed by a {@link HashedWheelTimer} with ticks of {@value #TICK_MILLIS} ms, which is advanced
+ * by a dedicated thread.
+ * <p>
+ * Timeouts may be scheduled before this is initialised, but they are not run until it is.
+ *
+ * @since 4.2
+ */
+public class DefaultTimerService implements TimerService, Initialisable, Disposable {
+
+  private static final long TICK_MILLIS = 10;
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private final HashedWheelTimer timer = new HashedWheelTimer(TICK_MILLIS, TICKS_PER_WHEEL);
+  // The wheel is given times relative to this, so they are never negative
+  private final long originNanos = nanoTime();
+
+  @Inject
+  private MuleContext muleContext;
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  private SchedulerConfig schedulerConfig;
+  private Scheduler tickScheduler;
+
+  public DefaultTimerService() {}
+
+  /**
+   * Creates a new instance, for components that can't get the one of the artifact.
+   *
+   * @param schedulerService the service to get the thread that advances the timer from
+   * @param schedulerConfig the base configuration of the scheduler of the thread that advances the timer
+   */
+  public DefaultTimerService(SchedulerService schedulerService, SchedulerConfig schedulerConfig) {
+    this.schedulerService = schedulerService;
+    this.schedulerConfig = schedulerConfig;
+  }
+
+  @Override
+  public void initialise() throws InitialisationException {
+    if (tickScheduler != null) {
+      return;
+    }
+
+    SchedulerConfig config = schedulerConfig != null ? schedulerConfig : muleContext.getSchedulerBaseConfig();
+    tickScheduler = schedulerService.customScheduler(config.withName("TimerService").withMaxConcurrentTasks(1)
+        .withShutdownTimeout(0, MILLISECONDS));
+    tickScheduler.scheduleAtFixedRate(() -> timer.advance(currentMillis()), TICK_MILLIS, TICK_MILLIS, MILLISECONDS);
+  }
+
+  @Override
+  public void dispose() {
+    if (tickScheduler != null) {
+      tickScheduler.stop();
+      tickScheduler = null;
+    }
+  }
+
+  @Override
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    long now = currentMillis();
+    long delayMillis = unit.toMillis(delay);
+    // Such long delays as the ones used to mean no timeout at all would overflow
+    return timer.schedule(task, delayMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayMillis);
+  }
+
+  @Override
+  public Scheduler timerScheduler(Scheduler dispatcher) {
+    return new TimerScheduler(this, dispatcher);
+  }
+
+  /**
+   * @return the number of timeouts that were neither run nor cancelled yet
+   */
+  public int getPendingTimeoutsCount() {
+    return timer.getPendingCount();
+  }
+
+  private long currentMillis() {
+    return NANOSECONDS.toMillis(nanoTime() - originNanos);
+  }
+}
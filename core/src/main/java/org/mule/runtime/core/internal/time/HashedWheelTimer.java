@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.slf4j.Logger;
+
+/**
+ * A hashed timing wheel which runs tasks once their deadline is reached, without keeping them sorted.
+ * <p>
+ * Adding and cancelling a timeout are constant time operations which don't contend with each other, so this suits huge amounts
+ * of short lived timeouts, most of which are cancelled before they are due. The price is precision: tasks run on the first
+ * {@link #advance(long)} after their deadline, so they may be late by up to the duration of a tick.
+ * <p>
+ * {@link #schedule(Runnable, long)} and {@link Timeout#cancel()} may be called from any thread, while {@link #advance(long)}
+ * must always be invoked by the same thread, or by threads that are not concurrent with each other. Tasks are run by the thread
+ * invoking {@link #advance(long)}, so they must be quick.
+ *
+ * @since 4.2
+ */
+final class HashedWheelTimer {
+
+  private static final Logger LOGGER = getLogger(HashedWheelTimer.class);
+
+  private final long tickMillis;
+  private final int mask;
+  private final Bucket[] buckets;
+  private final Queue<WheelTimeout> incoming = new ConcurrentLinkedQueue<>();
+  private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private long lastTick = -1;
+
+  /**
+   * @param tickMillis the duration of each tick of the wheel
+   * @param ticksPerWheel the number of buckets of the wheel. Must be a power of two.
+   */
+  HashedWheelTimer(long tickMillis, int ticksPerWheel) {
+    checkArgument(tickMillis > 0, "tickMillis must be greater than zero");
+    checkArgument(ticksPerWheel > 0 && bitCount(ticksPerWheel) == 1, "ticksPerWheel must be a power of two");
+
+    this.tickMillis = tickMillis;
+    this.mask = ticksPerWheel - 1;
+    this.buckets = new Bucket[ticksPerWheel];
+    for (int i = 0; i < ticksPerWheel; i++) {
+      buckets[i] = new Bucket();
+    }
+  }
+
+  /**
+   * Schedules the given {@code task} to be run by {@link #advance(long)} once {@code deadline} is reached.
+   *
+   * @param task the task to run
+   * @param deadline the time in milliseconds at which the task is due
+   * @return a {@link Timeout} to cancel the task with
+   */
+  Timeout schedule(Runnable task, long deadline) {
+    WheelTimeout timeout = new WheelTimeout(task, deadline);
+    pending.incrementAndGet();
+    incoming.add(timeout);
+    return timeout;
+  }
+
+  /**
+   * @return the number of tasks that are neither run nor cancelled yet
+   */
+  int getPendingCount() {
+    return pending.get();
+  }
+
+  /**
+   * Advances the wheel up to {@code now}, running the tasks which deadline is not after it.
+   *
+   * @param now the current time in milliseconds
+   */
+  void advance(long now) {
+    final long nowTick = now / tickMillis;
+
+    WheelTimeout timeout;
+    while ((timeout = cancelled.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+
+    while ((timeout = incoming.poll()) != null) {
+      if (timeout.state != WheelTimeout.PENDING) {
+        continue;
+      } else if (timeout.deadline <= now) {
+        timeout.expire();
+      } else {
+        // Rounded up, so that the timeout is due whenever its bucket is visited from then on
+        buckets[(int) (ceilTick(timeout.deadline) & mask)].add(timeout);
+      }
+    }
+
+    // If more than a whole round elapsed, every bucket is visited only once
+    long fromTick = lastTick < 0 ? nowTick - mask : max(lastTick + 1, nowTick - mask);
+    for (long tick = fromTick; tick <= nowTick; tick++) {
+      buckets[(int) (tick & mask)].expire(now);
+    }
+    lastTick = nowTick;
+  }
+
+  private long ceilTick(long time) {
+    return time / tickMillis + (time % tickMillis == 0 ? 0 : 1);
+  }
+
+  private final class WheelTimeout implements Timeout {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final Runnable task;
+    private final long deadline;
+    // Not private so that STATE_UPDATER can access it
+    volatile int state = PENDING;
+
+    // Only accessed by the thread advancing the wheel
+    private Bucket bucket;
+    private WheelTimeout previous;
+    private WheelTimeout next;
+
+    private WheelTimeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!STATE_UPDATER.compareAndSet(this, PENDING, CANCELLED)) {
+        return false;
+      }
+      pending.decrementAndGet();
+      // Unlinked from its bucket on the next advance, so cancelled timeouts don't wait for their deadline to be released
+      cancelled.add(this);
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state == CANCELLED;
+    }
+
+    @Override
+    public boolean isExpired() {
+      return state == EXPIRED;
+    }
+
+    private void expire() {
+      if (!STATE_UPDATER.compareAndSet(this, PENDING, EXPIRED)) {
+        return;
+      }
+      pending.decrementAndGet();
+      try {
+        task.run();
+      } catch (Throwable t) {
+        LOGGER.error("Exception running timer task", t);
+      }
+    }
+  }
+
+  private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+  /**
+   * Doubly linked list of the timeouts that fall on the same tick of the wheel, so cancelled ones can be removed without going
+   * through the rest.
+   */
+  private static final class Bucket {
+
+    private WheelTimeout head;
+    private WheelTimeout tail;
+
+    private void add(WheelTimeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.previous = tail;
+        tail = timeout;
+      }
+    }
+
+    private void remove(WheelTimeout timeout) {
+      WheelTimeout next = timeout.next;
+      if (timeout.previous != null) {
+        timeout.previous.next = next;
+      }
+      if (next != null) {
+        next.previous = timeout.previous;
+      }
+      if (timeout == head) {
+        head = next;
+      }
+      if (timeout == tail) {
+        tail = timeout.previous;
+      }
+      timeout.previous = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+
+    /**
+     * Runs the timeouts which deadline is not after {@code now}. The ones that remain are due in a later round.
+     */
+    private void expire(long now) {
+      WheelTimeout timeout = head;
+      while (timeout != null) {
+        WheelTimeout next = timeout.next;
+        if (timeout.deadline <= now) {
+          remove(timeout);
+          timeout.expire();
+        } else if (timeout.isCancelled()) {
+          remove(timeout);
+        }
+        timeout = next;
+      }
+    }
+  }
+}
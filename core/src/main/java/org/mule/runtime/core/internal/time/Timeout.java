@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+/**
+ * A task scheduled in a {@link TimerService}.
+ *
+ * @since 4.2
+ */
+public interface Timeout {
+
+  /**
+   * Cancels the task, if it didn't run yet.
+   *
+   * @return {@code true} if the task was cancelled, {@code false} if it already ran or was already cancelled
+   */
+  boolean cancel();
+
+  /**
+   * @return whether the task was cancelled before running
+   */
+  boolean isCancelled();
+
+  /**
+   * @return whether the deadline of the task was reached and the task ran
+   */
+  boolean isExpired();
+}
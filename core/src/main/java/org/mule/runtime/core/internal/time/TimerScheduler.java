@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.callable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Scheduler} which delayed tasks are kept track of by a {@link TimerService} instead of by the delay queue of a
+ * {@link Scheduler}, running them on a dispatcher {@link Scheduler} once due. Every other task goes straight to the dispatcher.
+ *
+ * @since 4.2
+ */
+final class TimerScheduler implements Scheduler {
+
+  private final TimerService timerService;
+  private final Scheduler dispatcher;
+  private volatile boolean stopped = false;
+
+  TimerScheduler(TimerService timerService, Scheduler dispatcher) {
+    this.timerService = timerService;
+    this.dispatcher = dispatcher;
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return schedule(callable(command), delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    if (stopped) {
+      throw new RejectedExecutionException("Scheduler '" + getName() + "' is stopped.");
+    }
+
+    long now = nanoTime();
+    long delayNanos = unit.toNanos(delay);
+    long deadline = now + delayNanos;
+    // Such long delays as the ones used to mean no timeout at all would overflow
+    TimerFuture<V> future = new TimerFuture<>(callable, delayNanos > 0 && deadline < now ? Long.MAX_VALUE : deadline);
+    future.timeout = timerService.newTimeout(() -> dispatch(future), delay, unit);
+    return future;
+  }
+
+  private void dispatch(TimerFuture<?> future) {
+    if (future.isDone()) {
+      return;
+    }
+    if (stopped) {
+      future.cancel(false);
+      return;
+    }
+    try {
+      dispatcher.execute(future);
+    } catch (RejectedExecutionException e) {
+      future.reject(e);
+    }
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    return dispatcher.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    return dispatcher.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression) {
+    return dispatcher.scheduleWithCronExpression(command, cronExpression);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression, TimeZone timeZone) {
+    return dispatcher.scheduleWithCronExpression(command, cronExpression, timeZone);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    dispatcher.execute(command);
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    return dispatcher.submit(task);
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    return dispatcher.submit(task, result);
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    return dispatcher.submit(task);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    return dispatcher.invokeAll(tasks);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return dispatcher.invokeAll(tasks, timeout, unit);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    return dispatcher.invokeAny(tasks);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return dispatcher.invokeAny(tasks, timeout, unit);
+  }
+
+  @Override
+  public void shutdown() {
+    stopped = true;
+    dispatcher.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    stopped = true;
+    return dispatcher.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return dispatcher.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return dispatcher.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return dispatcher.awaitTermination(timeout, unit);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Delayed tasks that are not due yet are cancelled when they are.
+   */
+  @Override
+  public void stop() {
+    stopped = true;
+    dispatcher.stop();
+  }
+
+  @Override
+  public String getName() {
+    return dispatcher.getName();
+  }
+
+  @Override
+  public String toString() {
+    return "TimerScheduler{" + dispatcher + "}";
+  }
+
+  private static final class TimerFuture<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+    private final long deadlineNanos;
+    private volatile Timeout timeout;
+
+    private TimerFuture(Callable<V> callable, long deadlineNanos) {
+      super(callable);
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadlineNanos - nanoTime(), NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return other == this ? 0 : Long.compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      Timeout currentTimeout = timeout;
+      if (currentTimeout != null) {
+        currentTimeout.cancel();
+      }
+      return super.cancel(mayInterruptIfRunning);
+    }
+
+    private void reject(Throwable t) {
+      setException(t);
+    }
+  }
+}
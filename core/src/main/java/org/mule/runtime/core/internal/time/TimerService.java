@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.time;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of timeouts for the whole artifact on a single timer, for components which have to deal with lots of them, like
+ * retries or routes that may time out.
+ * <p>
+ * Timeouts are cheap to schedule and to cancel, no matter how many of them are pending, but they are not precise: they may be
+ * late by a few milliseconds.
+ *
+ * @since 4.2
+ */
+public interface TimerService {
+
+  /**
+   * Schedules a task to be run once the given delay elapses. The task is run by the timer, so it has to be quick and must not
+   * block. Work that is not trivial has to be dispatched to a {@link Scheduler}.
+   *
+   * @param task the task to run
+   * @param delay the time from now to delay the task
+   * @param unit the time unit of the delay
+   * @return a {@link Timeout} to cancel the task with
+   */
+  Timeout newTimeout(Runnable task, long delay, TimeUnit unit);
+
+  /**
+   * Creates a {@link Scheduler} that keeps track of its delayed tasks with this timer, and runs them and any other task in the
+   * given {@code dispatcher}. Periodic tasks are scheduled in the {@code dispatcher}.
+   * <p>
+   * Stopping the returned scheduler stops the {@code dispatcher} too.
+   *
+   * @param dispatcher the scheduler to run the tasks on
+   * @return a scheduler which delayed tasks are kept track of by this timer
+   */
+  Scheduler timerScheduler(Scheduler dispatcher);
+}
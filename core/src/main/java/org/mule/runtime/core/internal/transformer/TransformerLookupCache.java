@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static java.util.Optional.ofNullable;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.core.api.transformer.Transformer;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Caches the outcome of looking up the {@link Transformer} that converts between a pair of {@link DataType}s, including the
+ * pairs for which there is none unless created with {@code cacheMissing} as {@code false}.
+ * <p>
+ * A cached lookup is a single access to a bounded cache without any locking. Media type parameters other than the charset, such
+ * as a multipart boundary, are left out of the cache keys so that data types that change from one message to the next don't
+ * fill the cache. Every cached outcome is discarded by {@link #clear()} when the available transformers change.
+ *
+ * @since 4.2
+ */
+public final class TransformerLookupCache {
+
+  private static final int MAX_SIZE = 1000;
+
+  private final boolean cacheMissing;
+
+  private final Cache<ConversionKey, Optional<Transformer>> table = newBuilder().maximumSize(MAX_SIZE).build();
+  private volatile int generation;
+
+  /**
+   * Creates a cache that also caches the pairs for which there is no {@link Transformer}.
+   */
+  public TransformerLookupCache() {
+    this(true);
+  }
+
+  /**
+   * @param cacheMissing whether the pairs for which there is no {@link Transformer} are cached. Should be {@code false} when the
+   *        cache may be cleared before everything the lookup relies on is updated, since a stale miss would then be kept until
+   *        the next {@link #clear()}.
+   */
+  public TransformerLookupCache(boolean cacheMissing) {
+    this.cacheMissing = cacheMissing;
+  }
+
+  /**
+   * Returns the cached outcome of looking up a {@link Transformer} from {@code source} to {@code result}, or performs the lookup
+   * and caches it if there is none.
+   *
+   * @param source the data type to convert from
+   * @param result the data type to convert to
+   * @param lookup the lookup to perform if its outcome is not cached
+   * @return the {@link Transformer} found, or {@code null} if there is none
+   * @throws E if {@code lookup} fails. Failures are not cached.
+   */
+  public <E extends Exception> Transformer resolve(DataType source, DataType result, TransformerLookup<E> lookup) throws E {
+    ConversionKey key = new ConversionKey(source, result);
+    Optional<Transformer> cached = table.getIfPresent(key);
+    if (cached != null) {
+      return cached.orElse(null);
+    }
+
+    int lookupGeneration = generation;
+    Transformer transformer = lookup.lookup(source, result);
+    if (transformer == null && !cacheMissing) {
+      return null;
+    }
+    return publish(key, ofNullable(transformer), lookupGeneration).orElse(null);
+  }
+
+  private synchronized Optional<Transformer> publish(ConversionKey key, Optional<Transformer> transformer, int lookupGeneration) {
+    // The outcome is not cached if the transformers changed while looking it up, as it may be stale
+    if (lookupGeneration != generation) {
+      return transformer;
+    }
+
+    Optional<Transformer> concurrentlyAdded = table.asMap().putIfAbsent(key, transformer);
+    return concurrentlyAdded != null ? concurrentlyAdded : transformer;
+  }
+
+  /**
+   * Discards every cached outcome. To be called whenever the transformers that lookups may find change.
+   */
+  public synchronized void clear() {
+    generation++;
+    table.invalidateAll();
+  }
+
+  /**
+   * @return the number of cached outcomes
+   */
+  public int size() {
+    table.cleanUp();
+    return (int) table.estimatedSize();
+  }
+
+  /**
+   * Looks up the {@link Transformer} that converts between a pair of {@link DataType}s.
+   *
+   * @param <E> the type of exception the lookup may throw
+   */
+  @FunctionalInterface
+  public interface TransformerLookup<E extends Exception> {
+
+    /**
+     * @param source the data type to convert from
+     * @param result the data type to convert to
+     * @return the {@link Transformer} found, or {@code null} if there is none
+     * @throws E if the lookup fails
+     */
+    Transformer lookup(DataType source, DataType result) throws E;
+  }
+
+  private static final class ConversionKey {
+
+    private final DataType source;
+    private final DataType result;
+    private final int hashCode;
+
+    private ConversionKey(DataType source, DataType result) {
+      this.source = withoutParameters(source);
+      this.result = withoutParameters(result);
+      this.hashCode = 31 * source.hashCode() + result.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ConversionKey)) {
+        return false;
+      }
+      ConversionKey other = (ConversionKey) obj;
+      return hashCode == other.hashCode && Objects.equals(source, other.source) && Objects.equals(result, other.result);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    private static DataType withoutParameters(DataType dataType) {
+      MediaType mediaType = dataType.getMediaType();
+      MediaType normalized =
+          MediaType.create(mediaType.getPrimaryType(), mediaType.getSubType()).withCharset(mediaType.getCharset().orElse(null));
+      return normalized.equals(mediaType) ? dataType : DataType.builder(dataType).mediaType(normalized).build();
+    }
+  }
+}
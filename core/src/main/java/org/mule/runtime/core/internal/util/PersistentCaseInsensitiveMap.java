@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable {@link Map} with {@link String} keys that are compared without case sensitivity, as in
+ * {@link org.mule.runtime.core.api.util.CaseInsensitiveHashMap}. The case of the keys is preserved.
+ * <p>
+ * Instead of being modified, new versions of the map are derived through {@link #plus(String, Object)} and
+ * {@link #minus(String)}. This is a hash array mapped trie, so a new version shares all of its structure with the previous one
+ * except for the path to the modified entry, making derivation O(log<sub>32</sub> n) in both time and memory instead of
+ * requiring a copy of the whole map.
+ * <p>
+ * Mutator methods of the {@link Map} interface throw {@link UnsupportedOperationException}. Null keys are not supported.
+ *
+ * @param <V> the type of the values of the map
+ * @since 4.2
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = 4616541524520447406L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 32 / BITS + 2;
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentCaseInsensitiveMap EMPTY = new PersistentCaseInsensitiveMap<>(null, 0);
+
+  private final transient Node root;
+  private final transient int size;
+  private transient Set<Entry<String, V>> entrySet;
+
+  /**
+   * @return an empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> emptyPersistentMap() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns a map with the entries of the given {@code map}. If it already is a {@link PersistentCaseInsensitiveMap}, the same
+   * instance is returned.
+   *
+   * @param map the map to copy
+   * @return a {@link PersistentCaseInsensitiveMap}
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+
+    PersistentCaseInsensitiveMap<V> copy = emptyPersistentMap();
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  private PersistentCaseInsensitiveMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a map with the entries of this one plus the given one. If there's already an entry for the given {@code key}, its
+   * value is replaced while keeping the case of the original key.
+   *
+   * @param key the key of the entry
+   * @param value the value of the entry
+   * @return a new map, or this same instance if it already contains the given entry
+   */
+  public PersistentCaseInsensitiveMap<V> plus(String key, V value) {
+    requireNonNull(key, "key cannot be null");
+
+    Leaf leaf = new Leaf(hash(key), key, value);
+    if (root == null) {
+      return new PersistentCaseInsensitiveMap<>(new BitmapNode(leaf.hash, leaf), 1);
+    }
+
+    boolean[] added = new boolean[1];
+    Node newRoot = root.plus(0, leaf, added);
+    return newRoot == root ? this : new PersistentCaseInsensitiveMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * @param key the key of the entry to remove
+   * @return a new map without the entry for the given {@code key}, or this same instance if there was no such entry
+   */
+  public PersistentCaseInsensitiveMap<V> minus(String key) {
+    if (root == null || key == null) {
+      return this;
+    }
+
+    Node newRoot = root.minus(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? emptyPersistentMap() : new PersistentCaseInsensitiveMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public V get(Object key) {
+    Leaf leaf = find(key);
+    return leaf != null ? (V) leaf.value : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  private Leaf find(Object key) {
+    if (root == null || !(key instanceof String)) {
+      return null;
+    }
+
+    final String stringKey = (String) key;
+    return root.find(0, hash(stringKey), stringKey);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new LeafIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private Object writeReplace() {
+    String[] keys = new String[size];
+    Object[] values = new Object[size];
+    int i = 0;
+    for (Entry<String, V> entry : entrySet()) {
+      keys[i] = entry.getKey();
+      values[i++] = entry.getValue();
+    }
+    return new SerializedForm(keys, values);
+  }
+
+  /**
+   * Computes a hash consistent with {@link String#equalsIgnoreCase(String)} without creating a lower case copy of the key.
+   */
+  private static int hash(String key) {
+    int h = 0;
+    for (int i = 0; i < key.length(); i++) {
+      h = 31 * h + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static int fragment(int hash, int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << fragment(hash, shift);
+  }
+
+  private static Object[] insert(Object[] elements, int index, Object element) {
+    Object[] copy = new Object[elements.length + 1];
+    arraycopy(elements, 0, copy, 0, index);
+    copy[index] = element;
+    arraycopy(elements, index, copy, index + 1, elements.length - index);
+    return copy;
+  }
+
+  private static Object[] replace(Object[] elements, int index, Object element) {
+    Object[] copy = elements.clone();
+    copy[index] = element;
+    return copy;
+  }
+
+  private static Object[] delete(Object[] elements, int index) {
+    Object[] copy = new Object[elements.length - 1];
+    arraycopy(elements, 0, copy, 0, index);
+    arraycopy(elements, index + 1, copy, index, elements.length - index - 1);
+    return copy;
+  }
+
+  /**
+   * Creates the node that holds two leaves whose hashes collide up to {@code shift}.
+   */
+  private static Node merge(int shift, Leaf first, Leaf second) {
+    if (first.hash == second.hash) {
+      return new CollisionNode(new Object[] {first, second});
+    }
+
+    int firstBit = bit(first.hash, shift);
+    int secondBit = bit(second.hash, shift);
+    if (firstBit == secondBit) {
+      return new BitmapNode(firstBit, new Object[] {merge(shift + BITS, first, second)});
+    }
+    // elements are sorted by their position in the bitmap
+    return new BitmapNode(firstBit | secondBit, fragment(first.hash, shift) < fragment(second.hash, shift)
+        ? new Object[] {first, second}
+        : new Object[] {second, first});
+  }
+
+  /**
+   * A node of the trie. Its elements are either {@link Leaf leaves} or other nodes.
+   */
+  private static abstract class Node {
+
+    final Object[] elements;
+
+    Node(Object[] elements) {
+      this.elements = elements;
+    }
+
+    abstract Leaf find(int shift, int hash, String key);
+
+    abstract Node plus(int shift, Leaf leaf, boolean[] added);
+
+    /**
+     * @return the new node, {@code null} if it became empty, or this same instance if it didn't contain the key
+     */
+    abstract Node minus(int shift, int hash, String key);
+
+    /**
+     * @return the only element of this node if it is a leaf, so that it can be inlined in the parent node
+     */
+    Leaf singleLeaf() {
+      return elements.length == 1 && elements[0] instanceof Leaf ? (Leaf) elements[0] : null;
+    }
+  }
+
+  private static final class BitmapNode extends Node {
+
+    private final int bitmap;
+
+    BitmapNode(int hash, Leaf leaf) {
+      this(bit(hash, 0), new Object[] {leaf});
+    }
+
+    BitmapNode(int bitmap, Object[] elements) {
+      super(elements);
+      this.bitmap = bitmap;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Leaf find(int shift, int hash, String key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      Object element = elements[index(bit)];
+      if (element instanceof Leaf) {
+        Leaf leaf = (Leaf) element;
+        return leaf.matches(hash, key) ? leaf : null;
+      }
+      return ((Node) element).find(shift + BITS, hash, key);
+    }
+
+    @Override
+    Node plus(int shift, Leaf leaf, boolean[] added) {
+      int bit = bit(leaf.hash, shift);
+      int index = index(bit);
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, insert(elements, index, leaf));
+      }
+
+      Object element = elements[index];
+      if (element instanceof Leaf) {
+        Leaf existing = (Leaf) element;
+        if (existing.matches(leaf.hash, leaf.key)) {
+          if (existing.value == leaf.value) {
+            return this;
+          }
+          return new BitmapNode(bitmap, replace(elements, index, new Leaf(existing.hash, existing.key, leaf.value)));
+        }
+        added[0] = true;
+        return new BitmapNode(bitmap, replace(elements, index, merge(shift + BITS, existing, leaf)));
+      }
+
+      Node child = (Node) element;
+      Node newChild = child.plus(shift + BITS, leaf, added);
+      return newChild == child ? this : new BitmapNode(bitmap, replace(elements, index, newChild));
+    }
+
+    @Override
+    Node minus(int shift, int hash, String key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      int index = index(bit);
+      Object element = elements[index];
+      if (element instanceof Leaf) {
+        if (!((Leaf) element).matches(hash, key)) {
+          return this;
+        }
+        return elements.length == 1 ? null : new BitmapNode(bitmap & ~bit, delete(elements, index));
+      }
+
+      Node child = (Node) element;
+      Node newChild = child.minus(shift + BITS, hash, key);
+      if (newChild == child) {
+        return this;
+      } else if (newChild == null) {
+        return elements.length == 1 ? null : new BitmapNode(bitmap & ~bit, delete(elements, index));
+      }
+
+      Leaf singleLeaf = newChild.singleLeaf();
+      return new BitmapNode(bitmap, replace(elements, index, singleLeaf != null ? singleLeaf : newChild));
+    }
+  }
+
+  /**
+   * Holds the leaves whose keys have the exact same hash.
+   */
+  private static final class CollisionNode extends Node {
+
+    CollisionNode(Object[] leaves) {
+      super(leaves);
+    }
+
+    private int indexOf(int hash, String key) {
+      for (int i = 0; i < elements.length; i++) {
+        if (((Leaf) elements[i]).matches(hash, key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Leaf find(int shift, int hash, String key) {
+      int index = indexOf(hash, key);
+      return index >= 0 ? (Leaf) elements[index] : null;
+    }
+
+    @Override
+    Node plus(int shift, Leaf leaf, boolean[] added) {
+      int index = indexOf(leaf.hash, leaf.key);
+      if (index < 0) {
+        added[0] = true;
+        return new CollisionNode(insert(elements, elements.length, leaf));
+      }
+
+      Leaf existing = (Leaf) elements[index];
+      if (existing.value == leaf.value) {
+        return this;
+      }
+      return new CollisionNode(replace(elements, index, new Leaf(existing.hash, existing.key, leaf.value)));
+    }
+
+    @Override
+    Node minus(int shift, int hash, String key) {
+      int index = indexOf(hash, key);
+      if (index < 0) {
+        return this;
+      }
+      return new CollisionNode(delete(elements, index));
+    }
+  }
+
+  private static final class Leaf implements Entry<String, Object> {
+
+    private final int hash;
+    private final String key;
+    private final Object value;
+
+    Leaf(int hash, String key, Object value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+
+    boolean matches(int hash, String key) {
+      return this.hash == hash && this.key.equalsIgnoreCase(key);
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public Object getValue() {
+      return value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> other = (Entry<?, ?>) obj;
+      return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  /**
+   * Traverses the trie depth first.
+   */
+  private static final class LeafIterator<V> implements Iterator<Entry<String, V>> {
+
+    private final Object[][] stack = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+    private Leaf next;
+
+    LeafIterator(Node root) {
+      if (root != null) {
+        stack[++depth] = root.elements;
+        advance();
+      }
+    }
+
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Object[] elements = stack[depth];
+        if (positions[depth] == elements.length) {
+          positions[depth--] = 0;
+          continue;
+        }
+
+        Object element = elements[positions[depth]++];
+        if (element instanceof Leaf) {
+          next = (Leaf) element;
+          return;
+        }
+        stack[++depth] = ((Node) element).elements;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Entry<String, V> current = (Entry) next;
+      advance();
+      return current;
+    }
+  }
+
+  private static final class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = -2436163633838291404L;
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private SerializedForm(String[] keys, Object[] values) {
+      this.keys = keys;
+      this.values = values;
+    }
+
+    private Object readResolve() {
+      PersistentCaseInsensitiveMap<Object> map = emptyPersistentMap();
+      for (int i = 0; i < keys.length; i++) {
+        map = map.plus(keys[i], values[i]);
+      }
+      return map;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Long.divideUnsigned;
+import static java.lang.Long.remainderUnsigned;
+import static java.lang.Math.max;
+import static java.lang.System.currentTimeMillis;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time based (type 1) UUIDs without any locking.
+ * <p>
+ * Each thread has its own generator, which node part is unique among the threads of this JVM, so the only shared state is the
+ * counter touched once per thread to compute it. The time part is the current time in 100ns units, bumped by one when the
+ * previous one was already used by the thread, so the ids a thread generates are increasing.
+ * <p>
+ * Instead of a MAC address, the node part is derived from a random value drawn once per JVM, so ids from different JVMs don't
+ * collide either.
+ *
+ * @since 4.2
+ */
+public final class UUIDGenerator {
+
+  // Offset between the UUID epoch (1582-10-15) and the unix one, in 100ns units
+  private static final long UUID_EPOCH_OFFSET = 0x01B21DD213814000L;
+  private static final long VARIANT = 0x8000000000000000L;
+  private static final long NODE_MASK = 0x3FFFFFFFFFFFFFFFL;
+  private static final int UUID_LENGTH = 36;
+  private static final int COMPACT_LENGTH = 22;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final char[] BASE62_DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+  private static final long NODE_SEED = new SecureRandom().nextLong();
+  private static final AtomicLong THREAD_SEQUENCE = new AtomicLong();
+
+  private static final ThreadLocal<UUIDGenerator> GENERATORS = ThreadLocal.withInitial(UUIDGenerator::new);
+
+  private final long leastSignificantBits;
+  private long lastTimestamp;
+  private char[] buffer = new char[UUID_LENGTH];
+
+  private UUIDGenerator() {
+    // XOR with a distinct sequence number keeps the nodes of the threads of this JVM distinct
+    leastSignificantBits = VARIANT | ((NODE_SEED ^ THREAD_SEQUENCE.incrementAndGet()) & NODE_MASK);
+  }
+
+  /**
+   * @return the generator of the current thread
+   */
+  public static UUIDGenerator generator() {
+    return GENERATORS.get();
+  }
+
+  /**
+   * @return a new UUID in its canonical 36 characters form
+   */
+  public String nextUUID() {
+    return nextUUID("");
+  }
+
+  /**
+   * @param prefix text to put in front of the UUID
+   * @return a new UUID in its canonical 36 characters form, preceded by {@code prefix}
+   */
+  public String nextUUID(String prefix) {
+    int prefixLength = prefix.length();
+    char[] chars = buffer(prefixLength + UUID_LENGTH);
+    prefix.getChars(0, prefixLength, chars, 0);
+
+    long mostSignificantBits = nextMostSignificantBits();
+    int offset = appendHex(chars, prefixLength, mostSignificantBits >>> 32, 8);
+    chars[offset++] = '-';
+    offset = appendHex(chars, offset, mostSignificantBits >>> 16, 4);
+    chars[offset++] = '-';
+    offset = appendHex(chars, offset, mostSignificantBits, 4);
+    chars[offset++] = '-';
+    offset = appendHex(chars, offset, leastSignificantBits >>> 48, 4);
+    chars[offset++] = '-';
+    offset = appendHex(chars, offset, leastSignificantBits, 12);
+    return new String(chars, 0, offset);
+  }
+
+  /**
+   * @return a new UUID in a compact 22 characters form, using only letters and digits
+   */
+  public String nextCompactUUID() {
+    char[] chars = buffer(COMPACT_LENGTH);
+    appendBase62(chars, 0, nextMostSignificantBits());
+    appendBase62(chars, COMPACT_LENGTH / 2, leastSignificantBits);
+    return new String(chars, 0, COMPACT_LENGTH);
+  }
+
+  /**
+   * Generates the most significant bits of a new UUID, which together with {@link #getLeastSignificantBits()} are its binary
+   * form.
+   *
+   * @return the most significant bits of the new UUID
+   */
+  public long nextMostSignificantBits() {
+    lastTimestamp = max(lastTimestamp + 1, currentTimeMillis() * 10000 + UUID_EPOCH_OFFSET);
+    // time_low, time_mid, version and time_hi, as laid out by RFC 4122
+    return (lastTimestamp << 32) | ((lastTimestamp >>> 16) & 0xFFFF0000L) | 0x1000L | ((lastTimestamp >>> 48) & 0x0FFFL);
+  }
+
+  /**
+   * @return the least significant bits of the UUIDs generated by this generator, which are the same for all of them
+   */
+  public long getLeastSignificantBits() {
+    return leastSignificantBits;
+  }
+
+  private char[] buffer(int length) {
+    if (buffer.length < length) {
+      buffer = new char[length];
+    }
+    return buffer;
+  }
+
+  private static int appendHex(char[] chars, int offset, long value, int digits) {
+    for (int i = digits - 1; i >= 0; i--) {
+      chars[offset + i] = HEX_DIGITS[(int) (value & 0xF)];
+      value >>>= 4;
+    }
+    return offset + digits;
+  }
+
+  private static void appendBase62(char[] chars, int offset, long value) {
+    // 11 base 62 digits fit any unsigned 64 bits value
+    chars[offset + 10] = BASE62_DIGITS[(int) remainderUnsigned(value, 62)];
+    value = divideUnsigned(value, 62);
+    for (int i = 9; i >= 0; i--) {
+      chars[offset + i] = BASE62_DIGITS[(int) (value % 62)];
+      value /= 62;
+    }
+  }
+}
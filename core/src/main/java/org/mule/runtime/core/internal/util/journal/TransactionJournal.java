@@ -6,6 +6,10 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Long.getLong;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -25,12 +29,18 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * When {@link #GROUP_COMMIT_PROPERTY_KEY} is enabled, entries are forced to disk before the log operations return, and the
+ * entries logged concurrently by different transactions are written together so they share the cost of a single sync.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  public static final String GROUP_COMMIT_PROPERTY_KEY = "mule.queue.journal.groupCommit";
+  public static final String GROUP_COMMIT_WINDOW_PROPERTY_KEY = "mule.queue.journal.groupCommitWindowMicros";
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
@@ -72,10 +82,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
+    boolean groupCommit = getBoolean(GROUP_COMMIT_PROPERTY_KEY);
+    long groupCommitWindowNanos = MICROSECONDS.toNanos(getLong(GROUP_COMMIT_WINDOW_PROPERTY_KEY, 0L));
     this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+                                   groupCommit, groupCommitWindowNanos);
     this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+                                   groupCommit, groupCommitWindowNanos);
     this.transactionCompletePredicate = transactionCompletePredicate;
 
   }
@@ -92,9 +106,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.appendOperation(journalEntry);
+    }
+    logFile.awaitDurable(sequence);
   }
 
   /**
@@ -104,12 +123,18 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.appendOperation(journalEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    // Waiting for the sync is done outside the lock so that other transactions can join the same batch
+    logFile.awaitDurable(sequence);
   }
 
   /**
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
@@ -13,6 +15,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -21,15 +24,26 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 /**
  * Manages a transaction journal file.
+ * <p>
+ * When created in group commit mode, entries are serialized to an in-memory batch and the thread that logged them waits in
+ * {@link #awaitDurable(long)} until they are on disk. The first waiting thread becomes the leader: it waits for the configured
+ * window so that other transactions can join the batch, and then writes and forces the whole batch at once, releasing every
+ * thread whose entries were part of it. If writing a batch fails, the file is truncated back to its last durable length and
+ * every thread whose entries were part of the batch gets the failure.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -51,8 +65,21 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
   private DataOutputStream logFileOutputStream;
+  private FileChannel logFileChannel;
   private int journalOperations = 0;
 
+  private final boolean groupCommit;
+  private final long groupCommitWindowNanos;
+  private final ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+  private final DataOutputStream pendingOutputStream = new DataOutputStream(pendingBytes);
+  private long appendedSequence = 0;
+  private long durableSequence = 0;
+  private long batchFirstSequence = 1;
+  private long durableLength = 0;
+  private boolean flushing = false;
+  // Batches that could not be written, by their last sequence, until the threads waiting for their entries are notified
+  private final NavigableMap<Long, FailedBatch> failedBatches = new TreeMap<>();
+
   /**
    * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
    *        loaded from it.
@@ -61,9 +88,25 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, false, 0);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommit whether entries logged concurrently must be written and forced to disk together
+   * @param groupCommitWindowNanos time the thread writing a batch waits for other entries to join it
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                boolean groupCommit, long groupCommitWindowNanos) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.groupCommit = groupCommit;
+    this.groupCommitWindowNanos = groupCommitWindowNanos;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
@@ -75,10 +118,154 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    awaitDurable(appendOperation(journalEntry));
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource without waiting for it to be written when in group
+   * commit mode. {@link #awaitDurable(long)} must be invoked afterwards with the returned sequence.
+   *
+   * @param journalEntry operation details
+   * @return the sequence of the appended entry
+   */
+  public synchronized long appendOperation(K journalEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+    journalEntrySerializer.serialize(journalEntry, groupCommit ? pendingOutputStream : logFileOutputStream);
     journalOperations++;
+    return ++appendedSequence;
+  }
+
+  /**
+   * Waits until the entry with the given sequence has been written and forced to disk. Does nothing if not in group commit mode.
+   *
+   * @param sequence the sequence returned by {@link #appendOperation(JournalEntry)}
+   * @throws MuleRuntimeException if the batch the entry was part of could not be written
+   */
+  public void awaitDurable(long sequence) {
+    if (!groupCommit) {
+      return;
+    }
+
+    boolean interrupted = false;
+    try {
+      while (true) {
+        synchronized (this) {
+          while (flushing && durableSequence < sequence) {
+            try {
+              wait();
+            } catch (InterruptedException e) {
+              interrupted = true;
+            }
+          }
+          // Checked first, as later batches may have been written after the one with the entry failed
+          checkNotFailed(sequence);
+          if (durableSequence >= sequence) {
+            return;
+          }
+          flushing = true;
+        }
+
+        if (groupCommitWindowNanos > 0) {
+          parkNanos(groupCommitWindowNanos);
+        }
+        writePendingBatch();
+      }
+    } finally {
+      if (interrupted) {
+        currentThread().interrupt();
+      }
+    }
+  }
+
+  private void checkNotFailed(long sequence) {
+    if (failedBatches.isEmpty()) {
+      return;
+    }
+    Entry<Long, FailedBatch> failedBatch = failedBatches.ceilingEntry(sequence);
+    if (failedBatch != null && failedBatch.getValue().firstSequence <= sequence) {
+      if (--failedBatch.getValue().pendingEntries == 0) {
+        failedBatches.remove(failedBatch.getKey());
+      }
+      throw new MuleRuntimeException(failedBatch.getValue().cause);
+    }
+  }
+
+  /**
+   * Writes and forces the pending batch. Must be invoked by the thread that set {@link #flushing}. If it fails, the failure is
+   * kept for the threads waiting for the entries of the batch.
+   */
+  private void writePendingBatch() {
+    byte[] batch;
+    long firstSequence;
+    long lastSequence;
+    synchronized (this) {
+      batch = pendingBytes.toByteArray();
+      pendingBytes.reset();
+      firstSequence = batchFirstSequence;
+      lastSequence = appendedSequence;
+      batchFirstSequence = appendedSequence + 1;
+    }
+
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(batch);
+      while (buffer.hasRemaining()) {
+        logFileChannel.write(buffer);
+      }
+      logFileChannel.force(false);
+      synchronized (this) {
+        durableSequence = lastSequence;
+        durableLength += batch.length;
+      }
+    } catch (IOException e) {
+      LOGGER.error("Error writing transaction journal file " + journalFile.getAbsolutePath(), e);
+      discardPartialBatch();
+      synchronized (this) {
+        if (firstSequence <= lastSequence) {
+          failedBatches.put(lastSequence, new FailedBatch(firstSequence, lastSequence, e));
+        }
+      }
+    } finally {
+      synchronized (this) {
+        flushing = false;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Removes what may have been written of a failed batch, so the entries of later batches can be read back.
+   */
+  private void discardPartialBatch() {
+    try {
+      logFileChannel.truncate(durableLength);
+    } catch (IOException e) {
+      LOGGER.warn("Could not discard the failed batch from transaction journal file " + journalFile.getAbsolutePath() + ": "
+          + e.getMessage());
+    }
+  }
+
+  /**
+   * Synchronously writes any pending batch so the file can be closed or cleared. Must be invoked while holding the lock on
+   * {@code this}.
+   */
+  private void flushPendingBatch() {
+    if (!groupCommit) {
+      return;
+    }
+
+    while (flushing) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        break;
+      }
+    }
+    if (durableSequence < appendedSequence) {
+      flushing = true;
+      writePendingBatch();
+    }
   }
 
   /**
@@ -120,6 +307,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    flushPendingBatch();
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -157,6 +345,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public synchronized void clear() {
     close();
+    pendingBytes.reset();
     entries.clear();
     FileUtils.deleteQuietly(journalFile);
     createLogOutputStream();
@@ -171,12 +360,22 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
-    } catch (FileNotFoundException e) {
+      FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true);
+      this.logFileChannel = fileOutputStream.getChannel();
+      this.logFileOutputStream = new DataOutputStream(fileOutputStream);
+      this.durableLength = logFileChannel.size();
+    } catch (IOException e) {
       throw new MuleRuntimeException(e);
     }
   }
 
+  /**
+   * @return the channel the batches are written to in group commit mode
+   */
+  FileChannel getLogFileChannel() {
+    return logFileChannel;
+  }
+
   /**
    * This will NOT load transactions that are already complete, according to the given {@code transactionCompletePredicate}.
    * 
@@ -251,5 +450,17 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   public long fileLength() {
     return journalFile.length();
   }
-}
 
+  private static final class FailedBatch {
+
+    private final long firstSequence;
+    private final IOException cause;
+    private int pendingEntries;
+
+    private FailedBatch(long firstSequence, long lastSequence, IOException cause) {
+      this.firstSequence = firstSequence;
+      this.cause = cause;
+      this.pendingEntries = (int) (lastSequence - firstSequence + 1);
+    }
+  }
+}
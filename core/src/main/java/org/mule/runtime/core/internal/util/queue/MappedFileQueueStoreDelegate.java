@@ -0,0 +1,592 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.internal.util.queue.QueueFileProvider.toHex;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that stores the queue data in memory-mapped segment files.
+ * <p/>
+ * Producers and consumers are guarded by separate locks, so adding and taking elements can happen concurrently. The number of
+ * elements in the queue is tracked with an atomic counter that both sides use to decide whether they have to wait.
+ * <p/>
+ * Entries use the same layout as {@link RandomAccessFileQueueStore}: a removed flag, the length of the data and the serialized
+ * element. When a segment is full a new one is created, and segments are deleted once all their entries are consumed. When
+ * {@link #SYNC_WRITES_PROPERTY_KEY} is enabled, which is the default, producers are only released once their entry has been
+ * forced to disk, but concurrent producers share a single force of the segment.
+ * <p/>
+ * On restart every entry not flagged as removed is recovered in the order in which it was written, just like
+ * {@link DualRandomAccessFileQueueStoreDelegate} does.
+ */
+public class MappedFileQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String MAPPED_QUEUE_STORE_PROPERTY_KEY = "mule.queue.mapped";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.mapped.segmentSize";
+  public static final String SYNC_WRITES_PROPERTY_KEY = "mule.queue.mapped.syncWrites";
+
+  private static final int EIGHT_MEGABYTES = 8 * 1024 * 1024;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String SEGMENTS_DIRECTORY_SUFFIX = "-mapped";
+  private static final String SEGMENT_FILE_EXTENSION = ".qseg";
+  private static final String VALID_DIRECTORY_NAME = "[A-Za-z0-9._-]+";
+
+  private static final byte NOT_REMOVED = 0;
+  private static final byte REMOVED = 1;
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final ObjectSerializer serializer;
+  private final int capacity;
+  private final int segmentSize;
+  private final boolean syncWrites;
+  private final File segmentsDirectory;
+
+  private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ConcurrentLinkedDeque<Entry> entries = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger count = new AtomicInteger();
+
+  private final ReentrantLock putLock = new ReentrantLock();
+  private final Condition notFull = putLock.newCondition();
+  private final ReentrantLock takeLock = new ReentrantLock();
+  private final Condition notEmpty = takeLock.newCondition();
+
+  private final Object syncLock = new Object();
+  private final AtomicLong writeSequence = new AtomicLong();
+  private volatile long syncedSequence = 0;
+
+  private volatile Segment writeSegment;
+
+  public MappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this.serializer = muleContext.getObjectSerializer();
+    this.capacity = capacity;
+    this.segmentSize = Integer.getInteger(SEGMENT_SIZE_PROPERTY_KEY, EIGHT_MEGABYTES);
+    this.syncWrites = Boolean.valueOf(System.getProperty(SYNC_WRITES_PROPERTY_KEY, "true"));
+
+    String directoryName = queueName.matches(VALID_DIRECTORY_NAME) ? queueName : toHex(queueName);
+    segmentsDirectory =
+        new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY, directoryName + SEGMENTS_DIRECTORY_SUFFIX);
+    if (!segmentsDirectory.exists()) {
+      Preconditions.checkState(segmentsDirectory.mkdirs(),
+                               "Could not create queue store directory " + segmentsDirectory.getAbsolutePath());
+    }
+    recover();
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    byte[] data = serialize(o);
+    long sequence;
+    putLock.lock();
+    try {
+      sequence = append(data, false);
+      count.incrementAndGet();
+    } finally {
+      putLock.unlock();
+    }
+    signalNotEmpty();
+    sync(sequence);
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    if (capacity > 0 && capacity <= room) {
+      throw new IllegalStateException("Can not add more objects than the capacity in one time");
+    }
+
+    byte[] data = o != null ? serialize(o) : null;
+    long sequence = -1;
+    putLock.lockInterruptibly();
+    try {
+      if (capacity > 0) {
+        long nanos = MILLISECONDS.toNanos(timeout);
+        while (count.get() >= capacity - room) {
+          if (timeout < 0) {
+            notFull.await();
+          } else {
+            if (nanos <= 0L) {
+              return false;
+            }
+            nanos = notFull.awaitNanos(nanos);
+          }
+        }
+      }
+      if (data != null) {
+        sequence = append(data, false);
+        if (count.incrementAndGet() < capacity) {
+          notFull.signalAll();
+        }
+      }
+    } finally {
+      putLock.unlock();
+    }
+
+    if (data != null) {
+      signalNotEmpty();
+      sync(sequence);
+    }
+    return true;
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    Serializable value;
+    takeLock.lockInterruptibly();
+    try {
+      long nanos = MILLISECONDS.toNanos(timeout);
+      while (count.get() == 0) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+
+      Entry entry = entries.pollFirst();
+      value = deserialize(entry.read());
+      entry.markRemoved();
+      if (count.getAndDecrement() > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    signalNotFull();
+    return value;
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    takeLock.lockInterruptibly();
+    try {
+      Entry entry = entries.peekFirst();
+      return entry == null ? null : deserialize(entry.read());
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = serialize(item);
+    long sequence;
+    fullyLock();
+    try {
+      sequence = append(data, true);
+      count.incrementAndGet();
+      notEmpty.signal();
+    } finally {
+      fullyUnlock();
+    }
+    sync(sequence);
+  }
+
+  @Override
+  public int getSize() {
+    return count.get();
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    fullyLock();
+    try {
+      entries.clear();
+      count.set(0);
+      long nextSegmentId = writeSegment.id + 1;
+      for (Segment segment : segments.values()) {
+        segment.delete();
+      }
+      segments.clear();
+      writeSegment = createSegment(nextSegmentId, segmentSize);
+      notFull.signalAll();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    long sequence = -1;
+    putLock.lock();
+    try {
+      for (Serializable item : items) {
+        sequence = append(serialize(item), false);
+        count.incrementAndGet();
+      }
+    } finally {
+      putLock.unlock();
+    }
+    signalNotEmpty();
+    sync(sequence);
+    return true;
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    fullyLock();
+    try {
+      Iterator<Entry> iterator = entries.iterator();
+      while (iterator.hasNext()) {
+        Entry entry = iterator.next();
+        if (deserialize(entry.read()).equals(value)) {
+          iterator.remove();
+          entry.markRemoved();
+          count.decrementAndGet();
+          notFull.signalAll();
+          return;
+        }
+      }
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    fullyLock();
+    try {
+      for (Entry entry : entries) {
+        if (deserialize(entry.read()).equals(value)) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    fullyLock();
+    try {
+      forceAll();
+      for (Segment segment : segments.values()) {
+        segment.close();
+      }
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    fullyLock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.delete();
+      }
+      segments.clear();
+      entries.clear();
+      count.set(0);
+      deleteQuietly(segmentsDirectory);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * Writes the given data at the end of the write segment, creating a new segment if it does not fit. Must be invoked while
+   * holding {@link #putLock}.
+   *
+   * @return the write sequence of the appended entry, to be used for {@link #sync(long)}
+   */
+  private long append(byte[] data, boolean first) {
+    int entrySize = RandomAccessFileQueueStore.CONTROL_DATA_SIZE + data.length;
+    if (writeSegment.remaining() < entrySize) {
+      Segment previous = writeSegment;
+      if (syncWrites) {
+        previous.force();
+      }
+      writeSegment = createSegment(previous.id + 1, Math.max(segmentSize, entrySize));
+      previous.releaseIfUnused();
+    }
+
+    Entry entry = writeSegment.write(data);
+    if (first) {
+      entries.addFirst(entry);
+    } else {
+      entries.addLast(entry);
+    }
+    return writeSequence.incrementAndGet();
+  }
+
+  /**
+   * Forces the write segment to disk unless a concurrent producer already did it after the entry with the given sequence was
+   * written.
+   */
+  private void sync(long sequence) {
+    if (!syncWrites || sequence < 0 || syncedSequence >= sequence) {
+      return;
+    }
+
+    synchronized (syncLock) {
+      if (syncedSequence >= sequence) {
+        return;
+      }
+      long written = writeSequence.get();
+      writeSegment.force();
+      syncedSequence = written;
+    }
+  }
+
+  private void forceAll() {
+    for (Segment segment : segments.values()) {
+      segment.force();
+    }
+  }
+
+  private void recover() {
+    File[] files = segmentsDirectory.listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    if (files == null) {
+      files = new File[0];
+    }
+    // segment files are named after their zero-padded id, so they sort in write order
+    Arrays.sort(files);
+
+    for (File file : files) {
+      String fileName = file.getName();
+      long id = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_FILE_EXTENSION.length()));
+      Segment segment = new Segment(id, file, (int) file.length());
+      segments.put(id, segment);
+      for (Entry entry : segment.recoverEntries()) {
+        entries.addLast(entry);
+        count.incrementAndGet();
+      }
+      Segment previous = writeSegment;
+      writeSegment = segment;
+      if (previous != null) {
+        previous.releaseIfUnused();
+      }
+    }
+
+    if (writeSegment == null) {
+      writeSegment = createSegment(0, segmentSize);
+    }
+  }
+
+  private Segment createSegment(long id, int size) {
+    Segment segment = new Segment(id, new File(segmentsDirectory, format("%020d%s", id, SEGMENT_FILE_EXTENSION)), size);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private byte[] serialize(Serializable value) {
+    return serializer.getInternalProtocol().serialize(value);
+  }
+
+  private Serializable deserialize(byte[] valueAsBytes) {
+    return serializer.getInternalProtocol().deserialize(valueAsBytes);
+  }
+
+  private void signalNotEmpty() {
+    takeLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    if (capacity <= 0) {
+      return;
+    }
+    putLock.lock();
+    try {
+      notFull.signalAll();
+    } finally {
+      putLock.unlock();
+    }
+  }
+
+  private void fullyLock() {
+    putLock.lock();
+    takeLock.lock();
+  }
+
+  private void fullyUnlock() {
+    takeLock.unlock();
+    putLock.unlock();
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  /**
+   * A queue element, located by the segment and the offset of its control data.
+   */
+  private static final class Entry {
+
+    private final Segment segment;
+    private final int offset;
+    private final int length;
+
+    private Entry(Segment segment, int offset, int length) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    private byte[] read() {
+      byte[] data = new byte[length];
+      ByteBuffer view = segment.buffer.duplicate();
+      view.position(offset + RandomAccessFileQueueStore.CONTROL_DATA_SIZE);
+      view.get(data);
+      return data;
+    }
+
+    private void markRemoved() {
+      segment.buffer.put(offset, REMOVED);
+      segment.live.decrementAndGet();
+      segment.releaseIfUnused();
+    }
+  }
+
+  /**
+   * A memory-mapped queue file. Writes are serialized by the producers lock, reads use their own view of the mapped buffer.
+   */
+  private final class Segment {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private int writeOffset = 0;
+
+    private Segment(long id, File file, int size) {
+      this.id = id;
+      this.file = file;
+      try {
+        channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+        buffer = channel.map(READ_WRITE, 0, size);
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+    }
+
+    private int remaining() {
+      return buffer.capacity() - writeOffset;
+    }
+
+    private Entry write(byte[] data) {
+      int offset = writeOffset;
+      ByteBuffer view = buffer.duplicate();
+      view.position(offset + RandomAccessFileQueueStore.CONTROL_DATA_SIZE);
+      view.put(data);
+      // the length is written last, so a partially written entry is never recovered
+      buffer.put(offset, NOT_REMOVED);
+      buffer.putInt(offset + 1, data.length);
+      writeOffset += RandomAccessFileQueueStore.CONTROL_DATA_SIZE + data.length;
+      live.incrementAndGet();
+      return new Entry(this, offset, data.length);
+    }
+
+    private List<Entry> recoverEntries() {
+      List<Entry> recovered = new ArrayList<>();
+      int offset = 0;
+      while (offset + RandomAccessFileQueueStore.CONTROL_DATA_SIZE <= buffer.capacity()) {
+        byte removed = buffer.get(offset);
+        int length = buffer.getInt(offset + 1);
+        if (length <= 0 || offset + RandomAccessFileQueueStore.CONTROL_DATA_SIZE + length > buffer.capacity()) {
+          break;
+        }
+        if (removed == NOT_REMOVED) {
+          recovered.add(new Entry(this, offset, length));
+          live.incrementAndGet();
+        }
+        offset += RandomAccessFileQueueStore.CONTROL_DATA_SIZE + length;
+      }
+      writeOffset = offset;
+      return recovered;
+    }
+
+    /**
+     * Deletes this segment if all of its entries were consumed and it is no longer being written.
+     */
+    private void releaseIfUnused() {
+      if (live.get() == 0 && this != writeSegment && released.compareAndSet(false, true)) {
+        segments.remove(id, this);
+        close();
+        deleteQuietly(file);
+      }
+    }
+
+    private void force() {
+      if (!released.get()) {
+        buffer.force();
+      }
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.warn(e.getMessage());
+        if (logger.isDebugEnabled()) {
+          logger.debug("Error closing queue segment", e);
+        }
+      }
+    }
+
+    private void delete() {
+      if (released.compareAndSet(false, true)) {
+        close();
+        deleteQuietly(file);
+      }
+    }
+  }
+}
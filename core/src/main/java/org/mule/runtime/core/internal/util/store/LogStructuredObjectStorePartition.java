@@ -0,0 +1,739 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition.PARTITION_DESCRIPTOR_FILE;
+import static org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition.readPartitionFileName;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ExpirableObjectStore;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link ExpirableObjectStore} partition that keeps its entries in segmented, append-only log files instead of one file per
+ * key.
+ * <p>
+ * Every {@link #store(String, Serializable)} and {@link #remove(String)} appends a checksummed record to the active segment.
+ * The location of the live record of each key is kept in an in-memory index, so {@link #contains(String)},
+ * {@link #allKeys()} and the expiration sweep never touch the file system, and reads are positional reads that do not contend
+ * with writers. Once the active segment reaches {@link #MAX_SEGMENT_SIZE} bytes a new one is started. Sealed segments whose live
+ * data drops below {@link #COMPACTION_THRESHOLD} percent are rewritten by {@link #compact()}, which is expected to be called
+ * from a background thread. Records keep the timestamp and sequence of the original store, so compaction does not change the
+ * order in which entries expire.
+ * <p>
+ * On restart the segments are replayed in order to rebuild the index. A torn or corrupted record at the tail of a segment
+ * truncates that segment at the last valid record.
+ *
+ * @param <T> the type of the stored values
+ * @since 4.2.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends TemplateObjectStore<T>
+    implements ExpirableObjectStore<T> {
+
+  public static final String SEGMENT_FILE_EXTENSION = ".seg";
+
+  public static final long MAX_SEGMENT_SIZE =
+      getLong(SYSTEM_PROPERTY_PREFIX + "objectStore.log.maxSegmentSize", 64 * 1024 * 1024);
+  public static final int COMPACTION_THRESHOLD = getInteger(SYSTEM_PROPERTY_PREFIX + "objectStore.log.compactionThreshold", 50);
+  public static final boolean SYNC_WRITES = getBoolean(SYSTEM_PROPERTY_PREFIX + "objectStore.log.syncWrites");
+
+  private static final Logger LOGGER = getLogger(LogStructuredObjectStorePartition.class);
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+
+  // length + crc
+  private static final int HEADER_SIZE = 8;
+  // operation + timestamp + sequence + key length
+  private static final int BODY_PREFIX_SIZE = 21;
+  // segment id + offset of the removed record
+  private static final int TOMBSTONE_SIZE = 12;
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final File partitionDirectory;
+  private final long maxSegmentSize;
+  private String partitionName;
+
+  private final Object writeLock = new Object();
+  private final ConcurrentMap<String, RecordLocation> index = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<Long, String> insertionOrder = new ConcurrentSkipListMap<>();
+  private final ConcurrentNavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+
+  private volatile Segment activeSegment;
+  private volatile boolean loaded = false;
+  private long sequence = 0;
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    this(muleContext, partitionName, partitionDirectory, MAX_SEGMENT_SIZE);
+  }
+
+  LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory,
+                                    long maxSegmentSize) {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+    this.maxSegmentSize = maxSegmentSize;
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionDirectory = partitionDirectory;
+    this.partitionName = readPartitionFileName(partitionDirectory);
+    this.maxSegmentSize = MAX_SEGMENT_SIZE;
+  }
+
+  /**
+   * @param partitionDirectory the directory of a persisted partition
+   * @return whether the given directory holds a partition written by this engine
+   */
+  public static boolean isLogStructuredPartition(File partitionDirectory) {
+    File[] segmentFiles = partitionDirectory.listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    return segmentFiles != null && segmentFiles.length > 0;
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    try {
+      if (!partitionDirectory.exists() && !partitionDirectory.mkdirs()) {
+        throw new MuleRuntimeException(failedToCreate("object store directory " + partitionDirectory.getAbsolutePath()));
+      }
+      createOrRetrievePartitionDescriptorFile();
+    } catch (ObjectStoreException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+    assureLoaded();
+  }
+
+  /**
+   * Closes the files of every segment. The partition is loaded again from disk the next time it is accessed.
+   */
+  @Override
+  public void close() throws ObjectStoreException {
+    synchronized (writeLock) {
+      loaded = false;
+      try {
+        closeSegments();
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage(format("Could not close object store segments in %s",
+                                                                  partitionDirectory.getAbsolutePath())),
+                                       e);
+      }
+    }
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+    return unmodifiableList(new ArrayList<>(insertionOrder.values()));
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+
+    Map<String, T> values = new LinkedHashMap<>(index.size());
+    for (String key : insertionOrder.values()) {
+      T value = readValue(key);
+      if (value != null) {
+        values.put(key, value);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+
+    byte[] serialized = serializer.getInternalProtocol().serialize(value);
+    synchronized (writeLock) {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      try {
+        RecordLocation location = append(PUT, key, serialized, currentTimeMillis(), sequence++);
+        index.put(key, location);
+        insertionOrder.put(location.sequence, key);
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    T value = readValue(key);
+    if (value == null) {
+      throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+    }
+    return value;
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    synchronized (writeLock) {
+      RecordLocation location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      // compaction also takes the write lock, so the location can be read directly
+      T value;
+      try {
+        value = deserialize(read(location));
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+      removeLocation(key, location);
+      return value;
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    synchronized (writeLock) {
+      // the segments have to be known in order to delete them
+      assureLoaded();
+      try {
+        for (Segment segment : segments.values()) {
+          segment.delete();
+        }
+        int nextSegmentId = activeSegment != null ? activeSegment.id + 1 : 0;
+        segments.clear();
+        index.clear();
+        insertionOrder.clear();
+        activeSegment = openSegment(nextSegmentId);
+        loaded = true;
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+      }
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    if (maxEntries != UNBOUNDED) {
+      int excess = index.size() - maxEntries;
+      while (excess-- > 0) {
+        Map.Entry<Long, String> eldest = insertionOrder.firstEntry();
+        if (eldest == null) {
+          break;
+        }
+        removeIfUnchanged(eldest.getValue(), eldest.getKey());
+      }
+    }
+
+    if (entryTTL != UNBOUNDED) {
+      final long now = currentTimeMillis();
+      for (Map.Entry<Long, String> entry : insertionOrder.entrySet()) {
+        RecordLocation location = index.get(entry.getValue());
+        if (location == null || location.sequence != entry.getKey()) {
+          continue;
+        }
+        if ((now - location.timestamp) >= entryTTL) {
+          removeIfUnchanged(entry.getValue(), entry.getKey());
+        } else {
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Rewrites the live records of every sealed segment whose live data is below {@link #COMPACTION_THRESHOLD} percent of its
+   * size into the active segment, and deletes the original segment file. The write lock is only held while each live record is
+   * appended and its index entry updated, so stores are not blocked for the duration of a whole segment.
+   *
+   * @throws ObjectStoreException if a segment could not be compacted
+   */
+  public void compact() throws ObjectStoreException {
+    if (!loaded) {
+      return;
+    }
+
+    for (Segment segment : segments.values()) {
+      if (segment == activeSegment) {
+        continue;
+      }
+      if (segment.liveBytes.get() * 100 < segment.size * COMPACTION_THRESHOLD) {
+        try {
+          compact(segment);
+        } catch (IOException e) {
+          if (segments.get(segment.id) != segment) {
+            // the partition was cleared or closed while compacting
+            return;
+          }
+          throw new ObjectStoreException(createStaticMessage(format("Could not compact segment %s",
+                                                                    segment.file.getAbsolutePath())),
+                                         e);
+        }
+      }
+    }
+  }
+
+  private void compact(Segment segment) throws IOException {
+    long offset = 0;
+    while (offset < segment.size) {
+      // sealed segments are never written again, so they are read without holding the write lock
+      ByteBuffer header = segment.read(offset, HEADER_SIZE);
+      int bodyLength = header.getInt();
+      ByteBuffer body = segment.read(offset + HEADER_SIZE, bodyLength);
+      byte operation = body.get();
+      long timestamp = body.getLong();
+      long recordSequence = body.getLong();
+      String key = readKey(body);
+
+      if (operation == PUT) {
+        // a record that is not live anymore never becomes live again
+        if (isLocatedAt(key, segment, offset)) {
+          byte[] value = new byte[body.remaining()];
+          body.get(value);
+          synchronized (writeLock) {
+            if (isLocatedAt(key, segment, offset)) {
+              RecordLocation moved = append(PUT, key, value, timestamp, recordSequence);
+              index.put(key, moved);
+            }
+          }
+        }
+      } else {
+        int removedSegmentId = body.getInt();
+        long removedOffset = body.getLong();
+        // The tombstone is only needed while the record it shadows is still on disk
+        if (segments.containsKey(removedSegmentId) && removedSegmentId != segment.id) {
+          synchronized (writeLock) {
+            if (segments.containsKey(removedSegmentId)) {
+              append(REMOVE, key, tombstone(removedSegmentId, removedOffset), timestamp, -1);
+            }
+          }
+        }
+      }
+      offset += HEADER_SIZE + bodyLength;
+    }
+
+    synchronized (writeLock) {
+      if (segments.remove(segment.id, segment)) {
+        segment.delete();
+      }
+    }
+  }
+
+  private boolean isLocatedAt(String key, Segment segment, long offset) {
+    RecordLocation location = index.get(key);
+    return location != null && location.segmentId == segment.id && location.offset == offset;
+  }
+
+  private void removeIfUnchanged(String key, long expectedSequence) throws ObjectStoreException {
+    synchronized (writeLock) {
+      RecordLocation location = index.get(key);
+      if (location != null && location.sequence == expectedSequence) {
+        removeLocation(key, location);
+      } else {
+        insertionOrder.remove(expectedSequence, key);
+      }
+    }
+  }
+
+  private void removeLocation(String key, RecordLocation location) throws ObjectStoreException {
+    try {
+      append(REMOVE, key, tombstone(location.segmentId, location.offset), currentTimeMillis(), -1);
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    index.remove(key);
+    insertionOrder.remove(location.sequence);
+    Segment segment = segments.get(location.segmentId);
+    if (segment != null) {
+      segment.liveBytes.addAndGet(-location.length);
+    }
+  }
+
+  private T readValue(String key) throws ObjectStoreException {
+    while (true) {
+      RecordLocation location = index.get(key);
+      if (location == null) {
+        return null;
+      }
+      try {
+        return deserialize(read(location));
+      } catch (ClosedChannelException e) {
+        // the segment was compacted concurrently, look up the new location
+        if (index.get(key) == location) {
+          throw new ObjectStoreException(e);
+        }
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+  }
+
+  private byte[] read(RecordLocation location) throws IOException {
+    Segment segment = segments.get(location.segmentId);
+    if (segment == null) {
+      throw new ClosedChannelException();
+    }
+    return segment.read(location.valueOffset, location.valueLength).array();
+  }
+
+  private T deserialize(byte[] bytes) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(bytes);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (ObjectStoreException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private RecordLocation append(byte operation, String key, byte[] value, long timestamp, long recordSequence)
+      throws IOException {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    int bodyLength = BODY_PREFIX_SIZE + keyBytes.length + value.length;
+    int recordLength = HEADER_SIZE + bodyLength;
+
+    ByteBuffer record = ByteBuffer.allocate(recordLength);
+    record.putInt(bodyLength);
+    record.putInt(0);
+    record.put(operation).putLong(timestamp).putLong(recordSequence).putInt(keyBytes.length).put(keyBytes).put(value);
+    record.putInt(4, checksum(record.array(), HEADER_SIZE, bodyLength));
+    record.flip();
+
+    if (activeSegment.size > 0 && activeSegment.size + recordLength > maxSegmentSize) {
+      activeSegment = openSegment(activeSegment.id + 1);
+    }
+
+    Segment segment = activeSegment;
+    long offset = segment.append(record);
+    if (operation == PUT) {
+      segment.liveBytes.addAndGet(recordLength);
+    }
+    return new RecordLocation(segment.id, offset, recordLength, offset + recordLength - value.length, value.length, timestamp,
+                              recordSequence);
+  }
+
+  private static byte[] tombstone(int segmentId, long offset) {
+    return ByteBuffer.allocate(TOMBSTONE_SIZE).putInt(segmentId).putLong(offset).array();
+  }
+
+  private static String readKey(ByteBuffer body) {
+    byte[] keyBytes = new byte[body.getInt()];
+    body.get(keyBytes);
+    return new String(keyBytes, UTF_8);
+  }
+
+  private static int checksum(byte[] bytes, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes, offset, length);
+    return (int) crc.getValue();
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      loadSegments();
+    }
+  }
+
+  private void loadSegments() throws ObjectStoreException {
+    synchronized (writeLock) {
+      // re-checked here to avoid contention in assureLoaded
+      if (loaded) {
+        return;
+      }
+
+      try {
+        // drop whatever a previous failed load left open
+        closeSegments();
+
+        File[] files = partitionDirectory.listFiles(file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+        if (files == null) {
+          files = new File[0];
+        }
+        // segment files are named after their zero-padded id, so they sort in write order
+        Arrays.sort(files);
+
+        for (File file : files) {
+          String fileName = file.getName();
+          int segmentId = Integer.parseInt(fileName.substring(0, fileName.length() - SEGMENT_FILE_EXTENSION.length()));
+          Segment segment = new Segment(segmentId, file);
+          segments.put(segmentId, segment);
+          replay(segment);
+          activeSegment = segment;
+        }
+
+        if (activeSegment == null) {
+          activeSegment = openSegment(0);
+        }
+        loaded = true;
+      } catch (Exception e) {
+        throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                  partitionDirectory.getAbsolutePath())),
+                                       e);
+      }
+    }
+  }
+
+  private void replay(Segment segment) throws IOException {
+    long offset = 0;
+    while (offset < segment.size) {
+      int recordLength;
+      try {
+        ByteBuffer header = segment.read(offset, HEADER_SIZE);
+        int bodyLength = header.getInt();
+        int crc = header.getInt();
+        if (bodyLength < BODY_PREFIX_SIZE || offset + HEADER_SIZE + bodyLength > segment.size) {
+          throw new EOFException();
+        }
+        ByteBuffer body = segment.read(offset + HEADER_SIZE, bodyLength);
+        if (checksum(body.array(), 0, bodyLength) != crc) {
+          throw new EOFException();
+        }
+
+        recordLength = HEADER_SIZE + bodyLength;
+        byte operation = body.get();
+        long timestamp = body.getLong();
+        long recordSequence = body.getLong();
+        String key = readKey(body);
+        if (operation == PUT) {
+          // compacted records keep their original sequence, so the index is ordered by it rather than by replay order
+          RecordLocation location = new RecordLocation(segment.id, offset, recordLength, offset + HEADER_SIZE + body.position(),
+                                                       body.remaining(), timestamp, recordSequence);
+          sequence = max(sequence, recordSequence + 1);
+          RecordLocation previous = index.put(key, location);
+          if (previous != null) {
+            discard(previous);
+          }
+          insertionOrder.put(location.sequence, key);
+          segment.liveBytes.addAndGet(recordLength);
+        } else {
+          int removedSegmentId = body.getInt();
+          long removedOffset = body.getLong();
+          RecordLocation current = index.get(key);
+          if (current != null && current.segmentId == removedSegmentId && current.offset == removedOffset) {
+            index.remove(key);
+            discard(current);
+          }
+        }
+      } catch (EOFException e) {
+        LOGGER.warn(format("Found a truncated or corrupted record at offset %d of object store segment %s. "
+            + "The segment will be truncated at that point.", offset, segment.file.getAbsolutePath()));
+        segment.truncate(offset);
+        return;
+      }
+      offset += recordLength;
+    }
+  }
+
+  private void closeSegments() throws IOException {
+    IOException failure = null;
+    for (Segment segment : segments.values()) {
+      try {
+        segment.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    segments.clear();
+    index.clear();
+    insertionOrder.clear();
+    activeSegment = null;
+    sequence = 0;
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void discard(RecordLocation location) {
+    insertionOrder.remove(location.sequence);
+    Segment segment = segments.get(location.segmentId);
+    if (segment != null) {
+      segment.liveBytes.addAndGet(-location.length);
+    }
+  }
+
+  private Segment openSegment(int id) throws IOException {
+    Segment segment = new Segment(id, new File(partitionDirectory, format("%010d%s", id, SEGMENT_FILE_EXTENSION)));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void createOrRetrievePartitionDescriptorFile() throws Exception {
+    File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+    if (partitionDescriptorFile.exists()) {
+      this.partitionName = readPartitionFileName(partitionDirectory);
+      return;
+    }
+    try (FileWriter fileWriter = new FileWriter(partitionDescriptorFile.getAbsolutePath(), false)) {
+      fileWriter.write(partitionName);
+      fileWriter.flush();
+    }
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  /**
+   * The location of the last record written for a key.
+   */
+  private static final class RecordLocation {
+
+    private final int segmentId;
+    private final long offset;
+    private final int length;
+    private final long valueOffset;
+    private final int valueLength;
+    private final long timestamp;
+    private final long sequence;
+
+    private RecordLocation(int segmentId, long offset, int length, long valueOffset, int valueLength, long timestamp,
+                           long sequence) {
+      this.segmentId = segmentId;
+      this.offset = offset;
+      this.length = length;
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.timestamp = timestamp;
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * A single append-only log file. Appends are serialized by the partition's write lock, reads are positional and may happen
+   * concurrently.
+   */
+  private static final class Segment {
+
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile long size;
+
+    private Segment(int id, File file) throws IOException {
+      this.id = id;
+      this.file = file;
+      this.channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+      this.size = channel.size();
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+      long offset = size;
+      long position = offset;
+      while (record.hasRemaining()) {
+        position += channel.write(record, position);
+      }
+      if (SYNC_WRITES) {
+        channel.force(false);
+      }
+      size = position;
+      return offset;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException();
+        }
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    private void truncate(long newSize) throws IOException {
+      channel.truncate(newSize);
+      size = newSize;
+    }
+
+    private void close() throws IOException {
+      channel.close();
+    }
+
+    private void delete() throws IOException {
+      close();
+      if (file.exists() && !file.delete()) {
+        throw new IOException("Deleting " + file.getAbsolutePath() + " failed");
+      }
+    }
+  }
+}
@@ -55,7 +55,7 @@ public class PersistentObjectStorePartition<T extends Serializable> extends Temp
     implements ExpirableObjectStore<T> {
 
   private static final String OBJECT_FILE_EXTENSION = ".obj";
-  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
   public static final String CORRUPTED_FOLDER = "corrupted-files";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PersistentObjectStorePartition.class);
@@ -84,7 +84,7 @@ public class PersistentObjectStorePartition<T extends Serializable> extends Temp
     this.partitionName = readPartitionFileName(partitionDirectory);
   }
 
-  private String readPartitionFileName(File partitionDirectory) throws ObjectStoreNotAvailableException {
+  static String readPartitionFileName(File partitionDirectory) throws ObjectStoreNotAvailableException {
     File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
     try {
       return readFileToString(partitionDescriptorFile);
@@ -7,7 +7,9 @@
 
 package org.mule.runtime.module.artifact.api.serializer;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 
 import org.mule.api.annotation.NoInstantiate;
 import org.mule.runtime.api.exception.MuleException;
@@ -17,6 +19,7 @@ import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.serialization.SerializationProtocol;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.internal.serialization.BinarySerializationProtocol;
 import org.mule.runtime.core.internal.serialization.JavaExternalSerializerProtocol;
 import org.mule.runtime.module.artifact.api.classloader.ClassLoaderRepository;
 import org.mule.runtime.module.artifact.api.serializer.protocol.CustomJavaSerializationProtocol;
@@ -24,8 +27,17 @@ import org.mule.runtime.module.artifact.api.serializer.protocol.CustomJavaSerial
 @NoInstantiate
 public final class ArtifactObjectSerializer implements ObjectSerializer, Initialisable, MuleContextAware {
 
+  /**
+   * When set to {@code true}, the internal protocol writes the types of the Mule Runtime with a {@link BinarySerializationProtocol},
+   * falling back to Java serialization for any other type.
+   *
+   * @since 4.2
+   */
+  public static final String BINARY_SERIALIZATION_PROPERTY = SYSTEM_PROPERTY_PREFIX + "serialization.binary";
+
   private volatile JavaExternalSerializerProtocol javaExternalSerializerProtocol;
   private volatile CustomJavaSerializationProtocol javaInternalSerializerProtocol;
+  private volatile BinarySerializationProtocol binaryInternalSerializerProtocol;
   private MuleContext muleContext;
 
   public ArtifactObjectSerializer(ClassLoaderRepository classLoaderRepository) {
@@ -33,11 +45,14 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
 
     javaExternalSerializerProtocol = new JavaExternalSerializerProtocol();
     javaInternalSerializerProtocol = new CustomJavaSerializationProtocol(classLoaderRepository);
+    if (getBoolean(BINARY_SERIALIZATION_PROPERTY)) {
+      binaryInternalSerializerProtocol = new BinarySerializationProtocol(javaInternalSerializerProtocol);
+    }
   }
 
   @Override
   public SerializationProtocol getInternalProtocol() {
-    return javaInternalSerializerProtocol;
+    return binaryInternalSerializerProtocol != null ? binaryInternalSerializerProtocol : javaInternalSerializerProtocol;
   }
 
   @Override
@@ -50,6 +65,9 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
     this.muleContext = context;
     javaExternalSerializerProtocol.setMuleContext(context);
     javaInternalSerializerProtocol.setMuleContext(context);
+    if (binaryInternalSerializerProtocol != null) {
+      binaryInternalSerializerProtocol.setMuleContext(context);
+    }
   }
 
   @Override
@@ -57,6 +75,9 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
     try {
       muleContext.getInjector().inject(javaInternalSerializerProtocol);
       muleContext.getInjector().inject(javaExternalSerializerProtocol);
+      if (binaryInternalSerializerProtocol != null) {
+        muleContext.getInjector().inject(binaryInternalSerializerProtocol);
+      }
     } catch (MuleException e) {
       throw new InitialisationException(e, this);
     }
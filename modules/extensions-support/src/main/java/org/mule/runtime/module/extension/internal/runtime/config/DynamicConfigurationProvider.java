@@ -9,7 +9,6 @@ package org.mule.runtime.module.extension.internal.runtime.config;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
-import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
@@ -49,14 +48,19 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvin
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 import org.mule.runtime.module.extension.internal.value.ValueProviderMediator;
 
+import com.google.common.collect.ImmutableList;
+
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -68,6 +72,9 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * The cache doesn't use any global lock: each instance is created only once, by the first thread requesting it, and expired
+ * instances are found through an index sorted by last usage, without going through the whole cache.
  *
  * @since 4.0.0
  */
@@ -75,16 +82,20 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     implements ExpirableConfigurationProvider, ConfigurationParameterValueProvider {
 
   private static final Logger LOGGER = getLogger(DynamicConfigurationProvider.class);
+  private static final long LAST_USED_INDEX_RESOLUTION_MILLIS = 1000;
 
   private final ConfigurationInstanceFactory configurationInstanceFactory;
   private final ResolverSet resolverSet;
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final ConcurrentMap<Pair<ResolverSetResult, ResolverSetResult>, CacheEntry> cache = new ConcurrentHashMap<>();
+  private final NavigableSet<CacheEntry> lastUsedIndex = new ConcurrentSkipListSet<>();
+  private final AtomicLong entrySequence = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder creations = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
   private final ReflectionCache reflectionCache;
   private final ExpressionManager expressionManager;
 
@@ -145,41 +156,26 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CoreEvent event)
       throws Exception {
 
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
-        return configuration;
+    while (true) {
+      CacheEntry entry = cache.get(resolverSetResult);
+      if (entry == null) {
+        CacheEntry newEntry = new CacheEntry(resolverSetResult);
+        entry = cache.putIfAbsent(resolverSetResult, newEntry);
+        if (entry == null) {
+          misses.increment();
+          return newEntry.create(event);
+        }
       }
-    } finally {
-      cacheReadLock.unlock();
-    }
 
-    cacheWriteLock.lock();
-    try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult, event);
-        cache.put(resolverSetResult, configuration);
+      ConfigurationInstance configuration = entry.await();
+      if (entry.use(configuration)) {
+        hits.increment();
+        return configuration;
       }
-
-      // accounting here for the same reasons as above
-      updateUsageStatistic(configuration);
-      return configuration;
-    } finally {
-      cacheWriteLock.unlock();
+      // the entry was expired concurrently, a new instance needs to be created
     }
   }
 
-  private void updateUsageStatistic(ConfigurationInstance configuration) {
-    MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
-    stats.updateLastUsed();
-  }
-
   private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> values, CoreEvent event)
       throws MuleException {
 
@@ -240,17 +236,57 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     super.registerConfiguration(configuration);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Only the instances which were not used since the expiration policy's max idle time, according to the last used index, are
+   * inspected.
+   */
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
+    ImmutableList.Builder<ConfigurationInstance> expired = ImmutableList.builder();
+    for (CacheEntry entry : lastUsedIndex) {
+      if (!expirationPolicy.isExpired(entry.indexedLastUsed, MILLISECONDS)) {
+        // entries are sorted, and actual usage is never before the indexed one, so no other entry can be expired
+        break;
+      }
+
+      ConfigurationInstance configuration = entry.expireIfUnused();
+      if (configuration != null) {
+        expirations.increment();
+        expired.add(configuration);
+      }
     }
+
+    return expired.build();
+  }
+
+  /**
+   * @return the number of times an already created instance was returned by {@link #get(Event)}
+   */
+  public long getCacheHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of times {@link #get(Event)} had to create a new instance
+   */
+  public long getCacheMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of instances successfully created by this provider
+   */
+  public long getCreatedInstances() {
+    return creations.sum();
+  }
+
+  /**
+   * @return the number of instances returned by {@link #getExpired()}
+   */
+  public long getExpiredInstances() {
+    return expirations.sum();
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
@@ -331,4 +367,115 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
         .map(ob -> ((ConnectionProviderObjectBuilder) ob).providerModel);
   }
 
+
+  /**
+   * An entry of the instances cache.
+   * <p>
+   * The instance is created only once by the thread which put the entry in the cache, while other threads requesting the same
+   * instance wait for it without holding any lock. Once created, the entry is added to the {@link #lastUsedIndex}, sorted by
+   * its last usage. In order to avoid reordering the index on every usage, the entry is only moved when it was used more than
+   * {@link #LAST_USED_INDEX_RESOLUTION_MILLIS} after its indexed usage, so that the indexed usage is never after the actual one.
+   */
+  private final class CacheEntry implements Comparable<CacheEntry> {
+
+    private final Pair<ResolverSetResult, ResolverSetResult> key;
+    private final long sequence = entrySequence.incrementAndGet();
+    private final CompletableFuture<ConfigurationInstance> configuration = new CompletableFuture<>();
+
+    private volatile long indexedLastUsed;
+    private volatile boolean evicted = false;
+
+    private CacheEntry(Pair<ResolverSetResult, ResolverSetResult> key) {
+      this.key = key;
+    }
+
+    private ConfigurationInstance create(CoreEvent event) throws Exception {
+      ConfigurationInstance instance;
+      try {
+        instance = createConfiguration(key, event);
+      } catch (Throwable t) {
+        cache.remove(key, this);
+        configuration.completeExceptionally(t);
+        throw t;
+      }
+
+      creations.increment();
+      configuration.complete(instance);
+      synchronized (this) {
+        indexedLastUsed = getStats(instance).updateLastUsed();
+        lastUsedIndex.add(this);
+      }
+      return instance;
+    }
+
+    private ConfigurationInstance await() throws Exception {
+      try {
+        return configuration.get();
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        throw new MuleRuntimeException(cause);
+      }
+    }
+
+    /**
+     * Accounts for the usage of the instance.
+     *
+     * @return {@code false} if the entry was expired and the instance must not be used
+     */
+    private boolean use(ConfigurationInstance instance) {
+      // the usage is updated before checking for eviction, while the eviction does the opposite
+      long lastUsed = getStats(instance).updateLastUsed();
+      if (evicted) {
+        return false;
+      }
+
+      if (lastUsed - indexedLastUsed >= LAST_USED_INDEX_RESOLUTION_MILLIS) {
+        reindex(lastUsed);
+      }
+      return true;
+    }
+
+    private synchronized void reindex(long lastUsed) {
+      if (!evicted && lastUsed > indexedLastUsed) {
+        lastUsedIndex.remove(this);
+        indexedLastUsed = lastUsed;
+        lastUsedIndex.add(this);
+      }
+    }
+
+    /**
+     * Evicts this entry if its instance is expired. Otherwise, its position in the index is updated.
+     *
+     * @return the evicted instance, or {@code null} if it was not expired
+     */
+    private synchronized ConfigurationInstance expireIfUnused() {
+      ConfigurationInstance instance = configuration.getNow(null);
+      if (isExpired(instance)) {
+        evicted = true;
+        // check again in case it was used concurrently before it was marked as evicted
+        if (isExpired(instance)) {
+          lastUsedIndex.remove(this);
+          cache.remove(key, this);
+          return instance;
+        }
+        evicted = false;
+      }
+
+      reindex(getStats(instance).getLastUsedMillis());
+      return null;
+    }
+
+    private MutableConfigurationStats getStats(ConfigurationInstance instance) {
+      return (MutableConfigurationStats) instance.getStatistics();
+    }
+
+    @Override
+    public int compareTo(CacheEntry other) {
+      int result = Long.compare(indexedLastUsed, other.indexedLastUsed);
+      return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+  }
 }
@@ -26,4 +26,21 @@ interface ArgumentResolverDelegate {
    * @return an object array
    */
   Supplier<Object>[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes);
+
+  /**
+   * Returns an object array with the already resolved argument values of the given {@code executionContext}, ready to be used
+   * for invoking the method.
+   *
+   * @param executionContext the {@link ExecutionContext context} of an {@link ComponentModel} being currently executed
+   * @param parameterTypes the types of the method's parameters
+   * @return an object array
+   */
+  default Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+    Supplier<Object>[] suppliers = resolve(executionContext, parameterTypes);
+    Object[] values = new Object[suppliers.length];
+    for (int i = 0; i < suppliers.length; i++) {
+      values[i] = suppliers[i].get();
+    }
+    return values;
+  }
 }
@@ -246,17 +246,32 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
     return parameterValues;
   }
 
+  /**
+   * {@inheritDoc}
+   * Values are resolved right away, without wrapping each one of them in an intermediate {@link Supplier}.
+   */
+  @Override
+  public Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+    Object[] parameterValues = new Object[argumentResolvers.length];
+    for (int i = 0; i < argumentResolvers.length; i++) {
+      parameterValues[i] = adaptParameterValue(parameterTypes[i], argumentResolvers[i].resolve(executionContext).get());
+    }
+
+    return parameterValues;
+  }
+
   private Supplier<Object> wrapParameterResolution(Class<?> parameterType, Supplier<?> valueSupplier) {
-    return () -> {
-      Object parameterValue = valueSupplier.get();
-      if (parameterValue == null) {
-        return resolvePrimitiveTypeDefaultValue(parameterType);
-      } else if (parameterValue instanceof CursorStream) {
-        return new UnclosableCursorStream((CursorStream) parameterValue);
-      } else {
-        return resolveCursor(parameterValue);
-      }
-    };
+    return () -> adaptParameterValue(parameterType, valueSupplier.get());
+  }
+
+  private Object adaptParameterValue(Class<?> parameterType, Object parameterValue) {
+    if (parameterValue == null) {
+      return resolvePrimitiveTypeDefaultValue(parameterType);
+    } else if (parameterValue instanceof CursorStream) {
+      return new UnclosableCursorStream((CursorStream) parameterValue);
+    } else {
+      return resolveCursor(parameterValue);
+    }
   }
 
   private Object resolvePrimitiveTypeDefaultValue(Class<?> type) {
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isStatic;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+import static org.springframework.util.ReflectionUtils.rethrowRuntimeException;
+
+import org.slf4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a given {@link Method} on a fixed target instance.
+ * <p>
+ * Instances are obtained through {@link #createInvoker(Method, Object)}, which adapts a {@link MethodHandle} to the method once,
+ * so that each invocation is a plain {@link MethodHandle#invokeExact(Object...)} call which the JIT compiler is able to inline,
+ * instead of going through the access checks and argument unboxing of {@link Method#invoke(Object, Object...)}. When the method
+ * handle cannot be obtained, invocations fall back to reflection.
+ * <p>
+ * In both cases, exceptions thrown by the method are propagated the same way as
+ * {@link org.springframework.util.ReflectionUtils#invokeMethod(Method, Object, Object...)} does.
+ *
+ * @since 4.2
+ */
+abstract class MethodInvoker {
+
+  private static final Logger LOGGER = getLogger(MethodInvoker.class);
+
+  /**
+   * Creates a new invoker for the given {@code method}.
+   *
+   * @param method the {@link Method} to invoke
+   * @param target the instance on which the method is invoked
+   * @return a new {@link MethodInvoker}
+   */
+  static MethodInvoker createInvoker(Method method, Object target) {
+    try {
+      MethodHandle handle = publicLookup().unreflect(method);
+      if (!isStatic(method.getModifiers())) {
+        handle = handle.bindTo(target);
+      }
+      handle = handle.asSpreader(Object[].class, method.getParameterCount())
+          .asType(methodType(Object.class, Object[].class));
+      return new MethodHandleInvoker(handle);
+    } catch (Exception e) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Could not create a method handle for method '" + method + "'. Reflection will be used instead.", e);
+      }
+      return new ReflectiveInvoker(method, target);
+    }
+  }
+
+  /**
+   * Invokes the method with the given {@code args}
+   *
+   * @param args the arguments for the method, already resolved and in order
+   * @return the value returned by the method, {@code null} if it's {@code void}
+   */
+  abstract Object invoke(Object[] args);
+
+  private static final class MethodHandleInvoker extends MethodInvoker {
+
+    private final MethodHandle handle;
+
+    private MethodHandleInvoker(MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    Object invoke(Object[] args) {
+      try {
+        return (Object) handle.invokeExact(args);
+      } catch (Throwable t) {
+        rethrowRuntimeException(t);
+        return null;
+      }
+    }
+  }
+
+  private static final class ReflectiveInvoker extends MethodInvoker {
+
+    private final Method method;
+    private final Object target;
+
+    private ReflectiveInvoker(Method method, Object target) {
+      this.method = method;
+      this.target = target;
+    }
+
+    @Override
+    Object invoke(Object[] args) {
+      return invokeMethod(method, target, args);
+    }
+  }
+}
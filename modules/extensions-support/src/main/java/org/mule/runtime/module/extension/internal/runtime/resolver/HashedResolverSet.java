@@ -6,8 +6,12 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
+import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult.calculateValueHash;
+
 import org.mule.runtime.core.api.MuleContext;
 
+import java.util.Map;
+
 /**
  * {@link ResolverSet} implementation which uses {@link HashedResolverSetResult} to storage the resolved values.
  * This gives the capability of comparing {@link ResolverSetResult} a quickly verify if two {@link ResolverSetResult}
@@ -22,7 +26,11 @@ public class HashedResolverSet extends ResolverSet {
   }
 
   @Override
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return HashedResolverSetResult.newBuilder();
+  ResolverSetResult createResult(Map<String, Object> result, Object[] values) {
+    int hashCode = 1;
+    for (Object value : values) {
+      hashCode = calculateValueHash(hashCode, value);
+    }
+    return new HashedResolverSetResult(result, hashCode);
   }
 }
@@ -61,7 +61,7 @@ public class HashedResolverSetResult extends ResolverSetResult {
     return new Builder();
   }
 
-  private HashedResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
+  HashedResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
     super(evaluationResult);
     this.hashCode = hashCode;
   }
@@ -9,7 +9,6 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
-import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveRecursively;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveValue;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Initialisable;
@@ -40,6 +39,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   private Map<String, ValueResolver<?>> resolvers = new LinkedHashMap<>();
   private boolean dynamic = false;
   private final MuleContext muleContext;
+  private volatile ResolverSetPlan plan;
 
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
@@ -65,6 +65,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (!dynamic && resolver.isDynamic()) {
       dynamic = true;
     }
+    plan = null;
     return this;
   }
 
@@ -96,6 +97,9 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
 
   /**
    * Evaluates all the added {@link ValueResolver}s and returns the results into a {@link ResolverSetResult}
+   * <p>
+   * The resolvers are compiled into a {@link ResolverSetPlan} the first time this method is invoked after adding a resolver, so
+   * that the values of static resolvers are only obtained once and only the remaining ones are evaluated on each invocation.
    *
    * @param context a not {@code null} {@link ValueResolvingContext}
    * @return a {@link ResolverSetResult}
@@ -103,13 +107,19 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
    */
   @Override
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
-    ResolverSetResult.Builder builder = getResolverSetBuilder();
+    ResolverSetPlan plan = getPlan();
+    Object[] values = plan.resolve(context);
 
-    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
-      builder.add(entry.getKey(), resolveRecursively(entry.getValue(), context));
-    }
+    return createResult(plan.asMap(values), values);
+  }
 
-    return builder.build();
+  private ResolverSetPlan getPlan() throws MuleException {
+    ResolverSetPlan plan = this.plan;
+    if (plan == null) {
+      plan = new ResolverSetPlan(resolvers);
+      this.plan = plan;
+    }
+    return plan;
   }
 
   /**
@@ -137,8 +147,15 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     initialiseIfNeeded(resolvers.values(), muleContext);
   }
 
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return ResolverSetResult.newBuilder();
+  /**
+   * Creates the {@link ResolverSetResult} for the given resolved values
+   *
+   * @param result an unmodifiable {@link Map} with the resolved values
+   * @param values the resolved values, in the order in which their resolvers were added
+   * @return a {@link ResolverSetResult}
+   */
+  ResolverSetResult createResult(Map<String, Object> result, Object[] values) {
+    return new ResolverSetResult(result);
   }
 
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.resolver;
+
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveRecursively;
+import org.mule.runtime.api.exception.MuleException;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An execution plan for the {@link ValueResolver}s of a {@link ResolverSet}.
+ * <p>
+ * The values of {@link StaticValueResolver}s and {@link StaticLiteralValueResolver}s are obtained once, when the plan is created,
+ * so that resolving the plan only requires evaluating the remaining resolvers. The resolved values are kept in an array which
+ * follows the order in which the resolvers were added to the {@link ResolverSet}, and are exposed as a {@link Map} by
+ * {@link #asMap(Object[])} without copying them.
+ * <p>
+ * Instances are immutable and thread safe.
+ *
+ * @since 4.2
+ */
+final class ResolverSetPlan {
+
+  private final String[] keys;
+  private final Map<String, Integer> indexes;
+  private final ValueResolver<?>[] resolvers;
+  private final Object[] staticValues;
+  private final int[] dynamicIndexes;
+
+  ResolverSetPlan(Map<String, ValueResolver<?>> resolvers) throws MuleException {
+    int size = resolvers.size();
+    keys = new String[size];
+    this.resolvers = new ValueResolver[size];
+    staticValues = new Object[size];
+
+    ImmutableMap.Builder<String, Integer> indexesBuilder = ImmutableMap.builder();
+    int[] dynamic = new int[size];
+    int dynamicCount = 0;
+    int i = 0;
+    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
+      ValueResolver<?> resolver = entry.getValue();
+      keys[i] = entry.getKey();
+      this.resolvers[i] = resolver;
+      indexesBuilder.put(entry.getKey(), i);
+
+      // static resolvers don't need a context. If the value is a resolver on its own, it needs to be evaluated every time.
+      boolean constant = false;
+      if (isStatic(resolver)) {
+        staticValues[i] = resolver.resolve(null);
+        constant = !(staticValues[i] instanceof ValueResolver);
+      }
+      if (!constant) {
+        staticValues[i] = null;
+        dynamic[dynamicCount++] = i;
+      }
+      i++;
+    }
+
+    indexes = indexesBuilder.build();
+    dynamicIndexes = copyOf(dynamic, dynamicCount);
+  }
+
+  private static boolean isStatic(ValueResolver<?> resolver) {
+    return resolver instanceof StaticValueResolver || resolver instanceof StaticLiteralValueResolver;
+  }
+
+  /**
+   * Resolves the values of the plan.
+   *
+   * @param context a {@link ValueResolvingContext}
+   * @return the resolved values, in the order of the plan's keys
+   * @throws MuleException if any of the resolvers fails
+   */
+  Object[] resolve(ValueResolvingContext context) throws MuleException {
+    Object[] values = dynamicIndexes.length == 0 ? staticValues : copyOf(staticValues, staticValues.length);
+    for (int index : dynamicIndexes) {
+      values[index] = resolveRecursively(resolvers[index], context);
+    }
+
+    return values;
+  }
+
+  /**
+   * @param values values obtained through {@link #resolve(ValueResolvingContext)}
+   * @return an unmodifiable {@link Map} view of the given {@code values} keyed by the plan's keys
+   */
+  Map<String, Object> asMap(Object[] values) {
+    return new ValuesMap(values);
+  }
+
+  private final class ValuesMap extends AbstractMap<String, Object> {
+
+    private final Object[] values;
+    private Set<Entry<String, Object>> entrySet;
+
+    private ValuesMap(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Object get(Object key) {
+      Integer index = indexes.get(key);
+      return index != null ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexes.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      if (entrySet == null) {
+        entrySet = new AbstractSet<Entry<String, Object>>() {
+
+          @Override
+          public Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<Entry<String, Object>>() {
+
+              private int next = 0;
+
+              @Override
+              public boolean hasNext() {
+                return next < values.length;
+              }
+
+              @Override
+              public Entry<String, Object> next() {
+                if (!hasNext()) {
+                  throw new NoSuchElementException();
+                }
+                int index = next++;
+                return new SimpleImmutableEntry<>(keys[index], values[index]);
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return values.length;
+          }
+        };
+      }
+      return entrySet;
+    }
+  }
+}
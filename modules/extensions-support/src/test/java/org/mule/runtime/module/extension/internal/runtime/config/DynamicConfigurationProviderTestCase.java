@@ -13,6 +13,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -217,6 +218,38 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void recentlyUsedInstanceNotExpired() throws Exception {
+    HeisenbergExtension instance1 = (HeisenbergExtension) provider.get(event).getValue();
+    HeisenbergExtension instance2 = makeAlternateInstance();
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    timeSupplier.move(4, MINUTES);
+    assertThat(provider.get(event).getValue(), is(sameInstance(instance2)));
+
+    timeSupplier.move(2, MINUTES);
+    List<Object> configs = provider.getExpired().stream().map(config -> config.getValue()).collect(toImmutableList());
+    assertThat(configs, contains(instance1));
+
+    assertThat(provider.get(event).getValue(), is(sameInstance(instance2)));
+  }
+
+  @Test
+  public void cacheStatistics() throws Exception {
+    provider.get(event);
+    provider.get(event);
+    makeAlternateInstance();
+
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    assertThat(provider.getCacheHits(), is(1L));
+    assertThat(provider.getCacheMisses(), is(2L));
+    assertThat(provider.getCreatedInstances(), is(2L));
+
+    timeSupplier.move(10, MINUTES);
+    provider.getExpired();
+    assertThat(provider.getExpiredInstances(), is(2L));
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvoker.createInvoker;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@SmallTest
+public class MethodInvokerTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public ExpectedException expected = ExpectedException.none();
+
+  private final Operations operations = new Operations();
+
+  @Test
+  public void invokeWithPrimitiveArguments() throws Exception {
+    MethodInvoker invoker = createInvoker(Operations.class.getMethod("add", int.class, long.class), operations);
+    assertThat(invoker.invoke(new Object[] {2, 3L}), is(5L));
+  }
+
+  @Test
+  public void invokeVoid() throws Exception {
+    MethodInvoker invoker = createInvoker(Operations.class.getMethod("store", String.class), operations);
+    assertThat(invoker.invoke(new Object[] {"value"}), is(nullValue()));
+    assertThat(operations.stored, is("value"));
+  }
+
+  @Test
+  public void invokeStatic() throws Exception {
+    MethodInvoker invoker = createInvoker(Operations.class.getMethod("greet", String.class), null);
+    assertThat(invoker.invoke(new Object[] {"Walter"}), is("Hello Walter"));
+  }
+
+  @Test
+  public void runtimeExceptionPropagated() throws Exception {
+    MethodInvoker invoker = createInvoker(Operations.class.getMethod("fail"), operations);
+    expected.expect(IllegalStateException.class);
+    invoker.invoke(new Object[] {});
+  }
+
+  @Test
+  public void checkedExceptionWrapped() throws Exception {
+    MethodInvoker invoker = createInvoker(Operations.class.getMethod("failChecked"), operations);
+    expected.expect(UndeclaredThrowableException.class);
+    invoker.invoke(new Object[] {});
+  }
+
+  @Test
+  public void fallbackToReflectionForNonAccessibleMethod() throws Exception {
+    MethodInvoker invoker = createInvoker(PackageOperations.class.getDeclaredMethod("echo", String.class),
+                                          new PackageOperations());
+    expected.expect(IllegalStateException.class);
+    invoker.invoke(new Object[] {"value"});
+  }
+
+  public static class Operations {
+
+    private String stored;
+
+    public long add(int a, long b) {
+      return a + b;
+    }
+
+    public void store(String value) {
+      stored = value;
+    }
+
+    public static String greet(String name) {
+      return "Hello " + name;
+    }
+
+    public void fail() {
+      throw new IllegalStateException();
+    }
+
+    public void failChecked() throws IOException {
+      throw new IOException();
+    }
+  }
+
+  static class PackageOperations {
+
+    String echo(String value) {
+      return value;
+    }
+  }
+}
@@ -8,7 +8,12 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.getParameter;
 import org.mule.runtime.api.lifecycle.Lifecycle;
@@ -100,6 +105,34 @@ public class ResolverSetTestCase extends AbstractMuleTestCase {
     assertThat(set.isDynamic(), is(true));
   }
 
+  @Test
+  public void staticValuesResolvedOnce() throws Exception {
+    ValueResolver<String> resolver = spy(new StaticValueResolver<>(NAME));
+    set.add("static", resolver);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(set.resolve(resolvingContext).get("static"), is(NAME));
+    }
+    verify(resolver, times(1)).resolve(any());
+  }
+
+  @Test
+  public void resultKeepsOrder() throws Exception {
+    set.add("static", new StaticValueResolver<>(NAME));
+    Map<String, Object> result = set.resolve(resolvingContext).asMap();
+
+    assertThat(result.keySet(), contains("myName", "age", "static"));
+    assertThat(result.values(), contains(NAME, AGE, NAME));
+  }
+
+  @Test
+  public void resolverAddedAfterResolving() throws Exception {
+    set.resolve(resolvingContext);
+    set.add("static", new StaticValueResolver<>(NAME));
+
+    assertThat(set.resolve(resolvingContext).get("static"), is(NAME));
+  }
+
   private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception {
     assertThat(result, is(notNullValue()));
     for (Map.Entry<ParameterModel, ValueResolver> entry : mapping.entrySet()) {
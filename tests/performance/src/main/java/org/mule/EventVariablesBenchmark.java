@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the cost of setting a variable on an event that already has many of them, as done by every {@code set-variable} in a
+ * flow. Run with {@code -prof gc} to see the allocation per variable set.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class EventVariablesBenchmark extends AbstractBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int variables;
+
+  private MuleContext muleContext;
+  private CoreEvent event;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    Flow flow = createFlow(muleContext);
+
+    CoreEvent.Builder builder = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(of(PAYLOAD));
+    for (int i = 0; i < variables; i++) {
+      builder.addVariable("FlOwVaRiAbLeKeY" + i, VALUE);
+    }
+    event = builder.build();
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    muleContext.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public CoreEvent addVariable() {
+    return CoreEvent.builder(event).addVariable(KEY, VALUE).build();
+  }
+
+  @Benchmark
+  public CoreEvent overwriteVariable() {
+    return CoreEvent.builder(event).addVariable("flowVariableKey0", VALUE).build();
+  }
+
+  @Benchmark
+  public CoreEvent removeVariable() {
+    return CoreEvent.builder(event).removeVariable("flowVariableKey0").build();
+  }
+
+  @Benchmark
+  public Object getVariable() {
+    return event.getVariables().get("flowvariablekey0");
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.serialization.BinaryObjectSerializer;
+import org.mule.runtime.core.internal.serialization.JavaObjectSerializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the Java and binary serialization protocols writing and reading an event, as done when an event is stored in a
+ * persistent object store or queue. The size of the serialized event with each protocol is logged on setup.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class SerializationBenchmark extends AbstractBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SerializationBenchmark.class);
+
+  @Param({"java", "binary"})
+  public String protocol;
+
+  private MuleContext muleContext;
+  private SerializationProtocol serializationProtocol;
+  private CoreEvent event;
+  private byte[] serializedEvent;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    Flow flow = createFlow(muleContext);
+
+    ObjectSerializer objectSerializer = "binary".equals(protocol) ? new BinaryObjectSerializer() : new JavaObjectSerializer();
+    ((MuleContextAware) objectSerializer).setMuleContext(muleContext);
+    serializationProtocol = objectSerializer.getInternalProtocol();
+
+    CoreEvent.Builder builder = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(of(PAYLOAD));
+    for (int i = 0; i < 10; i++) {
+      builder.addVariable(KEY + i, VALUE + i);
+    }
+    event = builder.build();
+    serializedEvent = serializationProtocol.serialize(event);
+    LOGGER.info("Event serialized with the {} protocol takes {} bytes", protocol, serializedEvent.length);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    muleContext.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializationProtocol.serialize(event);
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    return serializationProtocol.deserialize(serializedEvent, muleContext.getExecutionClassLoader());
+  }
+
+}
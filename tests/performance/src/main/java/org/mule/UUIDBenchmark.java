@@ -7,6 +7,7 @@
 package org.mule;
 
 import static org.mule.runtime.core.api.util.UUID.getClusterUUID;
+import static org.mule.runtime.core.api.util.UUID.getCompactUUID;
 import static org.mule.runtime.core.api.util.UUID.getUUID;
 
 import org.mule.runtime.api.exception.MuleException;
@@ -20,6 +21,11 @@ public class UUIDBenchmark extends AbstractBenchmark {
     return getUUID();
   }
 
+  @Benchmark
+  public String compactUUID() throws MuleException {
+    return getCompactUUID();
+  }
+
   @Benchmark
   public String clusterUUID() throws MuleException {
     return getClusterUUID(getClusterId());
@@ -47,7 +47,7 @@ public class MVELBenchmark extends AbstractBenchmark {
     muleContext = createMuleContextWithServices();
     ((MVELExpressionLanguage) lookupObject(muleContext, OBJECT_EXPRESSION_LANGUAGE)).setAutoResolveVariables(false);
     flow = createFlow(muleContext);
-    event = createEvent(flow);
+    event = CoreEvent.builder(createEvent(flow)).addVariable("foo", "bar").build();
   }
 
   @TearDown
@@ -80,4 +80,28 @@ public class MVELBenchmark extends AbstractBenchmark {
     return muleContext.getExpressionManager().evaluate(mel, event);
   }
 
+  /**
+   * Expression that just reads the payload, evaluated without executing it through MVEL.
+   */
+  @Benchmark
+  public Object mvelPayload() {
+    return muleContext.getExpressionManager().evaluate("#[mel:payload]", event);
+  }
+
+  /**
+   * Expression that just reads a flow variable, evaluated without executing it through MVEL.
+   */
+  @Benchmark
+  public Object mvelFlowVar() {
+    return muleContext.getExpressionManager().evaluate("#[mel:flowVars.foo]", event);
+  }
+
+  /**
+   * Expression that just reads the inbound properties, evaluated without executing it through MVEL.
+   */
+  @Benchmark
+  public Object mvelInboundProperties() {
+    return muleContext.getExpressionManager().evaluate("#[mel:message.inboundProperties]", event);
+  }
+
 }
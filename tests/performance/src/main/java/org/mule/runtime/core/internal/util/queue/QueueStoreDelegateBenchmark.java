@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.Serializable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the persistent {@link QueueStoreDelegate} implementations, both with a single thread and with concurrent producers
+ * and consumers.
+ */
+@OutputTimeUnit(MICROSECONDS)
+public class QueueStoreDelegateBenchmark extends AbstractBenchmark {
+
+  @Param({"dual", "mapped"})
+  public String delegateType;
+
+  private MuleContext muleContext;
+  private File workingDirectory;
+  private TransactionalQueueStoreDelegate delegate;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    workingDirectory = createTempDirectory("queue-benchmark").toFile();
+
+    if ("mapped".equals(delegateType)) {
+      delegate = new MappedFileQueueStoreDelegate("benchmark", workingDirectory.getAbsolutePath(), muleContext, 0);
+    } else {
+      delegate = new DualRandomAccessFileQueueStoreDelegate("benchmark", workingDirectory.getAbsolutePath(), muleContext, 0);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws Exception {
+    delegate.dispose();
+    muleContext.dispose();
+    deleteDirectory(workingDirectory);
+  }
+
+  @Benchmark
+  public Serializable putAndPoll() throws InterruptedException {
+    delegate.putNow(PAYLOAD);
+    return delegate.poll(0);
+  }
+
+  @Benchmark
+  @Group("producerConsumer")
+  @GroupThreads(4)
+  public void produce() {
+    delegate.putNow(PAYLOAD);
+  }
+
+  @Benchmark
+  @Group("producerConsumer")
+  @GroupThreads(4)
+  public Serializable consume() throws InterruptedException {
+    return delegate.poll(1);
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore.LOG_STRUCTURED_ENGINE;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.store.ExpirableObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the file-per-key and the log-structured engines of the persistent object store partitions.
+ */
+@OutputTimeUnit(MICROSECONDS)
+public class PersistentObjectStorePartitionBenchmark extends AbstractBenchmark {
+
+  private static final int PRELOADED_ENTRIES = 10000;
+
+  @Param({"file", "log"})
+  public String engine;
+
+  private MuleContext muleContext;
+  private File partitionDirectory;
+  private ExpirableObjectStore<String> partition;
+  private final AtomicLong counter = new AtomicLong();
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    partitionDirectory = createTempDirectory("os-benchmark").toFile();
+
+    if (LOG_STRUCTURED_ENGINE.equals(engine)) {
+      partition = new LogStructuredObjectStorePartition<>(muleContext, "benchmark", partitionDirectory);
+    } else {
+      partition = new PersistentObjectStorePartition<>(muleContext, "benchmark", partitionDirectory);
+    }
+    partition.open();
+
+    for (int i = 0; i < PRELOADED_ENTRIES; ++i) {
+      partition.store(KEY + i, VALUE);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws Exception {
+    partition.clear();
+    muleContext.dispose();
+    deleteDirectory(partitionDirectory);
+  }
+
+  @Benchmark
+  public String storeAndRemove() throws ObjectStoreException {
+    String key = "new-" + counter.incrementAndGet();
+    partition.store(key, VALUE);
+    return partition.remove(key);
+  }
+
+  @Benchmark
+  public String retrieve() throws ObjectStoreException {
+    return partition.retrieve(KEY + (counter.incrementAndGet() % PRELOADED_ENTRIES));
+  }
+
+  @Benchmark
+  public boolean contains() throws ObjectStoreException {
+    return partition.contains(KEY + (counter.incrementAndGet() % PRELOADED_ENTRIES));
+  }
+
+  @Benchmark
+  public int allKeys() throws ObjectStoreException {
+    return partition.allKeys().size();
+  }
+
+  @Benchmark
+  public void expire() throws ObjectStoreException {
+    partition.expire(0, PRELOADED_ENTRIES + 1);
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvoker.createInvoker;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+
+import org.mule.AbstractBenchmark;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+@OutputTimeUnit(NANOSECONDS)
+public class MethodInvokerBenchmark extends AbstractBenchmark {
+
+  private Operations operations;
+  private Method method;
+  private MethodInvoker invoker;
+  private Object[] args;
+
+  @Setup
+  public void setup() throws Exception {
+    operations = new Operations();
+    method = Operations.class.getMethod("operation", String.class, int.class, boolean.class);
+    invoker = createInvoker(method, operations);
+    args = new Object[] {VALUE, 42, true};
+  }
+
+  @Benchmark
+  public Object reflection() {
+    return invokeMethod(method, operations, args);
+  }
+
+  @Benchmark
+  public Object methodInvoker() {
+    return invoker.invoke(args);
+  }
+
+  public static class Operations {
+
+    public String operation(String value, int count, boolean upperCase) {
+      return upperCase ? value : value + count;
+    }
+  }
+}